@@ -1,6 +1,7 @@
 import { GameConfig } from "../../data/config/GameConfig";
 import { ServerToClientJSONMessage, GameInfo } from "./JSONMessages";
 import * as GameUpdateDecoder from "../decoder/GameUpdateDecoder";
+import { KnownFood } from "../decoder/FoodDecoder";
 import { DataUpdateDTO } from "../../data/dto/DataUpdateDTO";
 
 /**
@@ -12,6 +13,7 @@ export default class GameDataBuffer {
 
     #updateQueue: QueuedUpdate[] = [];
     #snakeNames = new Map<SnakeId, string>();
+    #knownFood: KnownFood = new Map();
     #serverUpdateEventTrigger?: () => void;
 
     constructor(trigger?: () => void) {
@@ -20,6 +22,7 @@ export default class GameDataBuffer {
 
     init(gameInfo: GameInfo): void {
         this.config = gameInfo.gameConfig;
+        this.#knownFood.clear();
         if (gameInfo.snakeName) {
             this.#snakeNames.set(gameInfo.snakeId, gameInfo.snakeName);
         }
@@ -46,7 +49,7 @@ export default class GameDataBuffer {
     }
 
     addBinaryUpdate(buffer: ArrayBuffer): void {
-        const data = GameUpdateDecoder.decode(this.config, buffer);
+        const data = GameUpdateDecoder.decode(this.config, buffer, this.#knownFood);
 
         if (data.ticksSinceLastUpdate <= 0) {
             console.error(`Binary update not supported! ticks: ${data.ticksSinceLastUpdate}`);
@@ -1,14 +1,19 @@
 /*eslint no-bitwise: "off"*/
 
 import type { GameConfig } from "../../data/config/GameConfig";
-import type { FoodChunkDTO } from "../../data/dto/FoodChunkDTO";
+import type { FoodChunkDTO, FoodChunkId } from "../../data/dto/FoodChunkDTO";
 import type { DecodeResult } from "./DecodeResult";
 import Random from "../../util/Random";
 
 export const NUM_SKINS = 7;
 export const FOOD_CHUNK_HEADER_SIZE = 4;
 export const FOOD_BYTE_SIZE = 3;
+export const FOOD_DELTA_FLAG = 0x8000;
 const SIZE_BIT_OFFSET = 6;
+/**
+ * Size value of a change that removes a food item.
+ */
+const REMOVAL = 3;
 const COLOR_BIT_MASK = (1 << SIZE_BIT_OFFSET) - 1;
 const FOOD_SIZES = [0.64, 1.0, 1.5];
 const VERTEX_BYTE_SIZE =
@@ -19,15 +24,22 @@ const VERTEX_BYTE_SIZE =
 
 const random = new Random();
 
+/**
+ * The encoded food items of each chunk as last received, so changes can be applied to them.
+ * Belongs to a single game.
+ */
+export type KnownFood = Map<FoodChunkId, Uint8Array>;
+
 export function decode(
     buffer: ArrayBuffer,
     offset: number,
-    config: GameConfig
+    config: GameConfig,
+    knownFood: KnownFood
 ): DecodeResult<FoodChunkDTO> {
     const decView = new DataView(buffer, offset);
     const chunkSize = config.chunks.size;
 
-    const n = decView.getUint16(2, false);
+    const count = decView.getUint16(2, false);
 
     // Chunk related stuff.
     const chunkId = decView.getUint16(0, false);
@@ -36,20 +48,29 @@ export function decode(
     const xOffset = (column - 0.5 * config.chunks.columns) * chunkSize;
     const yOffset = (row - 0.5 * config.chunks.rows) * chunkSize;
 
+    // Either all food items or the changes since the last update of this chunk.
+    const isDelta = (count & FOOD_DELTA_FLAG) !== 0;
+    const byteLength = (count & ~FOOD_DELTA_FLAG) * FOOD_BYTE_SIZE;
+    const data = new Uint8Array(buffer, offset + FOOD_CHUNK_HEADER_SIZE, byteLength);
+    const items = isDelta ? applyChanges(getKnownItems(knownFood, chunkId), data) : data.slice();
+    knownFood.set(chunkId, items);
+    const itemView = new DataView(items.buffer, items.byteOffset, items.byteLength);
+    const n = items.length / FOOD_BYTE_SIZE;
+
     // Output vars.
     const vertexBuffer = new ArrayBuffer(n * VERTEX_BYTE_SIZE);
     const encView = new DataView(vertexBuffer);
 
     // Iterate over food items.
     for (let i = 0; i < n; i++) {
-        const foodOffset = FOOD_CHUNK_HEADER_SIZE + i * FOOD_BYTE_SIZE;
+        const foodOffset = i * FOOD_BYTE_SIZE;
 
         // Unpack relative position.
-        const bx = decView.getInt8(foodOffset + 0) + 128;
-        const by = decView.getInt8(foodOffset + 1) + 128;
+        const bx = itemView.getInt8(foodOffset + 0) + 128;
+        const by = itemView.getInt8(foodOffset + 1) + 128;
 
         // Unpack color and size.
-        const colorAndSize = decView.getUint8(foodOffset + 2);
+        const colorAndSize = itemView.getUint8(foodOffset + 2);
         const size = FOOD_SIZES[colorAndSize >> SIZE_BIT_OFFSET];
         const color = colorAndSize & COLOR_BIT_MASK;
 
@@ -59,7 +80,7 @@ export function decode(
 
         // Create a seed for random float generation based on the given
         // bits s.t. they are consistent (same input => same output).
-        random.setSeed((decView.getUint16(foodOffset) << 8) | colorAndSize);
+        random.setSeed((itemView.getUint16(foodOffset) << 8) | colorAndSize);
 
         // Encode data for vertex buffer.
         const vbOffset = i * VERTEX_BYTE_SIZE;
@@ -84,10 +105,53 @@ export function decode(
                 maxY: yOffset + chunkSize
             }
         },
-        nextByteOffset: offset + FOOD_CHUNK_HEADER_SIZE + n * FOOD_BYTE_SIZE
+        nextByteOffset: offset + FOOD_CHUNK_HEADER_SIZE + byteLength
     };
 }
 
+function getKnownItems(knownFood: KnownFood, chunkId: FoodChunkId): Uint8Array {
+    const items = knownFood.get(chunkId);
+    if (items === undefined) {
+        console.error(`Received food changes of unknown chunk ${chunkId}`);
+        return new Uint8Array(0);
+    }
+    return items;
+}
+
+/**
+ * Apply changes to the known food items of a chunk. A change either adds an item or removes the
+ * item with the given index, in which case the last item takes the place of the removed one.
+ */
+function applyChanges(known: Uint8Array, changes: Uint8Array): Uint8Array {
+    let additions = 0;
+    for (let i = 0; i < changes.length; i += FOOD_BYTE_SIZE) {
+        if (changes[i + 2] >> SIZE_BIT_OFFSET !== REMOVAL) {
+            additions++;
+        }
+    }
+
+    const items = new Uint8Array(known.length + additions * FOOD_BYTE_SIZE);
+    items.set(known);
+    let length = known.length;
+
+    for (let i = 0; i < changes.length; i += FOOD_BYTE_SIZE) {
+        if (changes[i + 2] >> SIZE_BIT_OFFSET === REMOVAL) {
+            const index = ((changes[i] << 8) | changes[i + 1]) * FOOD_BYTE_SIZE;
+            if (index >= length) {
+                // the item is not known, e.g. because the chunk is not known
+                continue;
+            }
+            length -= FOOD_BYTE_SIZE;
+            items.copyWithin(index, length, length + FOOD_BYTE_SIZE);
+        } else {
+            items.set(changes.subarray(i, i + FOOD_BYTE_SIZE), length);
+            length += FOOD_BYTE_SIZE;
+        }
+    }
+
+    return items.slice(0, length);
+}
+
 function randomWiggleSpeed(): number {
     const sign = random.nextBoolean() ? 1 : -1;
     const rand = random.nextFloat();
@@ -9,7 +9,11 @@ import { SnakeChunkDTO } from "../../data/dto/SnakeChunkDTO";
 
 export const UPDATE_HEADER_SIZE = 5;
 
-export function decode(config: GameConfig, buffer: ArrayBuffer): DecodedGameUpdate {
+export function decode(
+    config: GameConfig,
+    buffer: ArrayBuffer,
+    knownFood: FCD.KnownFood
+): DecodedGameUpdate {
     const view = new DataView(buffer);
 
     // read update header
@@ -39,7 +43,7 @@ export function decode(config: GameConfig, buffer: ArrayBuffer): DecodedGameUpda
 
     // read food
     const { data: foodChunks, nextByteOffset: heatMapOffset } = ArrayDecoder.decode(
-        FCD.decode,
+        (foodBuffer, offset, foodConfig) => FCD.decode(foodBuffer, offset, foodConfig, knownFood),
         config,
         numFoodChunks,
         buffer,
@@ -14,8 +14,8 @@ describe("FoodDecoder", () => {
         const rand = new Rand("deterministic VB seed");
         for (let i = 0; i < 10; i++) {
             const buffer = createRandomFoodUpdateBuffer(rand);
-            const decoded1 = FoodDecoder.decode(buffer, 0, defaultConfig).data;
-            const decoded2 = FoodDecoder.decode(buffer, 0, defaultConfig).data;
+            const decoded1 = FoodDecoder.decode(buffer, 0, defaultConfig, new Map()).data;
+            const decoded2 = FoodDecoder.decode(buffer, 0, defaultConfig, new Map()).data;
             expect(decoded1.count).toBe(decoded2.count);
             expect(decoded1.vertexBuffer.byteLength).toBe(decoded2.vertexBuffer.byteLength);
             const a = new Int8Array(decoded1.vertexBuffer);
@@ -23,4 +23,42 @@ describe("FoodDecoder", () => {
             expect(a).toStrictEqual(b);
         }
     });
+
+    test("changes should be applied to the known food", () => {
+        const knownFood: FoodDecoder.KnownFood = new Map();
+        const header = [3, 4];
+        const full = new Uint8Array([...header, 0, 3, 10, 10, 1, 20, 20, 2, 30, 30, 3]);
+        const decoded = FoodDecoder.decode(full.buffer, 0, defaultConfig, knownFood).data;
+        expect(decoded.count).toBe(3);
+
+        // remove the first item (the last one takes its place) and add a new one
+        const changes = [0, 0, 3 << 6, 40, 40, 4];
+        const delta = new Uint8Array([...header, 0x80, 2, ...changes]);
+        const result = FoodDecoder.decode(delta.buffer, 0, defaultConfig, knownFood);
+        expect(result.nextByteOffset).toBe(delta.length);
+        expect(result.data.count).toBe(3);
+
+        // the same food encoded as a whole
+        const expected = new Uint8Array([...header, 0, 3, 30, 30, 3, 20, 20, 2, 40, 40, 4]);
+        const expectedData = FoodDecoder.decode(expected.buffer, 0, defaultConfig, new Map()).data;
+        expect(new Int8Array(result.data.vertexBuffer)).toStrictEqual(
+            new Int8Array(expectedData.vertexBuffer)
+        );
+    });
+
+    test("changes of an unknown chunk should only add food", () => {
+        const error = jest.spyOn(console, "error").mockImplementation(() => undefined);
+        const knownFood: FoodDecoder.KnownFood = new Map();
+        const header = [5, 6];
+
+        // remove an item that is not known and add a new one
+        const changes = [0, 1, 3 << 6, 40, 40, 4];
+        const delta = new Uint8Array([...header, 0x80, 2, ...changes]);
+        const result = FoodDecoder.decode(delta.buffer, 0, defaultConfig, knownFood);
+        expect(error).toHaveBeenCalledTimes(1);
+        expect(result.nextByteOffset).toBe(delta.length);
+        expect(result.data.count).toBe(1);
+        expect(knownFood.get(result.data.id)).toStrictEqual(new Uint8Array([40, 40, 4]));
+        error.mockRestore();
+    });
 });
@@ -0,0 +1,77 @@
+package game;
+
+import game.snake.BenchmarkSnakes;
+import game.snake.Snake;
+import game.world.World;
+import game.world.WorldChunk;
+import math.Direction;
+import math.Vector;
+
+import java.util.Random;
+
+/**
+ * Game fixture for benchmarks. Half of the snakes are crowded around the center of the world,
+ * the other half is spread over the rest of it. Snakes have varied lengths and cannot be killed,
+ * so benchmarks do not change the number of snakes.
+ */
+public class BenchmarkGame extends Game {
+    private static final int WARM_UP_TICKS = 300;
+    private final Random random;
+
+    private BenchmarkGame(Random random) {
+        super(new World(new GameConfig(), true), TickExecutor.sequential());
+        this.random = random;
+    }
+
+    public static BenchmarkGame create(int numberOfSnakes, long seed) {
+        final var game = new BenchmarkGame(new Random(seed));
+        final var random = game.random;
+        final var halfSize = 0.5 * game.world.box.getWidth();
+
+        for (int i = 0; i < numberOfSnakes; i++) {
+            final var crowded = i % 2 == 0;
+            final var radius = (crowded ? 0.1 : 0.6) * halfSize * Math.sqrt(random.nextDouble());
+            final var angle = 2.0 * Math.PI * random.nextDouble();
+            final var position = new Vector(radius * Math.cos(angle), radius * Math.sin(angle));
+            final var direction = 2.0 * Math.PI * random.nextDouble() - Math.PI;
+
+            final var snake = BenchmarkSnakes.createImmortalSnake(position, direction, game.world);
+            // mostly short snakes and a few long ones
+            snake.grow(1.0 + 400.0 * random.nextDouble() * random.nextDouble());
+            game.snakes.add(snake);
+        }
+
+        for (int i = 0; i < WARM_UP_TICKS; i++) {
+            game.moveSnakes();
+        }
+        game.removeOldSnakeChunks();
+        game.tick();
+
+        return game;
+    }
+
+    /**
+     * Steer all snakes randomly while keeping them within the world and move them.
+     */
+    public void moveSnakes() {
+        final var limit = 0.35 * world.box.getWidth();
+
+        snakes.forEach(snake -> {
+            final var head = snake.getHeadPosition();
+            if (Vector.distance(head, Vector.ORIGIN) > limit) {
+                snake.setTargetDirection(Direction.normalize(Math.atan2(-head.y, -head.x)));
+            } else {
+                snake.setTargetDirection(Direction.normalize(snake.getHeadDirection() + 0.3 * random.nextGaussian()));
+            }
+            snake.tick();
+        });
+    }
+
+    public void removeOldSnakeChunks() {
+        world.chunks.forEach(WorldChunk::removeOldSnakeChunks);
+    }
+
+    public Snake getSnake(int index) {
+        return snakes.get(index);
+    }
+}
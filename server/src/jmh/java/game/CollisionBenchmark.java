@@ -0,0 +1,29 @@
+package game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CollisionBenchmark {
+    @Param({"60", "300", "1000"})
+    public int snakes;
+    private BenchmarkGame game;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = BenchmarkGame.create(snakes, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        game.stop();
+    }
+
+    @Benchmark
+    public void detectCollisions() {
+        game.collisionManager.detectCollisions();
+    }
+}
@@ -0,0 +1,47 @@
+package game.snake;
+
+import game.world.World;
+import math.Vector;
+
+public final class BenchmarkSnakes {
+    private BenchmarkSnakes() {
+    }
+
+    /**
+     * Create a snake that cannot be killed, so collisions do not change a benchmark fixture.
+     */
+    public static Snake createImmortalSnake(Vector position, double direction, World world) {
+        final var snake = new ImmortalSnake(world.getSnakeRegistry().allocateId(), world);
+        world.getSnakeRegistry().register(snake);
+        snake.setHead(position, direction);
+        snake.setTargetDirection(direction);
+        snake.beginChunk();
+        world.addSnake(snake);
+        return snake;
+    }
+
+    /**
+     * Create an empty {@link GrowingSnakeChunk} at the head of the given snake.
+     */
+    public static GrowingSnakeChunk createGrowingSnakeChunk(Snake snake, char chunkId) {
+        return new GrowingSnakeChunk(new ChainCodeCoder(snake), snake, chunkId);
+    }
+
+    /**
+     * Release a chunk that is not part of its snake, so the path ring of the snake does not keep
+     * growing and the path segments go back to the pool. This releases all points recorded before as well.
+     */
+    public static void release(FinalSnakeChunk chunk) {
+        chunk.release();
+    }
+
+    private static final class ImmortalSnake extends Snake {
+        private ImmortalSnake(char id, World world) {
+            super(id, world, "BenchmarkSnake", (byte) 0);
+        }
+
+        @Override
+        public void kill() {
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package game.snake;
+
+import game.GameConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare moving along a sequence of chain codes with cosine and sine per step
+ * to rotating a direction vector per change of direction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChainCodeBenchmark {
+    private static final int NUMBER_OF_CODES = 4096;
+    /**
+     * Probability that a step changes the direction.
+     */
+    @Param({"0.1", "0.5", "1.0"})
+    public double turnProbability;
+    private final ChainCodeCoder coder = new ChainCodeCoder(new GameConfig());
+    private final int[] codes = new int[NUMBER_OF_CODES];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final var random = new Random(42);
+        for (int i = 0; i < NUMBER_OF_CODES; i++) {
+            codes[i] = random.nextDouble() < turnProbability ? 1 + random.nextInt(ChainCodeCoder.DIRECTION_MASK) : 0;
+        }
+    }
+
+    @Benchmark
+    public void trigonometry(Blackhole blackhole) {
+        double x = 0.0, y = 0.0, direction = 0.0;
+        for (final var code : codes) {
+            direction += coder.decodeDirectionChange(code);
+            x += Math.cos(direction);
+            y += Math.sin(direction);
+        }
+        blackhole.consume(x);
+        blackhole.consume(y);
+    }
+
+    @Benchmark
+    public void rotation(Blackhole blackhole) {
+        double x = 0.0, y = 0.0;
+        final var vector = new double[]{1.0, 0.0};
+        int rotations = 0;
+        for (final var code : codes) {
+            if (code != 0) {
+                coder.rotate(vector, 0, code, ++rotations);
+            }
+            x += vector[0];
+            y += vector[1];
+        }
+        blackhole.consume(x);
+        blackhole.consume(y);
+    }
+}
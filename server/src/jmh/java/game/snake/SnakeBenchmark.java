@@ -0,0 +1,58 @@
+package game.snake;
+
+import game.BenchmarkGame;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnakeBenchmark {
+    @Param({"60", "300", "1000"})
+    public int snakes;
+    private BenchmarkGame game;
+    private Snake snake;
+    private char nextChunkId = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = BenchmarkGame.create(snakes, 42);
+        snake = game.getSnake(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeOldSnakeChunks() {
+        game.removeOldSnakeChunks();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        game.stop();
+    }
+
+    /**
+     * Steer and tick all snakes once.
+     */
+    @Benchmark
+    public void tick() {
+        game.moveSnakes();
+    }
+
+    /**
+     * Fill a {@link GrowingSnakeChunk} with chain codes and build the final chunk.
+     */
+    @Benchmark
+    public void appendAndBuild(Blackhole blackhole) {
+        final var chunk = BenchmarkSnakes.createGrowingSnakeChunk(snake, nextChunkId++);
+        int i = 0;
+        while (!chunk.isFull()) {
+            // alternate turning and straight segments
+            chunk.append((i++ & 4) == 0 ? 9 : 0, false);
+        }
+        final var finalChunk = chunk.build();
+        BenchmarkSnakes.release(finalChunk);
+        blackhole.consume(finalChunk);
+    }
+}
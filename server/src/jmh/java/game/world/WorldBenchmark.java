@@ -0,0 +1,79 @@
+package game.world;
+
+import game.BenchmarkGame;
+import math.BoundingBox;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorldBenchmark {
+    @Param({"60", "300", "1000"})
+    public int snakes;
+    private BenchmarkGame game;
+    private List<BoundingBox> queryBoxes;
+    private int nextSnake = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = BenchmarkGame.create(snakes, 42);
+        // bots look for snake chunks in a box around their head
+        queryBoxes = game.getSnakes().stream()
+                .map(snake -> new BoundingBox(snake.getHeadPosition(), 16.0, 16.0))
+                .toList();
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeRecycledFood() {
+        game.world.chunks.forEach(WorldChunk::removeAllFood);
+        game.world.spawnFood();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        game.stop();
+    }
+
+    /**
+     * Query the chunks around the head of every snake.
+     */
+    @Benchmark
+    public void findNearbyChunks(Blackhole blackhole) {
+        for (final var box : queryBoxes) {
+            blackhole.consume(game.world.chunks.findNearbyChunks(box, 4.0));
+        }
+    }
+
+    /**
+     * Like {@link #findNearbyChunks(Blackhole)} but visit the chunks without collecting them.
+     */
+    @Benchmark
+    public void forEachNearbyChunk(Blackhole blackhole) {
+        for (final var box : queryBoxes) {
+            game.world.chunks.forEachNearbyChunk(box, 4.0, blackhole::consume);
+        }
+    }
+
+    /**
+     * Recompute the heat of all chunks, which is the worst case of a heat map update.
+     */
+    @Benchmark
+    public void updateHeatMap() {
+        final var heatMap = game.world.getHeatMap();
+        game.world.chunks.forEach(heatMap::markDirty);
+        heatMap.recompute();
+    }
+
+    /**
+     * Turn a snake into food. The snakes of the fixture are not killed by this.
+     */
+    @Benchmark
+    public void recycleDeadSnake() {
+        game.world.recycleDeadSnake(game.getSnake(nextSnake));
+        nextSnake = (nextSnake + 1) % snakes;
+    }
+}
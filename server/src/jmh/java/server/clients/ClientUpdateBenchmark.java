@@ -0,0 +1,65 @@
+package server.clients;
+
+import game.BenchmarkGame;
+import game.world.WorldSnapshot;
+import math.BoundingBox;
+import math.Vector;
+import org.openjdk.jmh.annotations.*;
+import server.protocol.GameUpdate;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClientUpdateBenchmark {
+    @Param({"60", "300", "1000"})
+    public int snakes;
+    private BenchmarkGame game;
+    private WorldSnapshot snapshot;
+    /**
+     * The knowledge box of a client in the crowded center.
+     */
+    private final BoundingBox box = new BoundingBox(Vector.ORIGIN, 1.6 * 48.0, 48.0);
+    private ClientKnowledge knowledge;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        game = BenchmarkGame.create(snakes, 42);
+        snapshot = game.getSnapshot();
+        knowledge = new ClientKnowledge();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        game.stop();
+    }
+
+    /**
+     * Collect the chunks within the knowledge box and create the next update as done for
+     * every client and tick. Final chunks are only included in the first update.
+     */
+    @Benchmark
+    public GameUpdate createNextGameUpdate() {
+        snapshot.forEachIntersectingChunk(box, chunk -> {
+            chunk.snakeChunks().forEach(knowledge::addSnakeChunk);
+            knowledge.addFoodChunk(chunk.food());
+        });
+        return knowledge.createNextGameUpdate(snapshot, box, (byte) 1);
+    }
+
+    /**
+     * Encode a complete update of the knowledge box, as sent to a newly joined client.
+     */
+    @Benchmark
+    public ByteBuffer createUpdateBuffer() {
+        final var update = new GameUpdate();
+        snapshot.forEachIntersectingChunk(box, chunk -> {
+            chunk.snakeChunks().forEach(update::addSnakeChunk);
+            update.addFoodChunk(chunk.food());
+        });
+        update.freeze(snapshot);
+        return update.createUpdateBuffer();
+    }
+}
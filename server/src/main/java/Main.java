@@ -1,3 +1,4 @@
+import game.Game;
 import server.SnakeServer;
 
 import java.io.IOException;
@@ -5,10 +6,24 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.logging.LogManager;
 
+/**
+ * Starts the server. With {@code --record=FILE} the game gets recorded, so it can be replayed
+ * later by {@link Replay}.
+ */
 public class Main {
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) throws InterruptedException, IOException {
         initializeLogging();
-        SnakeServer.start();
+
+        if (args.length == 1 && args[0].startsWith("--record=")) {
+            final var game = new Game();
+            game.startRecording(Files.newOutputStream(Paths.get(args[0].substring("--record=".length()))));
+            Runtime.getRuntime().addShutdownHook(new Thread(game::stop));
+            final var server = SnakeServer.start(game);
+            game.start();
+            server.join();
+        } else {
+            SnakeServer.start();
+        }
     }
 
     private static void initializeLogging() {
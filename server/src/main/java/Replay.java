@@ -0,0 +1,37 @@
+import game.TickExecutor;
+import game.replay.GameLog;
+import game.replay.ReplayGame;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Replays a game recorded with {@code Main --record=FILE} without network as fast as possible,
+ * verifies that the simulation matches the recording and reports its throughput.
+ * <p>
+ * Usage: {@code Replay FILE [--threads=N]}
+ */
+public class Replay {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: Replay FILE [--threads=N]");
+            System.exit(2);
+        }
+
+        final int threads = args.length == 2 && args[1].startsWith("--threads=")
+                ? Integer.parseInt(args[1].substring("--threads=".length()))
+                : Runtime.getRuntime().availableProcessors();
+
+        try (final var log = new GameLog.Reader(Files.newInputStream(Path.of(args[0])))) {
+            final var game = new ReplayGame(log, TickExecutor.create(threads));
+            try {
+                final var result = game.run();
+                System.out.printf("Replayed %d ticks in %.2f s (%.1f ticks/s), %d checksums verified.%n",
+                        result.ticks(), result.elapsedNanos() / 1e9, result.ticksPerSecond(), result.verifiedChecksums());
+            } finally {
+                game.stop();
+            }
+        }
+    }
+}
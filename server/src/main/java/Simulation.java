@@ -0,0 +1,61 @@
+import game.GameConfig;
+import game.HeadlessGame;
+import game.TickExecutor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Runs a game without network as fast as possible and reports its throughput.
+ * <p>
+ * Options (all optional):
+ * <pre>
+ * --ticks=N       number of measured ticks (default: 5000)
+ * --warmup=N      number of ticks before measuring (default: 1000)
+ * --bots=N        number of bots (default: 60)
+ * --players=N     number of player stand-ins (default: 0)
+ * --chunks=N      number of chunks per row and column (default: 16)
+ * --chunk-size=S  size of a chunk (default: 32)
+ * --threads=N     tick parallelism (default: number of processors)
+ * --seed=N        seed for player input (default: 1)
+ * </pre>
+ */
+public class Simulation {
+    public static void main(String[] args) {
+        final var options = parseOptions(args);
+        final int ticks = Integer.parseInt(options.getOrDefault("ticks", "5000"));
+        final int warmup = Integer.parseInt(options.getOrDefault("warmup", "1000"));
+        final int bots = Integer.parseInt(options.getOrDefault("bots", "60"));
+        final int players = Integer.parseInt(options.getOrDefault("players", "0"));
+        final int chunks = Integer.parseInt(options.getOrDefault("chunks", "16"));
+        final double chunkSize = Double.parseDouble(options.getOrDefault("chunk-size", "32"));
+        final int threads = Integer.parseInt(options.getOrDefault("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        final long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+
+        final var config = new GameConfig(new GameConfig.ChunkInfo(chunkSize, chunks));
+        final var game = new HeadlessGame(config, TickExecutor.create(threads), bots, players, new Random(seed));
+
+        System.out.printf("Simulating %d bots and %d players on %dx%d chunks of size %.1f using %d threads.%n",
+                bots, players, chunks, chunks, chunkSize, threads);
+
+        game.run(warmup);
+        final var report = game.run(ticks);
+        System.out.println(report);
+
+        game.stop();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        final var options = new HashMap<String, String>();
+        for (final var arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Invalid option: " + arg);
+            }
+            final var separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -1,6 +1,9 @@
 package debugview;
 
 import game.snake.SnakeChunk;
+import game.world.Food;
+import game.world.WorldChunk;
+import game.world.WorldSnapshot;
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.scene.Group;
@@ -13,6 +16,7 @@ import math.Vector;
 import server.clients.Player;
 import server.SnakeServer;
 
+import java.util.List;
 import java.util.OptionalInt;
 
 
@@ -52,23 +56,31 @@ public class DebugView extends Application {
         AnimationTimer timer = new AnimationTimer() {
             @Override
             public void handle(long now) {
-                game.awaitExecution(() -> {
-                    ctx.clearRect(0, 0, 800, 600);
-
-                    if (!game.getSnakes().isEmpty()) {
-                        final var playerId = game.streamClients()
-                                .filter(Player.class::isInstance)
-                                .map(Player.class::cast)
-                                .map(Player::getSnake)
-                                .mapToInt(snake -> snake.id)
-                                .findFirst();
-
-                        drawSnakes(ctx, playerId);
-                        drawFood(ctx);
-                        drawCurrentWorldChunk(ctx);
-                        drawSnakeChunksBoundingBoxes(ctx, playerId);
-                    }
-                });
+                final var snapshot = game.getSnapshot();
+                ctx.clearRect(0, 0, 800, 600);
+
+                if (!snapshot.getSnakes().isEmpty()) {
+                    final var playerId = game.streamClients()
+                            .filter(Player.class::isInstance)
+                            .map(Player.class::cast)
+                            .map(Player::getSnake)
+                            .mapToInt(snake -> snake.id)
+                            .findFirst();
+
+                    // Path points and food are not part of the snapshot, so they are copied
+                    // by the simulation lane.
+                    final var snakeBodies = new SnakeBody[1][];
+                    final var food = new Food[1][];
+                    game.awaitExecution(() -> {
+                        snakeBodies[0] = snapshot.getSnakes().stream().map(SnakeBody::capture).toArray(SnakeBody[]::new);
+                        food[0] = game.world.chunks.stream().flatMap(WorldChunk::streamFood).toArray(Food[]::new);
+                    });
+
+                    drawSnakes(ctx, snapshot, snakeBodies[0], playerId);
+                    drawFood(ctx, food[0]);
+                    drawCurrentWorldChunk(ctx, snapshot);
+                    drawSnakeChunksBoundingBoxes(ctx, snapshot, playerId);
+                }
             }
         };
 
@@ -76,64 +88,64 @@ public class DebugView extends Application {
         primaryStage.show();
     }
 
-    private void drawFood(GraphicsContext g) {
+    private void drawFood(GraphicsContext g, Food[] foodList) {
         g.setFill(Color.RED);
         g.setStroke(Color.RED);
-        game.world.chunks.forEach(chunk -> chunk.streamFood().forEach(food -> {
+        for (final var food : foodList) {
             var size = food.size.radius;
             g.fillOval((food.position.x - camera.x) * ZOOM + 400 - size * ZOOM,
                     300 - (food.position.y - camera.y) * ZOOM - size * ZOOM,
                     size * ZOOM, size * ZOOM);
-        }));
+        }
     }
 
-    private void drawSnakes(GraphicsContext g, OptionalInt playerId) {
-        game.getSnakes().forEach(snake -> {
+    private void drawSnakes(GraphicsContext g, WorldSnapshot snapshot, SnakeBody[] snakeBodies, OptionalInt playerId) {
+        for (int i = 0; i < snakeBodies.length; i++) {
+            final var snake = snapshot.getSnakes().get(i);
+            final var body = snakeBodies[i];
             g.setFill(Color.BLACK);
             g.setStroke(Color.BLACK);
-            if (playerId.isPresent() && snake.id == playerId.getAsInt()) {
+            if (playerId.isPresent() && snake.snake().id == playerId.getAsInt()) {
                 g.setFill(Color.BLUE);
                 g.setStroke(Color.BLUE);
                 if (FOLLOW_PLAYER) {
-                    camera = snake.getHeadPosition();
+                    camera = snake.headPosition();
                 }
             }
 
-            final var snakeSize = snake.getWidth();
+            final var snakeSize = snake.width();
 
-            snake.streamSnakeChunks()
-                    .flatMap(SnakeChunk::getActivePathData)
-                    .forEach(pd -> {
-                        final var x = pd.point.x;
-                        final var y = pd.point.y;
-                        final float snakeScale = 1f;
-
-                        g.fillOval((x - camera.x) * ZOOM + 400 - snakeSize / 2.0 * snakeScale * ZOOM,
-                                300 - (y - camera.y) * ZOOM - snakeSize / 2.0 * snakeScale * ZOOM,
-                                snakeSize * snakeScale * ZOOM, snakeSize * snakeScale * ZOOM);
-                    });
+            body.points().forEach(point -> {
+                final var x = point.x;
+                final var y = point.y;
+                final float snakeScale = 1f;
+
+                g.fillOval((x - camera.x) * ZOOM + 400 - snakeSize / 2.0 * snakeScale * ZOOM,
+                        300 - (y - camera.y) * ZOOM - snakeSize / 2.0 * snakeScale * ZOOM,
+                        snakeSize * snakeScale * ZOOM, snakeSize * snakeScale * ZOOM);
+            });
 
             if (DRAW_TAILS) {
                 g.setFill(Color.ORANGE);
                 g.setStroke(Color.ORANGE);
-                var tailPosition = snake.getTailPosition();
+                var tailPosition = body.tail();
                 final var x = tailPosition.x;
                 final var y = tailPosition.y;
                 g.fillOval((x - camera.x) * ZOOM + 400 - snakeSize * ZOOM,
                         300 - (y - camera.y) * ZOOM - snakeSize * ZOOM,
                         snakeSize * ZOOM * 1.3, snakeSize * ZOOM * 1.3);
             }
-        });
+        }
     }
 
 
-    private void drawCurrentWorldChunk(GraphicsContext g) {
-        if (game != null && game.getSnakes().size() != 0) {
-            var snake = game.getSnakes().get(0);
-            var x = game.world.chunks.findChunk(snake.getHeadPosition()).box.getCenter().x;
-            var y = game.world.chunks.findChunk(snake.getHeadPosition()).box.getCenter().y;
-            var height = game.world.chunks.findChunk(snake.getHeadPosition()).box.getHeight();
-            var width = game.world.chunks.findChunk(snake.getHeadPosition()).box.getWidth();
+    private void drawCurrentWorldChunk(GraphicsContext g, WorldSnapshot snapshot) {
+        if (game != null && snapshot.getSnakes().size() != 0) {
+            var snake = snapshot.getSnakes().get(0);
+            var x = game.world.chunks.findChunk(snake.headPosition()).box.getCenter().x;
+            var y = game.world.chunks.findChunk(snake.headPosition()).box.getCenter().y;
+            var height = game.world.chunks.findChunk(snake.headPosition()).box.getHeight();
+            var width = game.world.chunks.findChunk(snake.headPosition()).box.getWidth();
             g.setFill(Color.TRANSPARENT);
             g.setStroke(Color.GREEN);
             g.strokeRect((x - camera.x) * ZOOM + 400 - width / 2 * ZOOM,
@@ -142,16 +154,16 @@ public class DebugView extends Application {
         }
     }
 
-    private void drawSnakeChunksBoundingBoxes(GraphicsContext g, OptionalInt playerId) {
-        game.world.chunks.forEach(chunk -> chunk.streamSnakeChunks()
+    private void drawSnakeChunksBoundingBoxes(GraphicsContext g, WorldSnapshot snapshot, OptionalInt playerId) {
+        game.world.chunks.forEach(chunk -> snapshot.getChunkInfo(chunk).snakeChunks()
                 .forEach(snakeChunk -> {
-                    var boundingBox = snakeChunk.getBoundingBox();
+                    var boundingBox = snakeChunk.box();
                     var x = boundingBox.getCenter().x;
                     var y = boundingBox.getCenter().y;
                     var height = boundingBox.getHeight();
                     var width = boundingBox.getWidth();
                     g.setFill(Color.TRANSPARENT);
-                    if (playerId.isPresent() && snakeChunk.getSnake().id == playerId.getAsInt()) {
+                    if (playerId.isPresent() && snakeChunk.snake().id == playerId.getAsInt()) {
                         g.setStroke(Color.BLUE);
                     } else {
                         g.setStroke(Color.BLACK);
@@ -161,6 +173,15 @@ public class DebugView extends Application {
                             width * ZOOM, height * ZOOM);
                 }));
     }
-}
-
 
+    private record SnakeBody(List<Vector> points, Vector tail) {
+        private static SnakeBody capture(WorldSnapshot.SnakeInfo info) {
+            final var snake = info.snake();
+            final var points = snake.streamSnakeChunks()
+                    .flatMap(SnakeChunk::getActivePathData)
+                    .map(pd -> pd.point)
+                    .toList();
+            return new SnakeBody(points, snake.getTailPosition().clone());
+        }
+    }
+}
@@ -5,10 +5,12 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import game.ai.bot.Bot;
 import game.ai.bot.BotFactory;
+import game.replay.GameLog;
 import game.snake.*;
 import game.world.Collidable;
 import game.world.World;
 import game.world.WorldChunk;
+import game.world.WorldSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import server.SnakeServer;
@@ -18,13 +20,19 @@ import server.clients.Spectator;
 import server.protocol.GameStatistics;
 import server.protocol.SnakeDeathInfo;
 import util.ExceptionalExecutorService;
+import util.StripedExecutor;
 import util.JSON;
 
 import javax.annotation.Nullable;
 import javax.websocket.Session;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -32,38 +40,90 @@ import java.util.stream.Stream;
 
 import static util.TaskMeasurer.measure;
 
+/**
+ * Work is split into three lanes:
+ * <ul>
+ *     <li>The simulation lane ({@link #executor}) is a single thread that owns all game state:
+ *     the world, snakes, bots and food. It runs game ticks and every task that modifies game
+ *     state. Per-snake phases of a tick can additionally use the {@link #tickExecutor}.
+ *     After each tick it publishes an immutable {@link WorldSnapshot}.</li>
+ *     <li>The client lane owns the knowledge of clients. It collects client updates from the
+ *     latest snapshot, encodes and sends them. Each client is bound to one thread of this lane
+ *     so its messages are sent in order.</li>
+ *     <li>The low-priority housekeeping lane builds and serializes messages that are broadcast
+ *     to all clients, such as the leaderboard, from the latest snapshot.</li>
+ * </ul>
+ * The simulation is deterministic: all randomness is derived from the seed of the {@link World},
+ * user input is applied at the beginning of a tick and periodic tasks are scheduled by tick count.
+ * Together with the joins, leaves and inputs written by {@link #startRecording(OutputStream)},
+ * a game can be replayed exactly by {@link game.replay.ReplayGame}.
+ */
 public class Game {
     private static final Logger LOGGER = LoggerFactory.getLogger(Game.class);
+    private static final int NUMBER_OF_CLIENT_LANES = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    /**
+     * Number of ticks between two checksums of the game state in a recording.
+     */
+    private static final int CHECKSUM_INTERVAL = 25;
     public final int id = 1; //TODO
     public final GameConfig config;
     public final World world;
     public final CollisionManager collisionManager;
     protected final List<Snake> snakes = new LinkedList<>();
     protected final ExceptionalExecutorService executor;
+    protected final TickExecutor tickExecutor;
+    private final StripedExecutor clientExecutor;
+    private final ExceptionalExecutorService housekeepingExecutor;
     private final List<Snake> unmodifiableViewOfSnakes = Collections.unmodifiableList(snakes);
     private final Map<Session, Client> clientsBySession = Collections.synchronizedMap(new HashMap<>(64));
     private final Multimap<Snake, Client> clientsBySnake = Multimaps.synchronizedMultimap(HashMultimap.create(64, 4));
     private final List<Bot> bots = new LinkedList<>();
     private final Set<String> usedNames = new HashSet<>();
-    private byte ticksSinceLastUpdate = 0;
+    private final Queue<UserInput> pendingUserInputs = new ConcurrentLinkedQueue<>();
+    private final int ticksPerSecond;
+    @Nullable private GameLog.Writer recorder;
+    private long tickCount = 0;
+    private volatile WorldSnapshot snapshot;
+    private volatile int numberOfBots = 0;
 
     public Game() {
-        this(new World(new GameConfig(), true));
+        this(new GameConfig(), ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Create a game with initial food and a boundary snake. All randomness of the game is derived from the seed.
+     */
+    protected Game(GameConfig config, long seed) {
+        this(config, seed, TickExecutor.create(config.tickParallelism));
+    }
+
+    protected Game(GameConfig config, long seed, TickExecutor tickExecutor) {
+        this(new World(config, true, seed), tickExecutor);
 
         final var boundarySnake = SnakeFactory.createBoundarySnake(world);
         snakes.add(boundarySnake);
     }
 
     protected Game(World world) {
+        this(world, TickExecutor.create(world.getConfig().tickParallelism));
+    }
+
+    protected Game(World world, TickExecutor tickExecutor) {
         this.config = world.getConfig();
         this.world = world;
-        executor = new ExceptionalExecutorService();
+        this.tickExecutor = tickExecutor;
+        ticksPerSecond = Math.max(1, (int) Math.round(1.0 / config.tickDuration));
+        executor = new ExceptionalExecutorService("simulation", Thread.MAX_PRIORITY);
         executor.onExceptionOrErrorDo((throwable) -> {
             LOGGER.error("Critical error", throwable);
             System.exit(1);
         });
+        clientExecutor = new StripedExecutor("client", NUMBER_OF_CLIENT_LANES, Thread.NORM_PRIORITY);
+        housekeepingExecutor = new ExceptionalExecutorService("housekeeping", Thread.MIN_PRIORITY);
+        housekeepingExecutor.onExceptionOrErrorDo((throwable) -> LOGGER.error("Housekeeping task failed", throwable));
         collisionManager = new CollisionManager(this);
         collisionManager.onCollisionDo(this::onCollision);
+        snapshot = WorldSnapshot.create(world, snakes, tickCount);
     }
 
     public List<Snake> getSnakes() {
@@ -93,33 +153,44 @@ public class Game {
         assert !snake.isAlive();
         final var spectatorTarget = info.killer instanceof BoundarySnake ? null : info.killer;
 
-        // notify clients
-        final var killMessage = JSON.stringify(info);
-        executor.submit(() -> broadcast(killMessage));
+        // notify clients (before they get transferred)
+        broadcast(JSON.stringify(info));
 
         // transfer clients
         executor.submit(() -> {
             // Remove clients after broadcast
             final var clients = clientsBySnake.removeAll(snake);
-            clients.forEach(client -> {
-                clientsBySession.remove(client.session);
-
-                if (client instanceof final Player player) {
-                    final var spectator = Spectator.createFor(spectatorTarget, player);
-                    registerSpectator(spectator, spectatorTarget);
-                    SnakeServer.updateClient(spectator);
-                } else if (client instanceof final Spectator spectator) {
-                    spectator.setSnake(spectatorTarget);
-                    registerSpectator(spectator, spectatorTarget);
-                }
-            });
+            // Clients are transferred by their own executor as it owns their knowledge.
+            clients.forEach(client -> client.getExecutor().execute(() -> transferClient(client, spectatorTarget)));
         });
     }
 
+    private void transferClient(Client client, @Nullable Snake spectatorTarget) {
+        if (!clientsBySession.remove(client.session, client)) {
+            // The client has left the game in the meantime.
+            return;
+        }
+
+        if (client instanceof final Player player) {
+            final var spectator = Spectator.createFor(spectatorTarget, player);
+            registerSpectator(spectator, spectatorTarget);
+            SnakeServer.updateClient(spectator);
+        } else if (client instanceof final Spectator spectator) {
+            spectator.setSnake(spectatorTarget);
+            registerSpectator(spectator, spectatorTarget);
+        }
+    }
+
     private void handleSnakeDeath(Snake snake) {
         handleSnakeDeath(snake, new SnakeDeathInfo(snake, null));
     }
 
+    private void registerClient(Client client) {
+        final var session = client.session;
+        client.setExecutor(task -> clientExecutor.execute(session, task));
+        clientsBySession.put(session, client);
+    }
+
     private void registerSpectator(Spectator spectator, @Nullable Snake targetSnake) {
         clientsBySession.put(spectator.session, spectator);
         if (targetSnake != null) {
@@ -128,8 +199,6 @@ public class Game {
     }
 
     public Future<Player> createPlayer(Session session) {
-        final var spawnPos = world.findSpawnPosition();
-
         return CompletableFuture.supplyAsync(() -> {
             final String name;
             synchronized (usedNames) {
@@ -137,93 +206,136 @@ public class Game {
                 usedNames.add(name);
             }
 
-            final var snake = SnakeFactory.createSnake(spawnPos, world, name);
-            snakes.add(snake);
-
-            return snake;
+            return addPlayerSnake(name);
         }, executor).thenApply(snake -> {
             final var player = new Player(snake, session);
-            clientsBySession.put(session, player);
+            player.setInputHandler(this::queueUserInput);
+            registerClient(player);
             clientsBySnake.put(snake, player);
             LOGGER.info("Player {} has joined game.", player.getName());
             return player;
         });
     }
 
-    private void addBotsRandomly(int n) {
+    /**
+     * Add the snake of a joining player. Must be called between ticks by the simulation lane.
+     */
+    protected Snake addPlayerSnake(String name) {
+        final var snake = SnakeFactory.createSnake(world.findSpawnPosition(), world, name);
+        snakes.add(snake);
+        record(log -> log.join(tickCount, snake.id));
+        return snake;
+    }
+
+    /**
+     * Kill the snake of a leaving player. Must be called between ticks by the simulation lane.
+     */
+    protected void removePlayerSnake(Snake snake) {
+        if (!snake.isAlive()) {
+            return;
+        }
+
+        snake.kill();
+        record(log -> log.leave(tickCount, snake.id));
+        handleSnakeDeath(snake);
+    }
+
+    protected void addBotsRandomly(int n) {
         for (int i = 0; i < n; i++) {
             final Bot bot = BotFactory.createBot(world);
             snakes.add(bot.getSnake());
             bots.add(bot);
         }
+        numberOfBots = bots.size();
     }
 
     public void removeClient(Session session) {
         final var client = clientsBySession.remove(session);
 
         if (client instanceof final Player player) {
-            final var snake = player.getSnake();
+            executor.execute(() -> removePlayerSnake(player.getSnake()));
+        }
+    }
 
-            if (!snake.isAlive()) {
-                return;
-            }
+    /**
+     * Queue the input of a player. Input gets applied at the beginning of the next tick,
+     * so a tick never sees partial input. Can be called from any thread.
+     */
+    public void queueUserInput(UserInput input) {
+        pendingUserInputs.add(input);
+    }
 
-            snake.kill();
-            handleSnakeDeath(snake);
+    /**
+     * Record all events of this game that cannot be derived from its seed, so it can be replayed later.
+     * Must be called before the game starts. The stream gets closed when the game stops.
+     */
+    public void startRecording(OutputStream out) {
+        if (tickCount != 0) {
+            throw new IllegalStateException("Recording must start before the first tick.");
         }
+
+        recorder = new GameLog.Writer(out, world.getSeed(), config);
     }
 
     public void start() {
         final long tickDuration = (long) (1000 * config.tickDuration);
         final long updateInterval = tickDuration;
 
-        // run game ticks
-        executor.scheduleAtFixedRate(measure("game-tick", this::tick), 0, tickDuration, TimeUnit.MILLISECONDS);
+        // simulation lane: run game ticks, including food spawns, garbage-collection and bot spawns
+        executor.scheduleAtFixedRate(measure("game-tick", this::update), 0, tickDuration, TimeUnit.MILLISECONDS);
 
-        // update clients
+        // simulation lane: hand the latest snapshot to the client lane which collects, encodes and sends updates
         executor.scheduleAtFixedRate(measure("client-update", this::updateClients), 10, updateInterval, TimeUnit.MILLISECONDS);
 
-        // spawn food every second
-        executor.scheduleAtFixedRate(world::spawnFood, 100, 1000, TimeUnit.MILLISECONDS);
-
-        // garbage-collection every second
-        executor.scheduleAtFixedRate(() -> {
-            synchronized (usedNames) {
-                snakes.stream()
-                        .filter(Predicate.not(Snake::isAlive))
-                        .map(s -> s.name)
-                        .forEach(usedNames::remove);
-            }
-            snakes.removeIf(Predicate.not(Snake::isAlive));
-            world.chunks.forEach(WorldChunk::removeOldSnakeChunks);
-            bots.removeIf(Predicate.not(Bot::isAlive));
-        }, 250, 1000, TimeUnit.MILLISECONDS);
-
-        // update leaderboard every second
-        executor.scheduleAtFixedRate(() -> {
-            final var statsJson = JSON.stringify(new GameStatistics(this));
-            broadcast(statsJson);
-        }, 1, 2, TimeUnit.SECONDS);
+        // housekeeping lane: update leaderboard every two seconds
+        housekeepingExecutor.scheduleAtFixedRate(
+                () -> broadcast(JSON.stringify(new GameStatistics(this))),
+                1, 2, TimeUnit.SECONDS
+        );
 
+        // simulation lane: trigger name updates, which get collected and serialized by the client lane
         executor.scheduleAtFixedRate(
                 () -> clientsBySession.values().forEach(Client::sendNameUpdate),
                 420, 1500,
                 TimeUnit.MILLISECONDS
         );
 
-        // spawn bots every 8 seconds
-        executor.scheduleAtFixedRate(() -> {
-            final var n = snakes.stream().filter(Snake::isAlive).count();
-
-            if (n < config.targetSnakePopulation) {
-                addBotsRandomly((int) Math.min(6, config.targetSnakePopulation - n));
-            }
-        }, 1, 8, TimeUnit.SECONDS);
-
         LOGGER.info("Game started. Config:\n" + JSON.stringify(config, true));
         LOGGER.info("Waiting for players to connect...");
     }
 
+    /**
+     * Remove dead snakes and bots from the game as well as old snake chunks from the world.
+     */
+    protected void removeDeadSnakes() {
+        synchronized (usedNames) {
+            snakes.stream()
+                    .filter(Predicate.not(Snake::isAlive))
+                    .map(s -> s.name)
+                    .forEach(usedNames::remove);
+        }
+        final var deadSnakes = snakes.stream().filter(Predicate.not(Snake::isAlive)).toList();
+        snakes.removeAll(deadSnakes);
+        world.chunks.forEach(WorldChunk::removeOldSnakeChunks);
+        deadSnakes.forEach(snake -> {
+            snake.releaseChunks();
+            world.getSnakeRegistry().remove(snake);
+        });
+        bots.removeIf(Predicate.not(Bot::isAlive));
+        numberOfBots = bots.size();
+    }
+
+    /**
+     * Add a few bots if there are less snakes than {@link GameConfig#targetSnakePopulation}.
+     */
+    private void spawnBots() {
+        final var n = snakes.stream().filter(Snake::isAlive).count();
+
+        if (n < config.targetSnakePopulation) {
+            addBotsRandomly((int) Math.min(6, config.targetSnakePopulation - n));
+        }
+    }
+
     /**
      * Run a method for each snake that is alive.
      */
@@ -231,58 +343,193 @@ public class Game {
         snakes.stream().filter(Snake::isAlive).forEach(snakeConsumer);
     }
 
+    /**
+     * Get a list of all snakes that are alive, in the order in which they have been added.
+     */
+    private List<Snake> getAliveSnakes() {
+        return snakes.stream().filter(Snake::isAlive).toList();
+    }
+
+    /**
+     * Apply queued user input, compute a tick and run periodic tasks. Periodic tasks are
+     * scheduled by tick count, so they happen at the same ticks when a game gets replayed.
+     */
+    protected void update() {
+        applyUserInputs();
+        tick();
+
+        spawnFood();
+        if (tickCount % ticksPerSecond == ticksPerSecond / 2) {
+            runPeriodicTask(PeriodicTask.REMOVE_DEAD_SNAKES, this::removeDeadSnakes);
+        }
+        if (tickCount % (8L * ticksPerSecond) == 1) {
+            runPeriodicTask(PeriodicTask.SPAWN_BOTS, this::spawnBots);
+        }
+
+        if (tickCount % CHECKSUM_INTERVAL == 0) {
+            runPeriodicTask(PeriodicTask.CHECKSUM, () -> record(log -> {
+                log.checksum(tickCount, computeChecksum());
+                // limit the loss of events if the server gets killed
+                log.flush();
+            }));
+        }
+    }
+
+    /**
+     * Run a periodic task that is due after the current tick. Subclasses can override this
+     * to measure tasks or to do additional work, but must not change when tasks run.
+     */
+    protected void runPeriodicTask(PeriodicTask task, Runnable action) {
+        action.run();
+    }
+
+    /**
+     * Spawn the food of a second spread evenly over its ticks, see {@link World#FOOD_SPAWNS_PER_SECOND}.
+     */
+    protected void spawnFood() {
+        final var tick = tickCount % ticksPerSecond;
+        final var spawns = World.FOOD_SPAWNS_PER_SECOND;
+        world.spawnFood((int) ((tick + 1) * spawns / ticksPerSecond - tick * spawns / ticksPerSecond));
+    }
+
+    private void applyUserInputs() {
+        UserInput input;
+        while ((input = pendingUserInputs.poll()) != null) {
+            final var snake = input.snake();
+
+            if (!snake.isAlive()) {
+                continue;
+            }
+
+            input.apply();
+            final var finalInput = input;
+            record(log -> log.input(tickCount, snake.id, finalInput.alpha(), finalInput.fast()));
+        }
+    }
+
+    /**
+     * Compute a checksum of the game state that is used to verify replays.
+     */
+    protected long computeChecksum() {
+        long checksum = tickCount;
+        for (final var snake : snakes) {
+            checksum = 31 * checksum + snake.id;
+            checksum = 31 * checksum + (snake.isAlive() ? 1 : 0);
+            checksum = 31 * checksum + Double.doubleToLongBits(snake.getLength());
+            checksum = 31 * checksum + Double.doubleToLongBits(snake.getHeadPosition().x);
+            checksum = 31 * checksum + Double.doubleToLongBits(snake.getHeadPosition().y);
+            checksum = 31 * checksum + Double.doubleToLongBits(snake.getHeadDirection());
+            checksum = 31 * checksum + snake.getKills();
+        }
+        for (final var foodCount : world.chunks.stream().mapToInt(WorldChunk::getFoodCount).toArray()) {
+            checksum = 31 * checksum + foodCount;
+        }
+        return checksum;
+    }
+
+    private void record(Consumer<GameLog.Writer> event) {
+        if (recorder == null) {
+            return;
+        }
+
+        try {
+            event.accept(recorder);
+        } catch (UncheckedIOException e) {
+            LOGGER.error("Failed to record game, recording stopped.", e);
+            recorder = null;
+        }
+    }
+
     protected void tick() {
-        forEachSnake(Snake::tick);
-        bots.stream().filter(Bot::isAlive).forEach(Bot::act);
-        killDesertingSnakes();
-        eatFood();
-        world.getHeatMap().update();
-        collisionManager.detectCollisions();
-        ticksSinceLastUpdate++;
+        world.getSnakeRegistry().setCurrentTick(tickCount);
+        runPhase(TickPhase.MOVEMENT, () -> {
+            final var aliveSnakes = getAliveSnakes();
+            // All heads are moved in one pass over the state table. Then snakes update their chunks
+            // independently of each other. Their world updates are merged afterwards in snake order,
+            // so the result is the same as moving one snake after the other.
+            world.getSnakeStates().steer(aliveSnakes);
+            tickExecutor.forEach(aliveSnakes, Snake::advance);
+            aliveSnakes.forEach(Snake::applyWorldUpdates);
+        });
+        runPhase(TickPhase.BOTS, () -> bots.stream().filter(Bot::isAlive).forEach(Bot::act));
+        runPhase(TickPhase.BOUNDARY_CHECK, this::killDesertingSnakes);
+        runPhase(TickPhase.FOOD, this::eatFood);
+        runPhase(TickPhase.HEAT_MAP, world.getHeatMap()::update);
+        runPhase(TickPhase.COLLISIONS, collisionManager::detectCollisions);
+        runPhase(TickPhase.SNAPSHOT, () -> snapshot = WorldSnapshot.create(world, snakes, ++tickCount));
+    }
+
+    /**
+     * Run a single phase of a tick. Subclasses can override this to measure phases.
+     */
+    protected void runPhase(TickPhase phase, Runnable action) {
+        action.run();
+    }
+
+    /**
+     * Get the snapshot of the game state after the most recent tick.
+     * Can be called from any thread.
+     */
+    public WorldSnapshot getSnapshot() {
+        return snapshot;
     }
 
     private void updateClients() {
-        clientsBySession.values().forEach(client -> {
-            final var worldChunks = world.chunks.findIntersectingChunks(client.getKnowledgeBox());
-            worldChunks.stream()
-                    .flatMap(WorldChunk::streamSnakeChunks)
-                    .forEach(client::updateClientSnakeChunk);
-            worldChunks.forEach(client::updateClientFoodChunk);
-            client.updateHeatMap(world.getHeatMap());
-            client.sendGameUpdate(ticksSinceLastUpdate);
-        });
-        ticksSinceLastUpdate = 0;
+        // Updates of tick N are collected and encoded by the client lane while the
+        // simulation lane computes tick N + 1.
+        final var snapshot = this.snapshot;
+        clientsBySession.values().forEach(client -> client.sendGameUpdate(snapshot));
     }
 
     private void eatFood() {
-        forEachSnake(snake -> {
-            final var foodCollectRadius = snake.getWidth() * 1.1 + 0.32;
-            final var headPosition = snake.getHeadPosition();
-            final var worldChunk = world.chunks.findChunk(headPosition);
-
-            Stream.concat(
-                    Stream.of(worldChunk),
-                    worldChunk.neighbors.stream().filter(chunk -> chunk.box.isWithinRange(headPosition, foodCollectRadius))
-            ).forEach(chunk -> {
-                // Find food to be consumed by the snake.
-                final var collectedFood = chunk.streamFood()
-                        .filter(food -> food.isWithinRange(headPosition, foodCollectRadius))
-                        .toList();
-
-                if (collectedFood.isEmpty()) {
-                    // Continue with next chunk.
-                    return;
+        final var aliveSnakes = getAliveSnakes();
+        final var collectableFood = tickExecutor.map(aliveSnakes, this::findCollectableFood);
+
+        // A food item can be within reach of multiple snakes. Consuming it sequentially in
+        // snake order ensures that it gets eaten only once and by the same snake every time.
+        // Eaten food gets removed afterwards, as removing food changes the indices of other food.
+        for (int i = 0; i < aliveSnakes.size(); i++) {
+            final var snake = aliveSnakes.get(i);
+
+            for (final var collectable : collectableFood.get(i)) {
+                final var chunk = collectable.chunk();
+                double foodAmount = 0.0;
+                boolean collected = false;
+
+                for (final var food : collectable.food()) {
+                    if (chunk.markFoodAsEaten(food)) {
+                        foodAmount += chunk.getFoodSize(food).nutritionalValue(config);
+                        collected = true;
+                    }
                 }
 
-                final var foodAmount = collectedFood.stream()
-                        .mapToDouble(food -> food.size.nutritionalValue(config))
-                        .sum();
+                if (!collected) {
+                    // Continue with next chunk.
+                    continue;
+                }
 
                 // Consume food.
                 snake.grow(foodAmount / snake.getWidth());
-                chunk.removeFood(collectedFood);
-            });
-        });
+            }
+        }
+
+        collectableFood.forEach(collectables -> collectables.forEach(collectable -> collectable.chunk().removeEatenFood()));
+    }
+
+    /**
+     * Find food within reach of the given snake. This method does not modify the world.
+     */
+    private List<CollectableFood> findCollectableFood(Snake snake) {
+        final var foodCollectRadius = snake.getWidth() * 1.1 + 0.32;
+        final var headPosition = snake.getHeadPosition();
+        final var worldChunk = world.chunks.findChunk(headPosition);
+
+        return Stream.concat(
+                Stream.of(worldChunk),
+                worldChunk.neighbors.stream().filter(chunk -> chunk.box.isWithinRange(headPosition, foodCollectRadius))
+        ).map(chunk -> new CollectableFood(chunk, chunk.findFood(headPosition, foodCollectRadius)))
+                .filter(collectable -> collectable.food().length > 0)
+                .toList();
     }
 
     /**
@@ -303,21 +550,43 @@ public class Game {
     }
 
     public void stop() {
+        if (recorder != null) {
+            try {
+                executor.submit(() -> record(log -> log.end(tickCount))).get();
+            } catch (InterruptedException | ExecutionException e) {
+                LOGGER.error("Failed to finish recording.", e);
+            }
+        }
         this.executor.shutdown();
+        this.tickExecutor.shutdown();
+        this.housekeepingExecutor.shutdown();
+        this.clientExecutor.shutdown();
     }
 
+    /**
+     * Stream a copy of the current clients. Can be called from any thread.
+     */
     public Stream<Client> streamClients() {
-        return clientsBySession.values().stream();
+        return getClients().stream();
     }
 
     public int getNumberOfBots() {
-        return this.bots.size();
+        return numberOfBots;
+    }
+
+    private record CollectableFood(WorldChunk chunk, int[] food) {
     }
 
     /**
      * Send a (string) message to all clients.
      */
     private void broadcast(String encodedJsonData) {
-        clientsBySession.values().forEach(client -> client.send(encodedJsonData));
+        getClients().forEach(client -> client.send(encodedJsonData));
+    }
+
+    private List<Client> getClients() {
+        synchronized (clientsBySession) {
+            return List.copyOf(clientsBySession.values());
+        }
     }
 }
@@ -5,7 +5,19 @@ public final class GameConfig {
     public final double foodNutritionalValue = 1.0;
     public final double foodConversionEfficiency = 0.5;
     public final int targetSnakePopulation = 60;
+    /**
+     * Seconds between two computations of the heat map. Clients receive it at most once per second.
+     */
+    public final double heatMapInterval = 1.0;
+    /**
+     * Seconds the id of a removed snake is held back before it is given to a new snake.
+     */
+    public final double snakeIdReuseDelay = 10.0;
     public final boolean selfCollision = false;
+    /**
+     * Maximum number of threads used to compute a single game tick.
+     */
+    public final int tickParallelism = Runtime.getRuntime().availableProcessors();
 
     public final ChunkInfo chunks;
     public final SnakeInfo snakes;
@@ -15,8 +27,12 @@ public final class GameConfig {
     }
 
     public GameConfig(ChunkInfo chunkInfo) {
+        this(chunkInfo, new SnakeInfo(0.3));
+    }
+
+    public GameConfig(ChunkInfo chunkInfo, SnakeInfo snakeInfo) {
         this.chunks = chunkInfo;
-        this.snakes = new SnakeInfo(0.3);
+        this.snakes = snakeInfo;
     }
 
     public static final class ChunkInfo {
@@ -45,10 +61,25 @@ public final class GameConfig {
         public final double maxWidth = 8.0;
         public final double burnRate = 1 / 25.0;
         public final double turnRateLimiting = 0.85;
+        /**
+         * Number of snake chunks closest to the head that keep their decoded path points. Older
+         * chunks only keep their chain codes and get decoded on demand, which saves memory on
+         * servers with many long snakes. {@link Integer#MAX_VALUE} keeps all chunks decoded.
+         */
+        public final int decodedChunks;
 
         public SnakeInfo(double speed) {
+            this(speed, Integer.MAX_VALUE);
+        }
+
+        public SnakeInfo(double speed, int decodedChunks) {
+            if (decodedChunks < 1) {
+                throw new IllegalArgumentException();
+            }
+
             this.speed = speed;
             fastSpeed = 2.25 * speed;
+            this.decodedChunks = decodedChunks;
         }
     }
 }
@@ -0,0 +1,137 @@
+package game;
+
+import game.snake.Snake;
+import math.Direction;
+import server.clients.Player;
+import util.DurationRecorder;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.stream.LongStream;
+
+/**
+ * A {@link Game} without network that is run by the calling thread as fast as possible.
+ * Ticks and periodic tasks run exactly as in a regular game, see {@link Game#update()}.
+ * Players are replaced by stand-ins which steer randomly and receive game updates that
+ * get encoded but not sent. Bots and stand-ins that die are replaced whenever dead snakes
+ * get removed.
+ */
+public class HeadlessGame extends Game {
+    private final int numberOfBots;
+    private final int numberOfPlayers;
+    private final Random random;
+    private final List<Player> players = new ArrayList<>();
+    private final Map<String, DurationRecorder> durations = new LinkedHashMap<>();
+    private final DurationRecorder tickDurations = new DurationRecorder();
+    private int peakSnakeChunks = 0;
+
+    /**
+     * @param numberOfBots    number of bots that are kept alive
+     * @param numberOfPlayers number of player stand-ins that are kept alive
+     */
+    public HeadlessGame(GameConfig config, TickExecutor tickExecutor, int numberOfBots, int numberOfPlayers, Random random) {
+        super(config, random.nextLong(), tickExecutor);
+        this.numberOfBots = numberOfBots;
+        this.numberOfPlayers = numberOfPlayers;
+        this.random = random;
+
+        Arrays.stream(TickPhase.values()).forEach(phase -> durations.put(phase.name(), new DurationRecorder()));
+        durations.put("CLIENT_UPDATES", new DurationRecorder());
+        Arrays.stream(PeriodicTask.values()).forEach(task -> durations.put(task.name(), new DurationRecorder()));
+
+        addBotsRandomly(numberOfBots);
+        addMissingPlayers();
+    }
+
+    /**
+     * Run the given number of ticks including client updates and periodic tasks.
+     * Statistics only cover the ticks of this call.
+     */
+    public SimulationReport run(int numberOfTicks) {
+        durations.values().forEach(DurationRecorder::clear);
+        tickDurations.clear();
+        peakSnakeChunks = 0;
+
+        final long allocatedBefore = getAllocatedBytes();
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < numberOfTicks; i++) {
+            runTick();
+        }
+
+        final long elapsed = System.nanoTime() - start;
+        final long allocatedAfter = getAllocatedBytes();
+        final long allocated = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+        final int aliveSnakes = (int) snakes.stream().filter(Snake::isAlive).count();
+
+        return new SimulationReport(numberOfTicks, elapsed, allocated, peakSnakeChunks, aliveSnakes,
+                tickDurations, durations);
+    }
+
+    private void runTick() {
+        final long start = System.nanoTime();
+
+        steerPlayers();
+        update();
+
+        final var snapshot = getSnapshot();
+        durations.get("CLIENT_UPDATES").measure(() -> players.stream()
+                .filter(player -> player.getSnake().isAlive())
+                .forEach(player -> player.sendGameUpdate(snapshot)));
+
+        tickDurations.record(System.nanoTime() - start);
+
+        final var snakeChunks = snakes.stream().mapToInt(Snake::getNumberOfChunks).sum();
+        peakSnakeChunks = Math.max(peakSnakeChunks, snakeChunks);
+    }
+
+    @Override
+    protected void runPhase(TickPhase phase, Runnable action) {
+        durations.get(phase.name()).measure(action);
+    }
+
+    @Override
+    protected void runPeriodicTask(PeriodicTask task, Runnable action) {
+        durations.get(task.name()).measure(() -> {
+            action.run();
+
+            if (task == PeriodicTask.REMOVE_DEAD_SNAKES) {
+                addBotsRandomly(numberOfBots - getNumberOfBots());
+                addMissingPlayers();
+            }
+        });
+    }
+
+    /**
+     * Simulate user input: players turn a little every tick and boost now and then.
+     * Input is queued like the input of real players and applied by the next tick.
+     */
+    private void steerPlayers() {
+        players.forEach(player -> {
+            final var alpha = Direction.normalize(player.getSnake().getHeadDirection() + 0.3 * random.nextGaussian());
+            player.handleUserInput((float) alpha, random.nextDouble() < 0.1);
+        });
+    }
+
+    private void addMissingPlayers() {
+        players.removeIf(player -> !player.getSnake().isAlive());
+
+        while (players.size() < numberOfPlayers) {
+            final var player = new Player(addPlayerSnake("Player"), new DetachedSession());
+            player.setInputHandler(this::queueUserInput);
+            players.add(player);
+        }
+    }
+
+    /**
+     * Get the number of bytes allocated by all live threads so far or -1 if this is not supported.
+     */
+    private static long getAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof final com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return LongStream.of(bean.getThreadAllocatedBytes(bean.getAllThreadIds())).filter(b -> b > 0).sum();
+        }
+        return -1;
+    }
+
+}
@@ -0,0 +1,11 @@
+package game;
+
+/**
+ * Tasks that run after some ticks only, scheduled by tick count.
+ * See {@link Game#runPeriodicTask(PeriodicTask, Runnable)}.
+ */
+public enum PeriodicTask {
+    REMOVE_DEAD_SNAKES,
+    SPAWN_BOTS,
+    CHECKSUM
+}
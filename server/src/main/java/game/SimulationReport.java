@@ -0,0 +1,59 @@
+package game;
+
+import util.DurationRecorder;
+
+import java.util.Map;
+
+/**
+ * Results of {@link HeadlessGame#run(int)}.
+ *
+ * @param allocatedBytes  bytes allocated by all threads during the run or -1 if unknown
+ * @param peakSnakeChunks maximum number of snake chunks held by the game at the end of a tick
+ * @param aliveSnakes     number of snakes alive after the last tick
+ * @param phases          durations of tick phases, client updates and periodic tasks
+ */
+public record SimulationReport(
+        int ticks,
+        long elapsedNanos,
+        long allocatedBytes,
+        int peakSnakeChunks,
+        int aliveSnakes,
+        DurationRecorder tickDurations,
+        Map<String, DurationRecorder> phases
+) {
+    public double ticksPerSecond() {
+        return ticks / (elapsedNanos / 1e9);
+    }
+
+    /**
+     * Allocation rate in MB per second or a negative number if unknown.
+     */
+    public double allocationRate() {
+        return allocatedBytes < 0 ? -1.0 : allocatedBytes / 1e6 / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        final var sb = new StringBuilder();
+        sb.append(String.format("ticks:              %d in %.2f s%n", ticks, elapsedNanos / 1e9));
+        sb.append(String.format("ticks/s:            %.1f%n", ticksPerSecond()));
+        sb.append(String.format("snakes alive:       %d%n", aliveSnakes));
+        sb.append(String.format("peak snake chunks:  %d%n", peakSnakeChunks));
+        if (allocatedBytes < 0) {
+            sb.append(String.format("allocation rate:    n/a%n"));
+        } else {
+            sb.append(String.format("allocation rate:    %.1f MB/s (%.1f kB/tick)%n",
+                    allocationRate(), allocatedBytes / 1e3 / ticks));
+        }
+
+        sb.append(String.format("%n%-20s %8s %10s %10s %10s%n", "phase [ms]", "samples", "p50", "p99", "max"));
+        phases.forEach((name, durations) -> appendRow(sb, name, durations));
+        appendRow(sb, "TICK", tickDurations);
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String name, DurationRecorder durations) {
+        sb.append(String.format("%-20s %8d %10.3f %10.3f %10.3f%n", name, durations.count(),
+                durations.percentile(50) / 1e6, durations.percentile(99) / 1e6, durations.max() / 1e6));
+    }
+}
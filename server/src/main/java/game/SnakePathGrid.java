@@ -0,0 +1,284 @@
+package game;
+
+import game.snake.PathSegments;
+import game.snake.Snake;
+import game.snake.SnakeChunk;
+import math.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static math.MathFunctions.clamp;
+
+/**
+ * A uniform grid over the world that holds the active {@link PathSegments} of all {@link SnakeChunk}s.
+ * Each segment is a capsule whose radius is half the snake width along the segment. The grid gets
+ * rebuilt once per tick after all snakes have moved. A collision query of a snake head then only has
+ * to look at the few cells around the head instead of all snake chunks within the surrounding world
+ * chunks.
+ * <p>
+ * Segments are stored in a compressed layout: {@link #cellEntries} holds segment indices sorted by
+ * cell and {@link #cellStart} holds the index of the first entry of each cell. A segment is listed
+ * in every cell its bounding box overlaps. Arrays are reused across ticks.
+ */
+final class SnakePathGrid {
+    /**
+     * Snakes do not collide with parts of other snakes that are thinner than this.
+     */
+    private static final double MIN_COLLISION_WIDTH = 1e-2;
+    private final BoundingBox box;
+    private final double cellSize;
+    private final double inverseCellSize;
+    private final int columns, rows;
+    private final int[] cellStart;
+    private final int[] cellEnd;
+    private final boolean selfCollision;
+    /**
+     * Segments, clipped to the active part of their snake. The start is the end further
+     * away from the head, so the offset within the snake decreases from start to end.
+     */
+    private double[] startX = new double[1024];
+    private double[] startY = new double[1024];
+    private double[] endX = new double[1024];
+    private double[] endY = new double[1024];
+    private double[] startOffset = new double[1024];
+    private double[] endOffset = new double[1024];
+    /**
+     * The radius at the end of a segment, which is the maximum radius along the segment
+     * as snakes get thinner towards their tail.
+     */
+    private double[] maxRadius = new double[1024];
+    private SnakeChunk[] chunks = new SnakeChunk[1024];
+    /**
+     * The range of cells overlapped by the bounding box of a segment.
+     */
+    private int[] minColumn = new int[1024];
+    private int[] maxColumn = new int[1024];
+    private int[] minRow = new int[1024];
+    private int[] maxRow = new int[1024];
+    private int numberOfSegments = 0;
+    private int[] cellEntries = new int[2048];
+    private double maxSnakeWidth = 0.0;
+
+    SnakePathGrid(GameConfig config, BoundingBox box) {
+        this.box = box;
+        // Collision distances are bounded by the maximum snake width,
+        // so a query around a head usually covers 1 to 4 cells.
+        this.cellSize = config.snakes.maxWidth;
+        this.inverseCellSize = 1.0 / cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(box.getWidth() / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(box.getHeight() / cellSize));
+        this.cellStart = new int[columns * rows + 1];
+        this.cellEnd = new int[columns * rows];
+        this.selfCollision = config.selfCollision;
+    }
+
+    /**
+     * Rebuild the grid from the snake chunks of the given snakes. Only non-junk chunks get added.
+     */
+    void rebuild(List<Snake> snakes) {
+        // clear references of the previous tick
+        Arrays.fill(chunks, 0, numberOfSegments, null);
+        Arrays.fill(cellStart, 0);
+        numberOfSegments = 0;
+        maxSnakeWidth = 0.0;
+
+        for (final var snake : snakes) {
+            maxSnakeWidth = Math.max(maxSnakeWidth, snake.getWidth());
+            snake.streamSnakeChunks()
+                    .filter(chunk -> !chunk.isJunk())
+                    .forEach(chunk -> addSegments(snake, chunk));
+        }
+
+        // count entries per cell and compute the start of each cell
+        for (int i = 0; i < numberOfSegments; i++) {
+            for (int row = minRow[i]; row <= maxRow[i]; row++) {
+                for (int column = minColumn[i]; column <= maxColumn[i]; column++) {
+                    cellStart[row * columns + column + 1]++;
+                }
+            }
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        final var numberOfEntries = cellStart[columns * rows];
+        if (cellEntries.length < numberOfEntries) {
+            cellEntries = new int[2 * numberOfEntries];
+        }
+
+        // sort entries by cell (stable, so entries within a cell keep their insertion order)
+        System.arraycopy(cellStart, 0, cellEnd, 0, cellEnd.length);
+        for (int i = 0; i < numberOfSegments; i++) {
+            for (int row = minRow[i]; row <= maxRow[i]; row++) {
+                for (int column = minColumn[i]; column <= maxColumn[i]; column++) {
+                    cellEntries[cellEnd[row * columns + column]++] = i;
+                }
+            }
+        }
+    }
+
+    private void addSegments(Snake snake, SnakeChunk chunk) {
+        if (chunk.getMaxWidth() < MIN_COLLISION_WIDTH) {
+            // the whole chunk is too thin to collide with
+            return;
+        }
+
+        final var segments = chunk.getPathSegments();
+        final var chunkEndOffset = chunk.getOffset() + chunk.getDataLength();
+        final var snakeLength = snake.getLength();
+
+        for (int i = 0; i < segments.size(); i++) {
+            var sx = segments.getX(i);
+            var sy = segments.getY(i);
+            var so = chunkEndOffset - segments.getPathLength(i);
+            final var ex = segments.getX(i + 1);
+            final var ey = segments.getY(i + 1);
+            final var eo = chunkEndOffset - segments.getPathLength(i + 1);
+
+            if (eo >= snakeLength) {
+                // junk data
+                continue;
+            }
+
+            if (so > snakeLength) {
+                // clip the segment at the tail
+                final var s = (so - snakeLength) / (so - eo);
+                sx += s * (ex - sx);
+                sy += s * (ey - sy);
+                so = snakeLength;
+            }
+
+            if (numberOfSegments == chunks.length) {
+                grow();
+            }
+
+            final var k = numberOfSegments++;
+            startX[k] = sx;
+            startY[k] = sy;
+            endX[k] = ex;
+            endY[k] = ey;
+            startOffset[k] = so;
+            endOffset[k] = eo;
+            maxRadius[k] = 0.5 * snake.getWidthAt(Math.max(0.0, eo));
+            chunks[k] = chunk;
+            minColumn[k] = getColumn(Math.min(sx, ex));
+            maxColumn[k] = getColumn(Math.max(sx, ex));
+            minRow[k] = getRow(Math.min(sy, ey));
+            maxRow[k] = getRow(Math.max(sy, ey));
+        }
+    }
+
+    private void grow() {
+        final var capacity = 2 * chunks.length;
+        startX = Arrays.copyOf(startX, capacity);
+        startY = Arrays.copyOf(startY, capacity);
+        endX = Arrays.copyOf(endX, capacity);
+        endY = Arrays.copyOf(endY, capacity);
+        startOffset = Arrays.copyOf(startOffset, capacity);
+        endOffset = Arrays.copyOf(endOffset, capacity);
+        maxRadius = Arrays.copyOf(maxRadius, capacity);
+        chunks = Arrays.copyOf(chunks, capacity);
+        minColumn = Arrays.copyOf(minColumn, capacity);
+        maxColumn = Arrays.copyOf(maxColumn, capacity);
+        minRow = Arrays.copyOf(minRow, capacity);
+        maxRow = Arrays.copyOf(maxRow, capacity);
+    }
+
+    private int getColumn(double x) {
+        // truncation rounds towards zero, which only differs from floor for negative values that get clamped anyway
+        return Math.min(columns - 1, Math.max(0, (int) ((x - box.minX) * inverseCellSize)));
+    }
+
+    private int getRow(double y) {
+        return Math.min(rows - 1, Math.max(0, (int) ((y - box.minY) * inverseCellSize)));
+    }
+
+    /**
+     * Find all {@link SnakeChunk}s the head of the given snake collides with, in the order
+     * in which they have been added to the grid. This method does not modify the grid or the
+     * game state and can be called concurrently.
+     */
+    List<SnakeChunk> findCollidingChunks(Snake snake) {
+        final var head = snake.getHeadPosition();
+        final var radius1 = 0.5 * snake.getWidth();
+        final var range = radius1 + 0.5 * maxSnakeWidth;
+        final var selfCollisionBound = 1.25 * snake.getWidth();
+
+        final var minColumn = getColumn(head.x - range);
+        final var maxColumn = getColumn(head.x + range);
+        final var minRow = getRow(head.y - range);
+        final var maxRow = getRow(head.y + range);
+
+        List<SnakeChunk> result = List.of();
+
+        for (int row = minRow; row <= maxRow; row++) {
+            final var rowStart = row * columns;
+            final var end = cellStart[rowStart + maxColumn + 1];
+
+            // cells of a row are contiguous
+            for (int k = cellStart[rowStart + minColumn]; k < end; k++) {
+                final var i = cellEntries[k];
+                final var chunk = chunks[i];
+                final var otherSnake = chunk.getSnake();
+                final var self = otherSnake == snake;
+
+                if ((self && !selfCollision) || result.contains(chunk)) {
+                    continue;
+                }
+
+                final var sx = startX[i];
+                final var sy = startY[i];
+                final var so = startOffset[i];
+                var ex = endX[i];
+                var ey = endY[i];
+                var eo = endOffset[i];
+
+                if (self && eo <= selfCollisionBound) {
+                    if (so <= selfCollisionBound) {
+                        // too close to the own head
+                        continue;
+                    }
+
+                    // ignore the part that is too close to the own head
+                    final var s = (so - selfCollisionBound) / (so - eo);
+                    ex = sx + s * (ex - sx);
+                    ey = sy + s * (ey - sy);
+                    eo = selfCollisionBound;
+                }
+
+                // closest point on the segment
+                final var dx = ex - sx;
+                final var dy = ey - sy;
+                final var length2 = dx * dx + dy * dy;
+                final var t = length2 > 0.0 ? clamp(((head.x - sx) * dx + (head.y - sy) * dy) / length2, 0.0, 1.0) : 0.0;
+                final var cx = sx + t * dx - head.x;
+                final var cy = sy + t * dy - head.y;
+                final var d2 = cx * cx + cy * cy;
+
+                final var bound = radius1 + maxRadius[i];
+                if (d2 >= bound * bound) {
+                    continue;
+                }
+
+                final var width = otherSnake.getWidthAt(Math.max(0.0, so + t * (eo - so)));
+
+                if (width < MIN_COLLISION_WIDTH) {
+                    // no collision if the snake is very thin
+                    continue;
+                }
+
+                final var r2 = 0.5 * width;
+                if (d2 < (radius1 + r2) * (radius1 + r2)) {
+                    if (result.isEmpty()) {
+                        result = new ArrayList<>(2);
+                    }
+                    result.add(chunk);
+                }
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,125 @@
+package game;
+
+import game.snake.Snake;
+
+import javax.annotation.Nullable;
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs the per-snake phases of a game tick either sequentially or on a {@link ForkJoinPool}.
+ * The snake list is split into contiguous index ranges, so results can always be merged
+ * in snake order, no matter how many threads were involved.
+ */
+public final class TickExecutor {
+    /**
+     * Splitting work into smaller tasks does not pay off below this number of snakes.
+     */
+    private static final int MIN_SNAKES_PER_TASK = 8;
+    @Nullable private final ForkJoinPool pool;
+
+    private TickExecutor(@Nullable ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public static TickExecutor sequential() {
+        return new TickExecutor(null);
+    }
+
+    /**
+     * Create a {@link TickExecutor} that uses up to {@code parallelism} threads.
+     */
+    public static TickExecutor create(int parallelism) {
+        if (parallelism <= 1) {
+            return sequential();
+        }
+
+        final var pool = new ForkJoinPool(parallelism, p -> {
+            final var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("tick-worker-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+
+        return new TickExecutor(pool);
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Run the given action for each snake. Returns after all actions have completed.
+     * The action must not modify state shared between snakes.
+     */
+    public void forEach(List<Snake> snakes, Consumer<Snake> action) {
+        final var input = snakes.toArray(new Snake[0]);
+        run(input.length, i -> action.accept(input[i]));
+    }
+
+    /**
+     * Apply the given function to each snake and return the results in snake order.
+     * The function must not modify state shared between snakes.
+     */
+    public <T> List<T> map(List<Snake> snakes, Function<Snake, T> function) {
+        final var input = snakes.toArray(new Snake[0]);
+        final var results = new Object[input.length];
+        run(input.length, i -> results[i] = function.apply(input[i]));
+
+        @SuppressWarnings("unchecked") final var typedResults = (List<T>) Arrays.asList(results);
+        return typedResults;
+    }
+
+    private void run(int n, IntConsumer task) {
+        if (pool == null || n < 2 * MIN_SNAKES_PER_TASK || isTickWorker()) {
+            for (int i = 0; i < n; i++) {
+                task.accept(i);
+            }
+            return;
+        }
+
+        // invoke() waits for all subtasks which also makes their writes visible to the caller
+        pool.invoke(new RangeTask(task, 0, n));
+    }
+
+    private boolean isTickWorker() {
+        return Thread.currentThread() instanceof final ForkJoinWorkerThread worker && worker.getPool() == pool;
+    }
+
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        @Serial private static final long serialVersionUID = 1L;
+        private final IntConsumer task;
+        private final int from, to;
+
+        private RangeTask(IntConsumer task, int from, int to) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= MIN_SNAKES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    task.accept(i);
+                }
+                return;
+            }
+
+            final int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(task, from, mid), new RangeTask(task, mid, to));
+        }
+    }
+}
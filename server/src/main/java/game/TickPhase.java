@@ -0,0 +1,15 @@
+package game;
+
+/**
+ * The phases of a game tick in the order in which they are executed.
+ * See {@link Game#runPhase(TickPhase, Runnable)}.
+ */
+public enum TickPhase {
+    MOVEMENT,
+    BOTS,
+    BOUNDARY_CHECK,
+    FOOD,
+    HEAT_MAP,
+    COLLISIONS,
+    SNAPSHOT
+}
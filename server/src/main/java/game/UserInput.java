@@ -0,0 +1,16 @@
+package game;
+
+import game.snake.Snake;
+
+/**
+ * Steering input of a player for its snake.
+ *
+ * @param alpha target direction in radians
+ * @param fast  whether the player wants to go fast
+ */
+public record UserInput(Snake snake, float alpha, boolean fast) {
+    public void apply() {
+        snake.setTargetDirection(alpha);
+        snake.setUserFast(fast);
+    }
+}
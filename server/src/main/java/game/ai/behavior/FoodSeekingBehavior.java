@@ -2,34 +2,30 @@ package game.ai.behavior;
 
 import game.ai.DirectionalSensor;
 import game.snake.Snake;
-import game.world.Food;
 import game.world.WorldChunk;
 import math.Direction;
 import math.Vector;
 
-import java.util.stream.Stream;
-
 public class FoodSeekingBehavior {
 
     private final static double PERCEPTION_RANGE = 32.0;
 
-    private final static DirectionalSensor directionalSensor = new DirectionalSensor();
+    private final DirectionalSensor directionalSensor = new DirectionalSensor();
+
+    /**
+     * Indices of the perceptible food of a chunk, reused across queries.
+     */
+    private int[] foodIndices = new int[64];
 
-    public static InputSuggestion computeInputSuggestion(Snake snake) {
+    public InputSuggestion computeInputSuggestion(Snake snake) {
         final var foodSensor = directionalSensor;
         final var head = snake.getHeadPosition();
+        final var worldChunk = snake.getWorld().chunks.findChunk(head);
         foodSensor.reset();
 
-        streamPerceptibleFood(snake).forEach(food -> {
-            final var relativeDirection = Direction.getFromTo(head, food.position);
-            final var dot = Direction.dot(relativeDirection, Direction.getFromTo(head, food.position));
-            final var d2 = Vector.distance2(head, food.position);
-            final var relativeDistance = d2 / (PERCEPTION_RANGE * PERCEPTION_RANGE);
-            final var similarity = 0.5 * (dot + 1.0);
-            final var valueFactor = (1.0 - relativeDistance) * Math.max(0.1, similarity * similarity);
-            final var value = valueFactor * food.size.radius * food.size.radius;
-            foodSensor.add(relativeDirection, value);
-        });
+        final var headDirection = snake.getHeadDirection();
+        perceiveFood(worldChunk, head, headDirection);
+        worldChunk.neighbors.forEach(chunk -> perceiveFood(chunk, head, headDirection));
         final var extrema = foodSensor.findExtrema();
 
         if (extrema.maxValue() == 0.0) {
@@ -42,13 +38,25 @@ public class FoodSeekingBehavior {
         return new InputSuggestion(extrema.maxDirection(), directionsSimilar && moreThanAverageFood);
     }
 
-    private static Stream<Food> streamPerceptibleFood(Snake snake) {
-        final var world = snake.getWorld();
-        final var head = snake.getHeadPosition();
-        final var worldChunk = world.chunks.findChunk(head);
+    private void perceiveFood(WorldChunk chunk, Vector head, double headDirection) {
+        var n = chunk.findFood(head, PERCEPTION_RANGE, foodIndices);
+        if (n > foodIndices.length) {
+            foodIndices = new int[Math.max(n, 2 * foodIndices.length)];
+            n = chunk.findFood(head, PERCEPTION_RANGE, foodIndices);
+        }
 
-        return Stream.concat(Stream.of(worldChunk), worldChunk.neighbors.stream())
-                .flatMap(WorldChunk::streamFood)
-                .filter(food -> food.isWithinRange(head, PERCEPTION_RANGE));
+        for (int i = 0; i < n; i++) {
+            final var food = foodIndices[i];
+            final var foodX = chunk.getFoodX(food);
+            final var foodY = chunk.getFoodY(food);
+            final var relativeDirection = Math.atan2(foodY - head.y, foodX - head.x);
+            final var dot = Direction.dot(headDirection, relativeDirection);
+            final var d2 = (foodX - head.x) * (foodX - head.x) + (foodY - head.y) * (foodY - head.y);
+            final var relativeDistance = d2 / (PERCEPTION_RANGE * PERCEPTION_RANGE);
+            final var similarity = 0.5 * (dot + 1.0);
+            final var valueFactor = (1.0 - relativeDistance) * Math.max(0.1, similarity * similarity);
+            final var radius = chunk.getFoodSize(food).radius;
+            directionalSensor.add(relativeDirection, valueFactor * radius * radius);
+        }
     }
 }
@@ -5,28 +5,27 @@ import game.snake.SnakeChunk;
 import game.snake.SnakeFactory;
 import game.snake.SnakeNameGenerator;
 import game.world.World;
-import game.world.WorldChunk;
 import lombok.Getter;
 import math.Direction;
 import math.Vector;
 
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Random;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static math.Direction.TAU;
 
 public abstract class Bot {
-    protected final static Random random = new Random();
     protected static final double keepThisDistanceToMapEdge = 40;
     protected final World world;
+    protected final Random random;
     @Getter private final Snake snake;
 
     private Bot(World world, Vector spawnPosition) {
         final var name = SnakeNameGenerator.generateBotName();
         this.world = world;
+        this.random = world.getRandom();
         this.snake = SnakeFactory.createSnake(spawnPosition, world, name);
     }
 
@@ -39,6 +38,7 @@ public abstract class Bot {
      */
     protected Bot(Snake snake, World world) {
         this.world = world;
+        this.random = world.getRandom();
         this.snake = snake;
     }
 
@@ -68,15 +68,16 @@ public abstract class Bot {
         final var otherSnakes = new HashSet<>(worldChunk.getSnakes());
         worldChunk.neighbors.forEach(c -> otherSnakes.addAll(c.getSnakes()));
         otherSnakes.remove(snake);
-        otherSnakes.removeIf(s -> Vector.distance2(head, s.getHeadPosition()) <= bound);
+        otherSnakes.removeIf(s -> Vector.distance2(head, s.getHeadPosition()) > bound);
 
         return otherSnakes;
     }
 
     /**
-     * Get {@link SnakeChunk}s in the current {@link game.world.WorldChunk}
-     * and its neighbors, excluding chunks from the snake of this bot and those
+     * Get {@link SnakeChunk}s of the snakes in the current {@link game.world.WorldChunk}
+     * and its neighbors, excluding chunks from the snake of this bot, junk chunks and those
      * whose bounding box does not intersect with the circle defined by the given radius.
+     * Chunks are found through the chunk hierarchy of each snake, see {@link Snake#forEachChunkWithinRange}.
      *
      * @param radius search radius, should not be too big
      * @return A modifiable set of SnakeChunks
@@ -88,11 +89,13 @@ public abstract class Bot {
         final var head = snake.getHeadPosition();
         final var worldChunk = world.chunks.findChunk(head);
 
-        return Stream.concat(Stream.of(worldChunk), worldChunk.neighbors.stream())
-                .flatMap(WorldChunk::streamSnakeChunks)
-                .filter(snakeChunk -> snakeChunk.getSnake() != snake)
-                .filter(snakeChunk -> snakeChunk.getBoundingBox().isWithinRange(head, radius))
-                .collect(Collectors.toSet());
+        final var otherSnakes = new HashSet<>(worldChunk.getSnakes());
+        worldChunk.neighbors.forEach(c -> otherSnakes.addAll(c.getSnakes()));
+        otherSnakes.remove(snake);
+
+        final var snakeChunks = new LinkedHashSet<SnakeChunk>();
+        otherSnakes.forEach(otherSnake -> otherSnake.forEachChunkWithinRange(head, radius, snakeChunks::add));
+        return snakeChunks;
     }
 
     protected void moveInRandomDirection() {
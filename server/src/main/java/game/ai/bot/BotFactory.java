@@ -2,13 +2,9 @@ package game.ai.bot;
 
 import game.world.World;
 
-import java.util.Random;
-
 public class BotFactory {
-    private static final Random random = new Random();
-
     public static Bot createBot(World world) {
-        final var p = random.nextDouble();
+        final var p = world.getRandom().nextDouble();
 
         if (p < 0.1) {
             return new ScaredBot(world);
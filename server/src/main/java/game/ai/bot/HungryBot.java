@@ -5,6 +5,7 @@ import game.ai.behavior.InputSuggestion;
 import game.world.World;
 
 public class HungryBot extends Bot {
+    private final FoodSeekingBehavior foodSeekingBehavior = new FoodSeekingBehavior();
     private int counter = 0;
 
     public HungryBot(World world) {
@@ -23,7 +24,7 @@ public class HungryBot extends Bot {
 
         final var snake = getSnake();
 
-        InputSuggestion inputSuggestion = FoodSeekingBehavior.computeInputSuggestion(snake);
+        InputSuggestion inputSuggestion = foodSeekingBehavior.computeInputSuggestion(snake);
         snake.setTargetDirection(inputSuggestion.direction());
         snake.setUserFast(inputSuggestion.boost());
     }
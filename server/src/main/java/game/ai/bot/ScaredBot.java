@@ -2,7 +2,6 @@ package game.ai.bot;
 
 import game.ai.DirectionalSensor;
 import game.snake.Snake;
-import game.snake.SnakeChunk;
 import game.world.World;
 import math.Vector;
 import math.Direction;
@@ -44,8 +43,8 @@ class ScaredBot extends Bot {
         final var otherSnakeHeads = getSnakesInVicinity(20.0);
         final var otherSnakeChunks = getSnakeChunksInVicinity(16.0);
 
-        // If there are snake heads there should also be other snake chunks.
-        assert otherSnakeHeads.isEmpty() || !otherSnakeChunks.isEmpty();
+        // Only snakes whose heads are close are considered.
+        assert otherSnakeHeads.stream().allMatch(s -> Vector.distance(headPosition, s.getHeadPosition()) <= 20.0);
 
         if (otherSnakeHeads.isEmpty() && otherSnakeChunks.isEmpty()) {
             if (random.nextDouble() < 0.25) {
@@ -66,16 +65,19 @@ class ScaredBot extends Bot {
             dangerSensor.add(dangerDirection, otherSnake.getWidth() / d2);
         });
 
-        otherSnakeChunks.stream()
-                .flatMap(SnakeChunk::getActivePathData)
-                .forEach(snakePathPoint -> {
-                    final var d2 = Vector.distance2(headPosition, snakePathPoint.point);
-                    final var wd = 0.5 * snakePathPoint.getSnakeWidth();
-
-                    final var closeness = 1.0 / Math.max(d2 - wd * wd, wd * wd);
-                    final var dangerDirection = Direction.getFromTo(headPosition, snakePathPoint.point);
-                    dangerSensor.add(dangerDirection, 0.3 * closeness);
-                });
+        otherSnakeChunks.forEach(snakeChunk -> {
+            final var otherSnake = snakeChunk.getSnake();
+            snakeChunk.forEachActivePathPoint((x, y, offset) -> {
+                final var dx = x - headPosition.x;
+                final var dy = y - headPosition.y;
+                final var d2 = dx * dx + dy * dy;
+                final var wd = 0.5 * otherSnake.getWidthAt(offset);
+
+                final var closeness = 1.0 / Math.max(d2 - wd * wd, wd * wd);
+                final var dangerDirection = Math.atan2(dy, dx);
+                dangerSensor.add(dangerDirection, 0.3 * closeness);
+            });
+        });
 
         // Add a slight preference for keeping the current direction.
         dangerSensor.add(snake.getHeadDirection(), snake.getWidth() / 30.0, 0.0);
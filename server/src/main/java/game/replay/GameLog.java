@@ -0,0 +1,235 @@
+package game.replay;
+
+import game.GameConfig;
+
+import javax.annotation.Nullable;
+import java.io.*;
+
+/**
+ * A compact binary log of everything that influences a game but cannot be derived from the seed
+ * of its world: players joining and leaving the game and their input. Given the seed and config
+ * from the header, a game can be re-simulated tick by tick, see {@link ReplayGame}.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header: magic (int) | version (byte) | seed (long) | chunk size (double) | chunks per row (int)
+ * event:  tick delta (unsigned varint) | type (byte) | payload
+ * </pre>
+ * The tick delta is relative to the previous event, so events within the same tick cost one
+ * byte of timing information. Payloads:
+ * <ul>
+ *     <li>{@link Join}, {@link Leave}: snake id (char)</li>
+ *     <li>{@link Input}: snake id (char) | alpha (float), the fast flag is part of the type</li>
+ *     <li>{@link Checksum}: checksum of the game state (long)</li>
+ *     <li>{@link End}: no payload</li>
+ * </ul>
+ * Events of a tick are applied after the tick has been computed and before the next one starts.
+ */
+public final class GameLog {
+    private static final int MAGIC = 0x534e4b52; // SNKR
+    private static final byte VERSION = 1;
+    private static final byte TYPE_JOIN = 1;
+    private static final byte TYPE_LEAVE = 2;
+    private static final byte TYPE_INPUT_SLOW = 3;
+    private static final byte TYPE_INPUT_FAST = 4;
+    private static final byte TYPE_CHECKSUM = 5;
+    private static final byte TYPE_END = 6;
+
+    private GameLog() {
+    }
+
+    public sealed interface Event permits Join, Leave, Input, Checksum, End {
+        /**
+         * The number of ticks computed before the event happened.
+         */
+        long tick();
+    }
+
+    public record Join(long tick, char snakeId) implements Event {
+    }
+
+    public record Leave(long tick, char snakeId) implements Event {
+    }
+
+    public record Input(long tick, char snakeId, float alpha, boolean fast) implements Event {
+    }
+
+    public record Checksum(long tick, long checksum) implements Event {
+    }
+
+    public record End(long tick) implements Event {
+    }
+
+    public record Header(long seed, GameConfig config) {
+    }
+
+    /**
+     * Writes a game log. Not thread-safe, all events must be written by the thread that owns the game state.
+     * Write methods throw {@link UncheckedIOException}s.
+     */
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private long lastTick = 0;
+
+        public Writer(OutputStream out, long seed, GameConfig config) {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+            try {
+                this.out.writeInt(MAGIC);
+                this.out.writeByte(VERSION);
+                this.out.writeLong(seed);
+                this.out.writeDouble(config.chunks.size);
+                this.out.writeInt(config.chunks.columns);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void join(long tick, char snakeId) {
+            try {
+                writeEventHeader(tick, TYPE_JOIN);
+                out.writeChar(snakeId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void leave(long tick, char snakeId) {
+            try {
+                writeEventHeader(tick, TYPE_LEAVE);
+                out.writeChar(snakeId);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void input(long tick, char snakeId, float alpha, boolean fast) {
+            try {
+                writeEventHeader(tick, fast ? TYPE_INPUT_FAST : TYPE_INPUT_SLOW);
+                out.writeChar(snakeId);
+                out.writeFloat(alpha);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void checksum(long tick, long checksum) {
+            try {
+                writeEventHeader(tick, TYPE_CHECKSUM);
+                out.writeLong(checksum);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Mark the end of the game and close the log.
+         */
+        public void end(long tick) {
+            try (out) {
+                writeEventHeader(tick, TYPE_END);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void flush() {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+
+        private void writeEventHeader(long tick, byte type) throws IOException {
+            if (tick < lastTick) {
+                throw new IllegalArgumentException("Events must be written in tick order.");
+            }
+
+            var delta = tick - lastTick;
+            while ((delta & ~0x7fL) != 0) {
+                out.writeByte((int) ((delta & 0x7f) | 0x80));
+                delta >>>= 7;
+            }
+            out.writeByte((int) delta);
+            out.writeByte(type);
+            lastTick = tick;
+        }
+    }
+
+    /**
+     * Reads a game log. A log that has been cut off, e.g. because the server has been killed,
+     * ends with its last complete event.
+     */
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final Header header;
+        private long lastTick = 0;
+
+        public Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+
+            if (this.in.readInt() != MAGIC) {
+                throw new IOException("Not a game log.");
+            }
+            final var version = this.in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported game log version: " + version);
+            }
+
+            final var seed = this.in.readLong();
+            final var chunkSize = this.in.readDouble();
+            final var chunks = this.in.readInt();
+            header = new Header(seed, new GameConfig(new GameConfig.ChunkInfo(chunkSize, chunks)));
+        }
+
+        public Header getHeader() {
+            return header;
+        }
+
+        /**
+         * Read the next event or return {@code null} if the log has no more events.
+         */
+        @Nullable
+        public Event next() throws IOException {
+            try {
+                final var tick = lastTick + readVarLong();
+                final var type = in.readByte();
+                lastTick = tick;
+
+                return switch (type) {
+                    case TYPE_JOIN -> new Join(tick, in.readChar());
+                    case TYPE_LEAVE -> new Leave(tick, in.readChar());
+                    case TYPE_INPUT_SLOW, TYPE_INPUT_FAST ->
+                            new Input(tick, in.readChar(), in.readFloat(), type == TYPE_INPUT_FAST);
+                    case TYPE_CHECKSUM -> new Checksum(tick, in.readLong());
+                    case TYPE_END -> new End(tick);
+                    default -> throw new IOException("Unknown event type: " + type);
+                };
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = in.readByte();
+                value |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
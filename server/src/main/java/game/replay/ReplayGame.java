@@ -0,0 +1,116 @@
+package game.replay;
+
+import game.Game;
+import game.TickExecutor;
+import game.UserInput;
+import game.snake.Snake;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Re-simulates a recorded game on the calling thread as fast as possible. The game starts from
+ * the seed of the log and applies the recorded events at the ticks they have happened. Recorded
+ * checksums are compared with the re-simulated game state, so a replay fails as soon as it
+ * diverges from the recording.
+ */
+public class ReplayGame extends Game {
+    private final GameLog.Reader log;
+    private final Map<Character, Snake> players = new HashMap<>();
+    @Nullable private GameLog.Event nextEvent;
+    private boolean finished = false;
+    private int verifiedChecksums = 0;
+
+    public ReplayGame(GameLog.Reader log, TickExecutor tickExecutor) throws IOException {
+        super(log.getHeader().config(), log.getHeader().seed(), tickExecutor);
+        this.log = log;
+        nextEvent = log.next();
+    }
+
+    /**
+     * Replay the whole log.
+     *
+     * @throws IllegalStateException if the replay diverges from the recording
+     */
+    public Result run() throws IOException {
+        final long start = System.nanoTime();
+        long ticks = 0;
+
+        while (true) {
+            applyEvents();
+
+            if (finished) {
+                break;
+            }
+
+            update();
+            ticks++;
+        }
+
+        return new Result(ticks, System.nanoTime() - start, verifiedChecksums, computeChecksum());
+    }
+
+    /**
+     * Apply all events of the current tick.
+     */
+    private void applyEvents() throws IOException {
+        final var tick = getSnapshot().tick;
+
+        while (nextEvent != null && nextEvent.tick() == tick) {
+            final var event = nextEvent;
+
+            if (event instanceof final GameLog.Join join) {
+                final var snake = addPlayerSnake("Player");
+                if (snake.id != join.snakeId()) {
+                    throw diverged(tick, "player got snake " + (int) snake.id + " instead of " + (int) join.snakeId());
+                }
+                players.put(snake.id, snake);
+            } else if (event instanceof final GameLog.Leave leave) {
+                removePlayerSnake(getPlayerSnake(leave.snakeId(), tick));
+            } else if (event instanceof final GameLog.Input input) {
+                queueUserInput(new UserInput(getPlayerSnake(input.snakeId(), tick), input.alpha(), input.fast()));
+            } else if (event instanceof final GameLog.Checksum checksum) {
+                if (checksum.checksum() != computeChecksum()) {
+                    throw diverged(tick, "checksum mismatch");
+                }
+                verifiedChecksums++;
+            } else if (event instanceof GameLog.End) {
+                finished = true;
+                return;
+            }
+
+            nextEvent = log.next();
+        }
+
+        if (nextEvent == null) {
+            // the log has been cut off
+            finished = true;
+        } else if (nextEvent.tick() < tick) {
+            throw diverged(tick, "events are out of order");
+        }
+    }
+
+    private Snake getPlayerSnake(char snakeId, long tick) {
+        final var snake = players.get(snakeId);
+        if (snake == null) {
+            throw diverged(tick, "unknown player snake " + (int) snakeId);
+        }
+        return snake;
+    }
+
+    private static IllegalStateException diverged(long tick, String reason) {
+        return new IllegalStateException("Replay diverged at tick " + tick + ": " + reason);
+    }
+
+    /**
+     * @param verifiedChecksums number of recorded checksums that matched the replay
+     * @param finalChecksum     checksum of the game state after the last tick
+     */
+    public record Result(long ticks, long elapsedNanos, int verifiedChecksums, long finalChecksum) {
+        public double ticksPerSecond() {
+            return ticks / (elapsedNanos / 1e9);
+        }
+    }
+}
@@ -7,21 +7,17 @@ import math.Vector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ThreadLocalRandom;
-
 public class BoundarySnake extends Snake {
     private static final Logger LOGGER = LoggerFactory.getLogger(BoundarySnake.class);
     private final BoundingBox bottom, right, up, left;
 
     BoundarySnake(char id, World world) {
-        super(id, world, "BoundarySnake", pickSkin());
+        super(id, world, "BoundarySnake", pickSkin(world));
         updateLengthAndWidth();
 
-        // start at bottom center
-        headPosition = new Vector(0.0, world.box.minY + getWidth());
-        // go right
-        headDirection = 0.0;
-        setTargetDirection(headDirection);
+        // start at bottom center, go right
+        setHead(new Vector(0.0, world.box.minY + getWidth()), 0.0);
+        setTargetDirection(0.0);
 
         final var wb = world.box;
         final var boxWidth = Math.min(3 * getWidth(), world.getConfig().chunks.size);
@@ -44,8 +40,8 @@ public class BoundarySnake extends Snake {
         assert Math.abs(left.getWidth() - boxWidth) < 1e-8;
     }
 
-    private static byte pickSkin() {
-        return (byte) ThreadLocalRandom.current().nextInt(Snake.NUMBER_OF_SKINS);
+    private static byte pickSkin(World world) {
+        return (byte) world.getRandom().nextInt(Snake.NUMBER_OF_SKINS);
     }
 
     public void updateLengthAndWidth() {
@@ -53,15 +49,16 @@ public class BoundarySnake extends Snake {
         final var worldHeight = world.box.getHeight();
         final var chunkSize = world.getConfig().chunks.size;
 
-        length = 2 * (worldWidth + worldHeight) + 0.75 * chunkSize;
+        setLength(2 * (worldWidth + worldHeight) + 0.75 * chunkSize);
 
         updateWidth();
     }
 
     @Override
-    public void tick() {
+    public void advance() {
+        super.advance();
+        // the target of the next move depends on the new head position only
         updateTargetDirection();
-        super.tick();
     }
 
     private void updateTargetDirection() {
@@ -2,6 +2,8 @@ package game.snake;
 
 import game.GameConfig;
 
+import java.nio.ByteBuffer;
+
 import static math.MathFunctions.clamp;
 
 class ChainCodeCoder {
@@ -10,22 +12,37 @@ class ChainCodeCoder {
     private static final int STEPS_MASK = 7 << 4;
     private static final int FAST_BIT = 1 << 7;
     private static final double SCALE_RANGE = 6.0 / 7.0 - Double.MIN_NORMAL;
+    /**
+     * Number of rotations after which a direction vector gets scaled back to unit length.
+     */
+    static final int RENORMALIZATION_INTERVAL = 8;
 
     private final GameConfig config;
-    private final Snake snake;
     private final double DIR_STEP;
     private final double INV_MAX_DELTA;
+    /**
+     * Cosine and sine of the direction change of each code.
+     */
+    private final double[] rotationCos = new double[DIRECTION_MASK + 1];
+    private final double[] rotationSin = new double[DIRECTION_MASK + 1];
 
-    ChainCodeCoder(Snake snake) {
-        this.snake = snake;
-        this.config = snake.config;
+    ChainCodeCoder(GameConfig config) {
+        this.config = config;
         DIR_STEP = config.snakes.maxTurnDelta / 7.0;
         INV_MAX_DELTA = 1.0 / config.snakes.maxTurnDelta;
+
+        for (int direction = 0; direction <= DIRECTION_MASK; direction++) {
+            final var change = decodeDirectionChange(direction);
+            rotationCos[direction] = Math.cos(change);
+            rotationSin[direction] = Math.sin(change);
+        }
     }
 
-    private double getMaxTurnDelta() {
-        final var width = snake.getWidth();
+    ChainCodeCoder(Snake snake) {
+        this(snake.config);
+    }
 
+    private double getMaxTurnDelta(double width) {
         // x in [0, 1] (relative width)
         final var x = (width - config.snakes.minWidth) / (config.snakes.maxWidth - config.snakes.minWidth);
 
@@ -56,7 +73,10 @@ class ChainCodeCoder {
         return (byte) data;
     }
 
-    int sampleDirectionChange(double newAngle, double oldAngle) {
+    /**
+     * Sample the change from the old to the new angle. Wider snakes turn slower.
+     */
+    int sampleDirectionChange(double newAngle, double oldAngle, double width) {
         // compute change
         double delta = newAngle - oldAngle;
 
@@ -66,7 +86,7 @@ class ChainCodeCoder {
         }
         assert Math.abs(delta) <= Math.PI;
 
-        final double maxDelta = getMaxTurnDelta();
+        final double maxDelta = getMaxTurnDelta(width);
         delta = clamp(delta, -maxDelta, maxDelta);
 
         // angle sampling [0,15]
@@ -80,6 +100,76 @@ class ChainCodeCoder {
         return k * DIR_STEP;
     }
 
+    /**
+     * Rotate a unit direction vector by the direction change of the given code. This replaces
+     * a cosine and a sine per step by a few multiplications per change of direction. Rounding
+     * errors of the rotations get corrected every {@link #RENORMALIZATION_INTERVAL} rotations.
+     * The vector has to be recomputed from the exact direction at the start of each chunk, so
+     * the drift compared to {@code Math.cos(direction)} is bounded by the rotations of one chunk.
+     *
+     * @param vector    the direction vector: x at index i and y at index i + 1
+     * @param rotations the number of rotations of the vector so far including this one
+     */
+    void rotate(double[] vector, int i, int direction, int rotations) {
+        final var cos = rotationCos[direction];
+        final var sin = rotationSin[direction];
+        final var x = vector[i];
+        final var y = vector[i + 1];
+        var rotatedX = x * cos - y * sin;
+        var rotatedY = x * sin + y * cos;
+
+        if (rotations % RENORMALIZATION_INTERVAL == 0) {
+            // one Newton step towards 1 / sqrt(length^2), the length is close to 1
+            final var scale = 0.5 * (3.0 - (rotatedX * rotatedX + rotatedY * rotatedY));
+            rotatedX *= scale;
+            rotatedY *= scale;
+        }
+
+        vector[i] = rotatedX;
+        vector[i + 1] = rotatedY;
+    }
+
+    /**
+     * Decode the path points of a snake chunk from its chain codes. The path gets computed the same
+     * way {@link GrowingSnakeChunk#append(int, boolean)} has computed it, so the decoded points are
+     * identical to the recorded ones.
+     *
+     * @param buffer    the encoded chunk
+     * @param x         exact x coordinate of the end of the chunk
+     * @param y         exact y coordinate of the end of the chunk
+     * @param direction exact direction at the end of the chunk
+     */
+    PathPoints decodePath(ByteBuffer buffer, double x, double y, double direction) {
+        final var numberOfChainCodes = buffer.get(SnakeChunk.BUFFER_N_POS) & 0xff;
+
+        int numberOfPoints = 1;
+        for (int i = 0; i < numberOfChainCodes; i++) {
+            numberOfPoints += decode(buffer.get(SnakeChunk.HEADER_BYTE_SIZE + i)).steps();
+        }
+
+        final var points = new PathPoints(new PathRing(numberOfPoints), x, y);
+        final var vector = new double[]{Math.cos(direction), Math.sin(direction)};
+        int rotations = 0;
+        double pathLength = 0.0;
+
+        for (int i = 0; i < numberOfChainCodes; i++) {
+            final var chainCode = decode(buffer.get(SnakeChunk.HEADER_BYTE_SIZE + i));
+            final var stepSize = chainCode.fast() ? config.snakes.fastSpeed : config.snakes.speed;
+            if (chainCode.direction() != 0) {
+                rotate(vector, 0, chainCode.direction(), ++rotations);
+            }
+
+            for (int step = 0; step < chainCode.steps(); step++) {
+                x += vector[0] * stepSize;
+                y += vector[1] * stepSize;
+                pathLength += stepSize;
+                points.add(x, y, pathLength);
+            }
+        }
+
+        return points;
+    }
+
     DecodedData decode(byte b) {
         boolean fast = (b & FAST_BIT) > 0;
         int steps = 1 + ((b & STEPS_MASK) >> 4);
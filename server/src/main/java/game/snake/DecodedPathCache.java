@@ -0,0 +1,33 @@
+package game.snake;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A small least-recently-used cache of the decoded path points of compacted {@link FinalSnakeChunk}s
+ * of a snake, see {@link game.GameConfig.SnakeInfo#decodedChunks}. Each snake has its own cache,
+ * so snakes moving in parallel do not contend. Methods are synchronized for readers on other threads
+ * such as the debug view.
+ */
+final class DecodedPathCache {
+    static final int CAPACITY = 4;
+    private final Map<FinalSnakeChunk, PathPoints> entries = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<FinalSnakeChunk, PathPoints> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    synchronized PathPoints get(FinalSnakeChunk chunk) {
+        var points = entries.get(chunk);
+        if (points == null) {
+            points = chunk.decodePathPoints();
+            entries.put(chunk, points);
+        }
+        return points;
+    }
+
+    synchronized void remove(FinalSnakeChunk chunk) {
+        entries.remove(chunk);
+    }
+}
@@ -1,11 +1,10 @@
 package game.snake;
 
+import game.world.WorldSnapshot.SnakeChunkInfo;
 import lombok.Getter;
 import math.BoundingBox;
-import math.Vector;
 
 import java.nio.ByteBuffer;
-import java.util.List;
 
 public class FinalSnakeChunk extends SnakeChunk {
     public final static int BYTE_SIZE = 96;
@@ -14,30 +13,56 @@ public class FinalSnakeChunk extends SnakeChunk {
     @Getter private final double dataLength;
     @Getter private final int uniqueId;
     private final BoundingBox boundingBox;
-    final private List<SnakePathPoint> pathData;
-    private double offsetInSnake = 0.0;
-    private SnakeChunk.PointQueryInfo lastQueryInfo;
+    /**
+     * The recorded path points. Once the chunk has been compacted they have been released
+     * and the points get decoded from the chain codes on demand.
+     */
+    private final PathPoints pathPoints;
+    private final double endDirection;
+    private boolean compacted = false;
+    private boolean released = false;
+    private final PathSegments pathSegments;
+    /**
+     * The distance the head of the snake had travelled when this chunk was finalized,
+     * see {@link Snake#getHeadDistance()}.
+     */
+    private final double headDistance;
+    /**
+     * The captured chunk. It does not change, so all snapshots share it.
+     */
+    @Getter private final SnakeChunkInfo info;
 
     protected FinalSnakeChunk(
             Snake snake,
             ByteBuffer buffer,
             BoundingBox box,
             double dataLength,
-            SnakePathPoint[] pathData
+            double headDistance,
+            double endDirection,
+            PathPoints pathPoints,
+            PathSegments pathSegments
     ) {
         super(snake);
 
         assert buffer.position() == BYTE_SIZE;
         assert dataLength > 0;
 
-        this.pathData = List.of(pathData);
-        this.pathData.forEach(pd -> pd.setFinalSnakeChunk(this));
+        this.pathPoints = pathPoints;
+        this.pathSegments = pathSegments;
         chunkByteBuffer = buffer;
         boundingBox = box;
         this.dataLength = dataLength;
+        this.headDistance = headDistance;
+        this.endDirection = endDirection;
         this.uniqueId = buffer.getInt(0); // bytes 0-3
+        info = new SnakeChunkInfo(this, false, true, box, getBuffer(), headDistance);
     }
 
+    /**
+     * The offset within the header of the returned buffer is not kept up to date as it changes
+     * every tick. It gets patched when the chunk is written to a client, see
+     * {@link SnakeChunkInfo#writeTo(ByteBuffer, game.world.WorldSnapshot)}.
+     */
     public ByteBuffer getBuffer() {
         return chunkByteBuffer.asReadOnlyBuffer().flip();
     }
@@ -55,18 +80,62 @@ public class FinalSnakeChunk extends SnakeChunk {
     }
 
     @Override
-    public List<SnakePathPoint> getPathData() {
-        return pathData;
+    public PathPoints getPathPoints() {
+        if (compacted && !released) {
+            return snake.decodedPaths.get(this);
+        }
+        // the points of a released chunk are empty
+        return pathPoints;
+    }
+
+    /**
+     * Release the recorded path points and only keep the chain codes. Chunks must be compacted
+     * in order from the tail towards the head.
+     */
+    void compact() {
+        assert !compacted;
+        pathPoints.release();
+        compacted = true;
+    }
+
+    /**
+     * Release the path points and return the path segments to the {@link SnakeChunkPool} when this
+     * chunk gets removed from the tail of the snake. Afterwards, the chunk has no points and segments.
+     */
+    void release() {
+        assert !released;
+        if (compacted) {
+            snake.decodedPaths.remove(this);
+        } else {
+            pathPoints.release();
+        }
+        snake.world.getSnakeChunkPool().free(pathSegments);
+        released = true;
+    }
+
+    PathPoints decodePathPoints() {
+        return snake.coder.decodePath(chunkByteBuffer, pathSegments.getX(0), pathSegments.getY(0), endDirection);
     }
 
     @Override
-    public double getOffset() {
-        return offsetInSnake;
+    public PathSegments getPathSegments() {
+        return pathSegments;
     }
 
-    public void setOffset(double offset) {
-        this.offsetInSnake = offset;
-        chunkByteBuffer.putFloat(BUFFER_OFFSET_POS, (float) offset);
+    /**
+     * Get the distance the head of the snake had travelled when this chunk was finalized.
+     */
+    double getHeadDistance() {
+        return headDistance;
+    }
+
+    /**
+     * The offset is derived from the distance the head has travelled since this chunk has been
+     * finalized, so it does not have to be updated when the snake moves.
+     */
+    @Override
+    public double getOffset() {
+        return snake.getHeadDistance() - headDistance;
     }
 
     public BoundingBox getBoundingBox() {
@@ -78,21 +147,4 @@ public class FinalSnakeChunk extends SnakeChunk {
         return this.getUniqueId();
     }
 
-    @Override
-    public Vector getPositionAt(double inSnakeOffset) {
-        var pathData = getPathData();
-
-        if (lastQueryInfo != null && inSnakeOffset >= lastQueryInfo.offset) {
-            // Performance optimization: Since points in pathData are ordered by offset
-            // we can skip the ones before the last queried point and thereby avoid O(n²)
-            // runtime in World#recycleDeadSnake.
-            pathData = pathData.subList(lastQueryInfo.index, pathData.size());
-        }
-
-        if (lastQueryInfo == null) {
-            lastQueryInfo = new SnakeChunk.PointQueryInfo();
-        }
-
-        return getPositionAt(inSnakeOffset, pathData, lastQueryInfo);
-    }
-}
\ No newline at end of file
+}
@@ -5,21 +5,22 @@ import math.BoundingBox;
 import math.Vector;
 
 import java.nio.ByteBuffer;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
 
 public class GrowingSnakeChunk extends SnakeChunk {
     public final char id;
-    private final List<SnakePathPoint> pathData = new LinkedList<>();
-    private final List<SnakePathPoint> unmodifiablePathData = Collections.unmodifiableList(pathData);
+    private final PathPoints pathPoints;
     private final ChainCodeCoder coder;
     private final Vector end;
     private final double endDirection;
     private final ByteBuffer chunkByteBuffer;
+    private final PathSegments pathSegments;
     private int numberOfChainCodes = 0;
     private double x, y;
-    private double direction;
+    /**
+     * Unit vector of the current direction, see {@link ChainCodeCoder#rotate(double[], int, int, int)}.
+     */
+    private final double[] direction = new double[2];
+    private int rotations = 0;
     private double minX, maxX, minY, maxY;
     @Getter private double dataLength = 0.0;
     private int lastSteps = 0;
@@ -32,14 +33,16 @@ public class GrowingSnakeChunk extends SnakeChunk {
         this.coder = coder;
 
         end = snake.headPosition.clone();
-        pathData.add(new SnakePathPoint(this, end.clone(), 0.0));
-        endDirection = snake.headDirection;
-        direction = endDirection;
+        pathPoints = new PathPoints(snake.pathRing, end.x, end.y);
+        endDirection = snake.getHeadDirection();
+        direction[0] = Math.cos(endDirection);
+        direction[1] = Math.sin(endDirection);
 
         minX = maxX = x = end.x;
         minY = maxY = y = end.y;
 
         chunkByteBuffer = createChunkBuffer();
+        pathSegments = snake.world.getSnakeChunkPool().allocateSegments(end.x, end.y);
     }
 
     /**
@@ -85,12 +88,14 @@ public class GrowingSnakeChunk extends SnakeChunk {
             throw new IllegalStateException("Buffer is full!");
         }
 
-        direction += coder.decodeDirectionChange(dirDelta);
+        if (dirDelta != 0) {
+            coder.rotate(direction, 0, dirDelta, ++rotations);
+        }
         final double stepSize = fast ? snake.config.snakes.fastSpeed : snake.config.snakes.speed;
-        x += Math.cos(direction) * stepSize;
-        y += Math.sin(direction) * stepSize;
+        x += direction[0] * stepSize;
+        y += direction[1] * stepSize;
         dataLength += stepSize;
-        pathData.add(0, new SnakePathPoint(this, new Vector(x, y), dataLength));
+        pathPoints.add(x, y, dataLength);
 
         // update chaincode
         if (canUpdatePreviousChainCode(dirDelta, fast)) {
@@ -100,6 +105,7 @@ public class GrowingSnakeChunk extends SnakeChunk {
                     coder.encode(lastDirDelta, fast, lastSteps + 1)
             );
             lastSteps++;
+            pathSegments.moveLastVertex(x, y, dataLength);
         } else {
             // add new chaincode
             this.chunkByteBuffer.put(coder.encode(dirDelta, fast, 1));
@@ -110,6 +116,7 @@ public class GrowingSnakeChunk extends SnakeChunk {
             lastFast = fast;
             lastSteps = 1;
             lastDirDelta = dirDelta;
+            pathSegments.addVertex(x, y, dataLength);
         }
 
         // update bounding box
@@ -125,8 +132,17 @@ public class GrowingSnakeChunk extends SnakeChunk {
         }
         BoundingBox box = new BoundingBox(minX, maxX, minY, maxY);
         markAsJunk();
-        final var finalPathData = pathData.toArray(new SnakePathPoint[0]);
-        return new FinalSnakeChunk(snake, chunkByteBuffer, box, dataLength, finalPathData);
+        return new FinalSnakeChunk(snake, chunkByteBuffer, box, dataLength, snake.getHeadDistance(), endDirection,
+                pathPoints, pathSegments);
+    }
+
+    /**
+     * Release the path points and return the path segments to the {@link SnakeChunkPool} when the
+     * snake gets removed before this chunk has been finalized.
+     */
+    void release() {
+        pathPoints.release();
+        snake.world.getSnakeChunkPool().free(pathSegments);
     }
 
     private boolean canUpdatePreviousChainCode(int dirDelta, boolean fast) {
@@ -158,8 +174,13 @@ public class GrowingSnakeChunk extends SnakeChunk {
     }
 
     @Override
-    public List<SnakePathPoint> getPathData() {
-        return unmodifiablePathData;
+    public PathPoints getPathPoints() {
+        return pathPoints;
+    }
+
+    @Override
+    public PathSegments getPathSegments() {
+        return pathSegments;
     }
 
     @Override
@@ -0,0 +1,63 @@
+package game.snake;
+
+/**
+ * The path points of a {@link SnakeChunk}: one point per step of the snake. Points are stored as
+ * primitive coordinates in the {@link PathRing} of the snake instead of one {@link SnakePathPoint}
+ * and {@link math.Vector} per step. This is a view of a contiguous range of the ring that grows
+ * while the chunk is growing and gets handed over to the {@link FinalSnakeChunk} as is.
+ * <p>
+ * Points are ordered from the end of the chunk (the first recorded point) towards the head, like
+ * the vertices of {@link PathSegments}.
+ */
+public final class PathPoints {
+    private final PathRing ring;
+    private final long start;
+    private int numberOfPoints = 0;
+
+    PathPoints(PathRing ring, double startX, double startY) {
+        this.ring = ring;
+        this.start = ring.add(startX, startY, 0.0);
+        this.numberOfPoints = 1;
+    }
+
+    /**
+     * Add a point. Points can only be added to the chunk at the head of the snake.
+     *
+     * @param pathLength the path length from the start of the chunk up to the new point
+     */
+    void add(double px, double py, double pathLength) {
+        assert pathLength > getPathLength(numberOfPoints - 1);
+        final var index = ring.add(px, py, pathLength);
+        assert index == start + numberOfPoints : "Points of another chunk have been added in between";
+        numberOfPoints++;
+    }
+
+    /**
+     * Release the points of this chunk and all chunks before it. Must only be called when the
+     * chunk gets removed from the tail of the snake. A released chunk has no points anymore.
+     */
+    void release() {
+        ring.release(start + numberOfPoints);
+        numberOfPoints = 0;
+    }
+
+    public int size() {
+        return numberOfPoints;
+    }
+
+    public double getX(int point) {
+        return ring.getX(start + point);
+    }
+
+    public double getY(int point) {
+        return ring.getY(start + point);
+    }
+
+    /**
+     * Get the path length from the start of the chunk up to the given point. The offset of a point
+     * within the chunk (from the head-side end) is {@code getDataLength() - getPathLength(point)}.
+     */
+    public double getPathLength(int point) {
+        return ring.getPathLength(start + point);
+    }
+}
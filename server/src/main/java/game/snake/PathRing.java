@@ -0,0 +1,116 @@
+package game.snake;
+
+/**
+ * Per-snake ring buffer of path points. The current {@link GrowingSnakeChunk} appends one point per
+ * step and its {@link PathPoints} keep referring to the same range of the ring after the chunk has
+ * been finalized, so points are never copied. Points are released when the chunk at the tail of the
+ * snake gets removed, which makes room for new points at the head.
+ * <p>
+ * Points are addressed by a logical index that increases with every point. The capacity is a power
+ * of two and only grows while the snake grows, so a snake of constant length records its path
+ * without allocating.
+ */
+final class PathRing {
+    private static final int INITIAL_CAPACITY = 256;
+    private double[] x;
+    private double[] y;
+    private double[] length;
+    private int mask;
+    /**
+     * Logical index of the next point.
+     */
+    private long head = 0;
+    /**
+     * Logical index of the oldest point that has not been released.
+     */
+    private long tail = 0;
+
+    PathRing() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of points that fit into the ring without growing,
+     *                 gets rounded up to the next power of two
+     */
+    PathRing(int capacity) {
+        final var powerOfTwo = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        x = new double[powerOfTwo];
+        y = new double[powerOfTwo];
+        length = new double[powerOfTwo];
+        mask = powerOfTwo - 1;
+    }
+
+    /**
+     * Append a point and return its logical index.
+     */
+    long add(double px, double py, double pathLength) {
+        if (head - tail == x.length) {
+            grow();
+        }
+
+        final var i = (int) head & mask;
+        x[i] = px;
+        y[i] = py;
+        length[i] = pathLength;
+        return head++;
+    }
+
+    /**
+     * Release all points before the given logical index.
+     */
+    void release(long end) {
+        assert tail <= end && end <= head;
+        tail = end;
+    }
+
+    /**
+     * Reset an empty ring so it can be used for another snake.
+     */
+    void reset() {
+        assert tail == head : "Points have not been released";
+        head = 0;
+        tail = 0;
+    }
+
+    boolean isRetained(long index) {
+        return tail <= index && index < head;
+    }
+
+    double getX(long index) {
+        assert isRetained(index) : "Point has been released";
+        return x[(int) index & mask];
+    }
+
+    double getY(long index) {
+        assert isRetained(index) : "Point has been released";
+        return y[(int) index & mask];
+    }
+
+    double getPathLength(long index) {
+        assert isRetained(index) : "Point has been released";
+        return length[(int) index & mask];
+    }
+
+    private void grow() {
+        final var capacity = 2 * x.length;
+        final var newMask = capacity - 1;
+        final var newX = new double[capacity];
+        final var newY = new double[capacity];
+        final var newLength = new double[capacity];
+
+        // keep the logical indices valid
+        for (long index = tail; index < head; index++) {
+            final var i = (int) index & mask;
+            final var j = (int) index & newMask;
+            newX[j] = x[i];
+            newY[j] = y[i];
+            newLength[j] = length[i];
+        }
+
+        x = newX;
+        y = newY;
+        length = newLength;
+        mask = newMask;
+    }
+}
@@ -0,0 +1,84 @@
+package game.snake;
+
+/**
+ * The path of a {@link SnakeChunk} as a polyline. Each chain code turns once and then moves
+ * straight for all of its steps, so each chain code corresponds to exactly one straight segment.
+ * Vertices are ordered from the end of the chunk (the first recorded point) towards the head.
+ * <p>
+ * Segments are used as collision geometry: a snake body is a sequence of capsules whose radius
+ * is half the snake width along the segment. This needs one primitive per chain code instead of
+ * one per path point and is exact regardless of the snake speed.
+ * <p>
+ * Vertices are stored interleaved (x, y, path length) in a slot of a slab of the
+ * {@link SnakeChunkPool}, which gets the slot back once the chunk has been removed.
+ */
+public final class PathSegments {
+    static final int MAX_VERTICES = FinalSnakeChunk.BYTE_SIZE - SnakeChunk.HEADER_BYTE_SIZE + 1;
+    /**
+     * Number of doubles of a slot.
+     */
+    static final int SLOT_SIZE = 3 * MAX_VERTICES;
+    private final double[] slab;
+    private final int base;
+    final int slot;
+    private int numberOfVertices = 0;
+
+    PathSegments(double[] slab, int slot, int base, double startX, double startY) {
+        this.slab = slab;
+        this.slot = slot;
+        this.base = base;
+        addVertex(startX, startY, 0.0);
+    }
+
+    /**
+     * Add a vertex. This adds a segment from the previous vertex to the new one.
+     *
+     * @param pathLength the path length from the start of the chunk up to the new vertex
+     */
+    void addVertex(double vx, double vy, double pathLength) {
+        assert numberOfVertices < MAX_VERTICES;
+        final var i = base + 3 * numberOfVertices;
+        slab[i] = vx;
+        slab[i + 1] = vy;
+        slab[i + 2] = pathLength;
+        numberOfVertices++;
+    }
+
+    /**
+     * Extend the last segment, i.e. move the last vertex further in the direction of the segment.
+     */
+    void moveLastVertex(double vx, double vy, double pathLength) {
+        assert numberOfVertices > 1;
+        final var i = base + 3 * (numberOfVertices - 1);
+        slab[i] = vx;
+        slab[i + 1] = vy;
+        slab[i + 2] = pathLength;
+    }
+
+    /**
+     * Forget all vertices before the slot gets handed out again.
+     */
+    void clear() {
+        numberOfVertices = 0;
+    }
+
+    public int size() {
+        return Math.max(0, numberOfVertices - 1);
+    }
+
+    public double getX(int vertex) {
+        return slab[base + 3 * vertex];
+    }
+
+    public double getY(int vertex) {
+        return slab[base + 3 * vertex + 1];
+    }
+
+    /**
+     * Get the path length from the start of the chunk up to the given vertex. The offset of a vertex
+     * within the chunk (from the head-side end) is {@code getDataLength() - getPathLength(vertex)}.
+     */
+    public double getPathLength(int vertex) {
+        return slab[base + 3 * vertex + 2];
+    }
+}
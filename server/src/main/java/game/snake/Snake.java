@@ -3,21 +3,22 @@ package game.snake;
 import game.GameConfig;
 import game.world.Food;
 import game.world.World;
+import game.world.WorldChunk;
 import lombok.Getter;
-import math.Direction;
+import math.BoundingBox;
 import math.Vector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import util.BitWithShortHistory;
 
+import javax.annotation.Nullable;
+
 import java.nio.ByteBuffer;
-import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
-import static math.MathFunctions.sigmoid;
-
 public class Snake {
     public static final int INFO_BYTE_SIZE = 26;
     public static final int NUMBER_OF_SKINS = 7;
@@ -25,50 +26,95 @@ public class Snake {
     private static final Logger LOGGER = LoggerFactory.getLogger(Snake.class);
     public final GameConfig config;
     public final char id;
+    /**
+     * The generation of the id, see {@link SnakeRegistry}. Set when the snake gets registered.
+     */
+    @Getter int generation;
     public final String name;
     @Getter protected final World world;
-    private final ChainCodeCoder coder;
-    private final ByteBuffer snakeInfoBuffer = ByteBuffer.allocate(Snake.INFO_BYTE_SIZE);
-    private final LinkedList<FinalSnakeChunk> chunks = new LinkedList<>();
+    final ChainCodeCoder coder;
+    private final SnakeChunkList chunks = new SnakeChunkList();
+    private final SnakeChunkTree chunkTree = new SnakeChunkTree();
+    final PathRing pathRing;
+    final DecodedPathCache decodedPaths = new DecodedPathCache();
     private final BitWithShortHistory fastHistory = new BitWithShortHistory(false);
+    /**
+     * Changes to the {@link World} caused by {@link #move()}. See {@link #applyWorldUpdates()}.
+     */
+    private final List<Runnable> pendingWorldUpdates = new ArrayList<>(4);
     @Getter private final byte skin;
     public GrowingSnakeChunk currentChunk;
-    @Getter protected double length;
+    /**
+     * The kinematic state of this snake is the entry {@link #id} of this table.
+     */
+    private final SnakeStateTable states;
+    /**
+     * The head position of {@link #states}. The vector gets updated in place once per move.
+     */
     @Getter Vector headPosition;
-    @Getter double headDirection;
+    /**
+     * The path length the head has travelled since the snake has been created. Chunk offsets are
+     * relative to it, see {@link FinalSnakeChunk#getOffset()}.
+     */
+    @Getter private double headDistance = 0.0;
     private char currentChunkId;
     @Getter private boolean alive = true;
     private char nextChunkId = 0;
-    private double targetDirection;
-    private boolean userWantsFast = false;
-    private double lengthBuffer = 0.0;
-    @Getter private double width;
     private double foodTrailBuffer = 0f;
     @Getter private int kills = 0;
+    private boolean moving = false;
+    /**
+     * The last chunk that has been added to the {@link WorldChunk}s around the head and, if there was
+     * only one such world chunk, that world chunk. Used to skip the lookup while the head stays inside.
+     */
+    @Nullable private SnakeChunk registeredChunk;
+    @Nullable private WorldChunk registeredWorldChunk;
+    /**
+     * The result of the last {@link #getTailPosition()} query: the index of the tail point within its chunk.
+     */
+    @Nullable private SnakeChunk tailCursorChunk;
+    private int tailCursor;
 
     Snake(char id, World world, String name, byte skin) {
         this.id = id;
         this.world = world;
         config = world.getConfig();
         coder = new ChainCodeCoder(this);
-        length = config.snakes.startLength;
-        width = config.snakes.minWidth;
+        pathRing = world.getSnakeChunkPool().allocateRing();
+        states = world.getSnakeStates();
+        states.add(id);
         this.name = name;
         this.skin = skin;
+    }
 
-        updateWidth();
+    /**
+     * Place the head. Used when creating a snake.
+     */
+    void setHead(Vector position, double direction) {
+        headPosition = position.clone();
+        states.headX[id] = position.x;
+        states.headY[id] = position.y;
+        states.resetDirection(id, direction);
     }
 
     protected void updateWidth() {
-        // x in [0,1]
-        final var x = (length - config.snakes.minLength) / (LENGTH_FOR_95_PERCENT_OF_MAX_WIDTH - config.snakes.minLength);
+        states.updateWidth(id);
+    }
 
-        final var maxWidthGain = config.snakes.maxWidth - config.snakes.minWidth;
+    public double getLength() {
+        return states.length[id];
+    }
 
-        // 2 * (sigmoid(3.66) - 0.5) is roughly  0.95
-        final var gain = 2.0 * (sigmoid(3.66 * x) - 0.5);
+    protected void setLength(double length) {
+        states.setLength(id, length);
+    }
 
-        width = config.snakes.minWidth + gain * maxWidthGain;
+    public double getWidth() {
+        return states.width[id];
+    }
+
+    public double getHeadDirection() {
+        return states.headDirection[id];
     }
 
     public void setTargetDirection(double alpha) {
@@ -77,7 +123,7 @@ public class Snake {
             return;
         }
 
-        this.targetDirection = alpha;
+        states.targetDirection[id] = alpha;
     }
 
     /**
@@ -85,41 +131,98 @@ public class Snake {
      * The actual speed will be determined every tick based on multiple factors.
      */
     public void setUserFast(boolean wantsFast) {
-        userWantsFast = wantsFast;
+        states.wantsFast[id] = wantsFast;
     }
 
     public boolean isFast() {
-        return userWantsFast && length > config.snakes.minLength;
+        return states.wantsFast[id] && getLength() > config.snakes.minLength;
     }
 
     public void tick() {
+        move();
+        applyWorldUpdates();
+    }
+
+    /**
+     * Move the snake without modifying the {@link World}. All world updates (such as adding
+     * {@link SnakeChunk}s to {@link game.world.WorldChunk}s or spawning food) are deferred
+     * until {@link #applyWorldUpdates()} gets called. This allows moving multiple snakes in
+     * parallel as long as their world updates are applied sequentially in a fixed order.
+     */
+    public void move() {
+        states.steer(id);
+        advance();
+    }
+
+    /**
+     * Like {@link #move()} for a snake that has already been steered by {@link SnakeStateTable#steer(List)},
+     * which moves the heads of many snakes at once.
+     */
+    public void advance() {
         assert currentChunk != null : "Snake not fully initialized";
+        assert pendingWorldUpdates.isEmpty() : "World updates of the previous move have not been applied";
 
-        final boolean fast = isFast();
-        fastHistory.set(fast);
+        moving = true;
+        try {
+            moveHeadAndUpdateChunks();
+        } finally {
+            moving = false;
+        }
+    }
+
+    /**
+     * Apply the world updates of the last {@link #move()}.
+     */
+    public void applyWorldUpdates() {
+        pendingWorldUpdates.forEach(Runnable::run);
+        pendingWorldUpdates.clear();
+    }
 
-        // update direction
-        int encDirDelta = coder.sampleDirectionChange(targetDirection, headDirection);
-        double dirDelta = coder.decodeDirectionChange(encDirDelta);
-        headDirection = Direction.normalize(headDirection + dirDelta);
+    /**
+     * Update the world immediately or, while {@link #move()} is running, defer the update.
+     */
+    private void updateWorld(Runnable worldUpdate) {
+        if (moving) {
+            pendingWorldUpdates.add(worldUpdate);
+        } else {
+            worldUpdate.run();
+        }
+    }
 
-        // move head & handle length change
+    private void moveHeadAndUpdateChunks() {
+        // direction and head position have been updated by the state table
+        final boolean fast = states.fast[id];
+        fastHistory.set(fast);
+
+        // handle length change & move head
         if (fast) {
             shrink(config.snakes.burnRate);
             handleLengthChange(config.snakes.fastSpeed);
-            headPosition.addDirection(headDirection, config.snakes.fastSpeed);
+            headDistance += config.snakes.fastSpeed;
         } else {
             handleLengthChange(config.snakes.speed);
-            headPosition.addDirection(headDirection, config.snakes.speed);
+            headDistance += config.snakes.speed;
         }
+        // the tail position of the food trail refers to the old head, so move it afterwards
+        headPosition.x = states.headX[id];
+        headPosition.y = states.headY[id];
 
         updateWidth();
 
         // update chunks
-        currentChunk.append(encDirDelta, fast);
+        currentChunk.append(states.directionChange[id], fast);
 
         // ensures that the current SnakeChunk is added to all WorldChunks in which the snake exists
-        world.chunks.findIntersectingChunks(headPosition, getWidth() / 2).forEach(wc -> wc.addSnakeChunk(currentChunk));
+        final var chunkToAdd = currentChunk;
+        final var radius = getWidth() / 2;
+        if (chunkToAdd != registeredChunk || registeredWorldChunk == null
+                || !registeredWorldChunk.box.isWithinSubBox(headPosition, radius)) {
+            final var worldChunks = new ArrayList<WorldChunk>(4);
+            world.chunks.forEachIntersectingChunk(headPosition, radius, worldChunks::add);
+            updateWorld(() -> worldChunks.forEach(wc -> wc.addSnakeChunk(chunkToAdd)));
+            registeredChunk = chunkToAdd;
+            registeredWorldChunk = worldChunks.size() == 1 ? worldChunks.get(0) : null;
+        }
 
         // after an update a chunk might be full
         if (currentChunk.isFull()) {
@@ -129,15 +232,15 @@ public class Snake {
             // the id of an empty chunk (non-existing to the client) would confuse the client
             currentChunkId = currentChunk.id;
         }
-        double offset = currentChunk.getDataLength();
-        for (FinalSnakeChunk chunk : chunks) {
-            chunk.setOffset(offset);
-            offset += chunk.getDataLength();
-        }
-        if (chunks.size() > 0) {
-            FinalSnakeChunk lastChunk = chunks.get(chunks.size() - 1);
+        if (!chunks.isEmpty()) {
+            final var lastChunk = chunks.getLast();
             if (lastChunk.isJunk()) {
-                chunks.remove(chunks.size() - 1);
+                chunks.removeLast();
+                chunkTree.removeLast(lastChunk);
+                lastChunk.release();
+                // the heat map cannot find the chunk anymore
+                final var box = lastChunk.getBoundingBox();
+                updateWorld(() -> world.getHeatMap().markDirty(box));
             }
         }
     }
@@ -147,46 +250,61 @@ public class Snake {
             assert currentChunk.isFull();
 
             final var snakeChunk = currentChunk.build();
-            chunks.add(0, snakeChunk);
-            world.addSnakeChunk(snakeChunk);
+            chunks.addFirst(snakeChunk);
+            if (chunks.size() > config.snakes.decodedChunks) {
+                // only keep the chain codes of the chunk that is no longer close to the head
+                chunks.get(config.snakes.decodedChunks).compact();
+            }
+            chunkTree.addFirst(snakeChunk);
+            updateWorld(() -> world.addSnakeChunk(snakeChunk));
         }
 
-        currentChunk = new GrowingSnakeChunk(coder, this, nextChunkId++);
-        world.addSnakeChunk(currentChunk);
+        // the new chunk starts from the exact head direction, so does the head
+        states.resetDirection(id, getHeadDirection());
+        final var newChunk = new GrowingSnakeChunk(coder, this, nextChunkId++);
+        currentChunk = newChunk;
+        updateWorld(() -> world.addSnakeChunk(newChunk));
     }
 
     public ByteBuffer encodeInfo() {
-        final var buffer = this.snakeInfoBuffer;
-        buffer.putChar(0, id);
-        buffer.putChar(2, currentChunkId);
-        buffer.put(4, skin);
-        buffer.put(5, fastHistory.getHistory());
-        buffer.putFloat(6, (float) length);
-        buffer.putFloat(10, (float) headDirection);
-        buffer.putFloat(14, (float) targetDirection);
-        buffer.putFloat(18, (float) headPosition.x);
-        buffer.putFloat(22, (float) headPosition.y);
-        buffer.position(INFO_BYTE_SIZE);
+        final var buffer = ByteBuffer.allocate(INFO_BYTE_SIZE);
+        encodeInfo(buffer);
         return buffer.asReadOnlyBuffer().flip();
     }
 
+    /**
+     * Write the {@link #INFO_BYTE_SIZE} bytes of the snake info at the position of the given buffer.
+     */
+    public void encodeInfo(ByteBuffer buffer) {
+        buffer.putChar(id);
+        buffer.putChar(currentChunkId);
+        buffer.put(skin);
+        buffer.put(fastHistory.getHistory());
+        buffer.putFloat((float) getLength());
+        buffer.putFloat((float) getHeadDirection());
+        buffer.putFloat((float) states.targetDirection[id]);
+        buffer.putFloat((float) headPosition.x);
+        buffer.putFloat((float) headPosition.y);
+    }
+
     public void grow(double amount) {
         assert (amount > 0);
-        lengthBuffer += amount;
+        states.lengthBuffer[id] += amount;
     }
 
     public void shrink(double amount) {
         assert (amount > 0);
 
         // First take as much as we can from the length buffer.
-        final var bufferAmount = Math.min(lengthBuffer, amount);
-        lengthBuffer -= bufferAmount;
+        final var bufferAmount = Math.min(states.lengthBuffer[id], amount);
+        states.lengthBuffer[id] -= bufferAmount;
 
         // Subtract the remaining amount from the actual snake length.
+        final var length = getLength();
         final var snakeAmount = amount - bufferAmount;
         final var newLength = Math.max(config.snakes.minLength, length - snakeAmount);
         final var deltaLength = length - newLength;
-        length = newLength;
+        setLength(newLength);
 
         // Fill foodTrailBuffer if snake length has changed.
         final var smallFoodNutritionalValue = Food.Size.SMALL.nutritionalValue(config);
@@ -200,43 +318,100 @@ public class Snake {
     }
 
     private void spawnFoodAtTailPosition() {
-        Food.spawnAt(getTailPosition(), world, Food.Size.SMALL, skin);
+        final var tailPosition = getTailPosition();
+        updateWorld(() -> Food.spawnAt(tailPosition, world, Food.Size.SMALL, skin));
     }
 
     private void handleLengthChange(double snakeSpeed) {
-        final var lengthChange = Math.min(snakeSpeed, lengthBuffer);
+        final var lengthChange = Math.min(snakeSpeed, states.lengthBuffer[id]);
 
-        length += lengthChange;
-        lengthBuffer -= lengthChange;
+        states.setLength(id, getLength() + lengthChange);
+        states.lengthBuffer[id] -= lengthChange;
     }
 
     /**
-     * Get the snake width at a specific point.
+     * Get the snake width at a specific point. The width profile is cached whenever the length
+     * changes, so this only evaluates the cubic falloff.
      *
      * @param offset The path-distance from the snake head.
      * @return the snake width at the specified point
      */
     public double getWidthAt(double offset) {
         assert offset >= 0.0;
-
-        // the offset after which the snake starts getting thinner
-        final var thinningStart = Math.min(0.75, length * 0.025) * length;
+        final var thinningStart = states.thinningStart[id];
 
         if (offset <= thinningStart) {
-            return width;
+            return getWidth();
         }
 
         // thinning parameter: 0 -> thinning start, 1 -> snake end
-        final var t = (offset - thinningStart) / (length - thinningStart);
+        final var t = (offset - thinningStart) * states.inverseThinningLength[id];
+
+        // the product with the inverse may slightly exceed 1 at the tail
+        final var thinningFactor = Math.max(0.0, 1.0 - (t * t * t));
+        return thinningFactor * getWidth();
+    }
+
+    /**
+     * Get the bounding box of all {@link SnakeChunk}s of this snake.
+     */
+    public BoundingBox getBoundingBox() {
+        final var box = chunkTree.getBoundingBox();
+        return box == null ? currentChunk.getBoundingBox() : BoundingBox.union(box, currentChunk.getBoundingBox());
+    }
+
+    /**
+     * Check if the bounding box of any {@link SnakeChunk} of this snake intersects the given area.
+     */
+    public boolean intersects(BoundingBox area) {
+        return BoundingBox.intersect(currentChunk.getBoundingBox(), area) || chunkTree.anyIntersects(area);
+    }
+
+    /**
+     * Pass all non-junk {@link SnakeChunk}s whose bounding box is within the given range
+     * of a position to the consumer, starting at the head.
+     */
+    public void forEachChunkWithinRange(Vector position, double range, Consumer<? super SnakeChunk> consumer) {
+        if (currentChunk.getBoundingBox().isWithinRange(position, range)) {
+            consumer.accept(currentChunk);
+        }
+        chunkTree.forEachWithinRange(position, range, chunk -> {
+            if (!chunk.isJunk()) {
+                consumer.accept(chunk);
+            }
+        });
+    }
 
-        final var thinningFactor = 1.0 - (t * t * t);
-        return thinningFactor * width;
+    /**
+     * Return the storage of all chunks to the {@link SnakeChunkPool} of the world.
+     * Must only be called once the dead snake has been removed from the game and its chunks
+     * have been removed from the world. Chunks are released from the tail towards the head.
+     */
+    public void releaseChunks() {
+        assert !alive;
+        while (!chunks.isEmpty()) {
+            final var lastChunk = chunks.getLast();
+            chunks.removeLast();
+            chunkTree.removeLast(lastChunk);
+            lastChunk.release();
+        }
+        if (currentChunk != null) {
+            currentChunk.release();
+        }
+        world.getSnakeChunkPool().free(pathRing);
     }
 
     public Stream<SnakeChunk> streamSnakeChunks() {
         return Stream.concat(Stream.of(currentChunk), chunks.stream());
     }
 
+    /**
+     * Get the number of {@link SnakeChunk}s including the current chunk.
+     */
+    public int getNumberOfChunks() {
+        return chunks.size() + 1;
+    }
+
     List<SnakeChunk> getSnakeChunks() {
         return streamSnakeChunks().toList();
     }
@@ -266,11 +441,27 @@ public class Snake {
 
     public Vector getTailPosition() {
         final var lastSnakeChunk = chunks.isEmpty() ? currentChunk : chunks.getLast();
-        final var sp = lastSnakeChunk.getActivePathData()
-                .max(Comparator.comparing(SnakePathPoint::getOffsetInSnake));
+        final var points = lastSnakeChunk.getPathPoints();
+        final var n = points.size();
+        // path length within the chunk up to which points are behind the tail
+        final var junkLength = lastSnakeChunk.getOffset() + lastSnakeChunk.getDataLength() - getLength();
+
+        // The tail moves by about one point per tick, so starting at the previous
+        // result only a few points have to be looked at.
+        var i = tailCursorChunk == lastSnakeChunk ? Math.min(tailCursor, n) : 0;
+        while (i > 0 && points.getPathLength(i - 1) > junkLength) {
+            i--;
+        }
+        while (i < n && points.getPathLength(i) <= junkLength) {
+            i++;
+        }
+
+        tailCursorChunk = lastSnakeChunk;
+        tailCursor = i;
 
-        if (sp.isPresent()) {
-            return sp.get().point;
+        // the first active point is the one furthest away from the head
+        if (i < n) {
+            return new Vector(points.getX(i), points.getY(i));
         }
         return headPosition.clone();
     }
@@ -283,26 +474,32 @@ public class Snake {
      * </ul>
      */
     public Vector getPositionAt(double offset) {
-        if (offset < 0.0 || offset > length) {
+        if (offset < 0.0 || offset > getLength()) {
             return null;
         }
 
-        final var chunk = streamSnakeChunks()
-                .filter(snakeChunk -> {
-                    final var sco = snakeChunk.getOffset();
-                    return sco <= offset && offset <= sco + snakeChunk.getDataLength();
-                })
-                .findFirst();
+        if (offset <= currentChunk.getDataLength()) {
+            return currentChunk.getPositionAt(offset);
+        }
 
-        //noinspection OptionalIsPresent
-        if (chunk.isEmpty()) {
+        final var index = chunks.findByHeadDistance(headDistance - offset);
+        if (index == chunks.size() || chunks.get(index).getOffset() > offset) {
             // This might occur at the tail position. We could add a special case for that
-            // and return getTailPosition() instead but that is computationally more expensive
-            // and not necessary for the current use case (food spawning).
+            // and return getTailPosition() instead but that is not necessary for the
+            // current use case (food spawning).
             return null;
         }
 
-        return chunk.get().getPositionAt(offset);
+        return chunks.get(index).getPositionAt(offset);
+    }
+
+    /**
+     * Snakes are hashed by id, so hash-based collections of snakes iterate
+     * in the same order whenever a game is run again with the same seed.
+     */
+    @Override
+    public int hashCode() {
+        return id;
     }
 
     @Override
@@ -6,7 +6,6 @@ import lombok.Getter;
 import math.BoundingBox;
 import math.Vector;
 
-import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.stream.Stream;
@@ -49,6 +48,14 @@ public abstract class SnakeChunk implements Collidable {
 
     public abstract double getDataLength();
 
+    /**
+     * Get an upper bound of the snake width along this chunk. Snakes get thinner towards their
+     * tail, so this is the width at the end of the chunk closer to the head.
+     */
+    public double getMaxWidth() {
+        return snake.getWidthAt(Math.max(0.0, getOffset()));
+    }
+
     /**
      * The last snake chunk is often only partially used due to the snake length constraint.
      * {@code #getCurrentLength() <= getDataLength()}
@@ -58,16 +65,62 @@ public abstract class SnakeChunk implements Collidable {
     }
 
     /**
-     * Returns an unmodifiable view of this chunks path data ordered by distance from snake head ascending.
+     * Get the path points of this chunk, ordered from the end of the chunk towards the head.
+     * Can contain "junk" data (offset > length) at the start.
+     */
+    public abstract PathPoints getPathPoints();
+
+    /**
+     * Returns this chunks path data ordered by distance from snake head ascending.
      * Can contain "junk" data (offset > length) at the end.
+     * <p>
+     * The {@link SnakePathPoint}s are created on each call, performance-critical code should use
+     * {@link #getPathPoints()} or {@link #forEachActivePathPoint(PathPointConsumer)} instead.
+     */
+    protected List<SnakePathPoint> getPathData() {
+        final var points = getPathPoints();
+        final var n = points.size();
+        final var pathData = new SnakePathPoint[n];
+
+        for (int k = 0; k < n; k++) {
+            final var i = n - 1 - k;
+            pathData[k] = new SnakePathPoint(this, new Vector(points.getX(i), points.getY(i)), points.getPathLength(i));
+        }
+
+        return List.of(pathData);
+    }
+
+    /**
+     * Get the path of this chunk as straight segments, one per chain code.
      */
-    protected abstract List<SnakePathPoint> getPathData();
+    public abstract PathSegments getPathSegments();
 
     /**
      * Get a {@link Stream} of points of this {@link SnakeChunk} which are still part of the {@link Snake} (not junk).
      */
     public Stream<SnakePathPoint> getActivePathData() {
-        return getPathData().stream().filter(dataPoint -> dataPoint.getOffsetInSnake() < snake.length);
+        return getPathData().stream().filter(dataPoint -> dataPoint.getOffsetInSnake() < snake.getLength());
+    }
+
+    /**
+     * Pass all points of this {@link SnakeChunk} which are still part of the {@link Snake} (not junk)
+     * to the consumer, ordered by distance from snake head ascending. Unlike {@link #getActivePathData()}
+     * this does not allocate.
+     */
+    public void forEachActivePathPoint(PathPointConsumer consumer) {
+        final var points = getPathPoints();
+        final var end = getOffset() + getDataLength();
+
+        for (int i = points.size() - 1; i >= 0; i--) {
+            final var offsetInSnake = end - points.getPathLength(i);
+
+            if (offsetInSnake >= snake.getLength()) {
+                // all remaining points are even further away from the head
+                break;
+            }
+
+            consumer.accept(points.getX(i), points.getY(i), offsetInSnake);
+        }
     }
 
     public final boolean isJunk() {
@@ -97,56 +150,42 @@ public abstract class SnakeChunk implements Collidable {
 
     public abstract double getOffset();
 
-    protected Vector getPositionAt(double inSnakeOffset, List<SnakePathPoint> pathData, @Nullable PointQueryInfo info) {
+    /**
+     * Find the path point closest to the requested offset by binary search over the path lengths.
+     * @param inSnakeOffset must be in range of this chunk's offset bounds.
+     */
+    public Vector getPositionAt(double inSnakeOffset) {
+        final var dataLength = getDataLength();
         final var inChunkOffset = inSnakeOffset - getOffset();
-        assert 0.0 <= inChunkOffset && inChunkOffset <= getDataLength();
-
-        double minError = Double.POSITIVE_INFINITY;
-        Vector bestPoint = null;
-        double bestOffset = Double.NaN;
-        int bestIndex = -1;
-
-        // Iterate over path data.
-        int index = -1;
-        for (final var pd : pathData) {
-            index++;
-
-            final var offset = pd.getOffsetInChunk();
-            final var error = Math.abs(inChunkOffset - offset);
-
-            if (error > minError) {
-                // pathData list is ordered, so it's only going to get worse.
-                break;
-            }
+        // offsets are differences of head distances and can be off by rounding errors at the bounds
+        assert -1e-6 <= inChunkOffset && inChunkOffset <= dataLength + 1e-6;
 
-            if (error < minError) {
-                // Update our currently best result.
-                minError = error;
-                bestPoint = pd.point;
-                bestIndex = index;
-                bestOffset = offset;
-            }
-        }
-
-        if (bestPoint == null) {
+        final var points = getPathPoints();
+        final var n = points.size();
+        if (n == 0) {
             throw new IllegalStateException("Failed to find a point at that position.");
         }
 
-        if (info != null) {
-            // Store values to speed up future queries.
-            info.index = bestIndex;
-            info.offset = bestOffset;
+        // find the first point at or after the requested position
+        final var pathLength = dataLength - clamp(inChunkOffset, 0.0, dataLength);
+        int low = 0;
+        int high = n - 1;
+        while (low < high) {
+            final var mid = (low + high) >>> 1;
+            if (points.getPathLength(mid) < pathLength) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
 
-        return bestPoint;
-    }
+        // the point before might be closer, ties go to the point closer to the head
+        var i = low;
+        if (i > 0 && pathLength - points.getPathLength(i - 1) < Math.abs(points.getPathLength(i) - pathLength)) {
+            i--;
+        }
 
-    /**
-     * Find the {@link SnakePathPoint} closest to the requested offset.
-     * @param inSnakeOffset must be in range of this chunk's offset bounds.
-     */
-    public Vector getPositionAt(double inSnakeOffset) {
-        return getPositionAt(inSnakeOffset, getPathData(), null);
+        return new Vector(points.getX(i), points.getY(i));
     }
 
     @Override
@@ -154,8 +193,8 @@ public abstract class SnakeChunk implements Collidable {
         return getUniqueId();
     }
 
-    public static final class PointQueryInfo {
-        public int index;
-        public double offset;
+    @FunctionalInterface
+    public interface PathPointConsumer {
+        void accept(double x, double y, double offsetInSnake);
     }
 }
@@ -0,0 +1,99 @@
+package game.snake;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The {@link FinalSnakeChunk}s of a snake in a circular array, ordered from the head towards the
+ * tail. Chunks are added at the head and removed at the tail in constant time and can be accessed
+ * by index, which allows finding the chunk at a given offset by binary search.
+ * <p>
+ * The head distance of a chunk (see {@link FinalSnakeChunk#getHeadDistance()}) is the prefix sum of
+ * the data lengths of all chunks up to and including it, so the chunks are sorted by head distance
+ * and by {@code headDistance - dataLength}, the head distance at their tail-side end.
+ */
+final class SnakeChunkList {
+    private FinalSnakeChunk[] chunks = new FinalSnakeChunk[16];
+    private int mask = chunks.length - 1;
+    /**
+     * Position of the chunk closest to the head.
+     */
+    private int first = 0;
+    private int size = 0;
+
+    void addFirst(FinalSnakeChunk chunk) {
+        if (size == chunks.length) {
+            grow();
+        }
+
+        first = (first - 1) & mask;
+        chunks[first] = chunk;
+        size++;
+    }
+
+    FinalSnakeChunk removeLast() {
+        assert size > 0;
+        final var i = (first + size - 1) & mask;
+        final var chunk = chunks[i];
+        chunks[i] = null;
+        size--;
+        return chunk;
+    }
+
+    /**
+     * Get a chunk, counted from the head.
+     */
+    FinalSnakeChunk get(int index) {
+        assert 0 <= index && index < size;
+        return chunks[(first + index) & mask];
+    }
+
+    FinalSnakeChunk getLast() {
+        return get(size - 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    Stream<FinalSnakeChunk> stream() {
+        return IntStream.range(0, size).mapToObj(this::get);
+    }
+
+    /**
+     * Find the chunk closest to the head whose tail-side end lies at or behind the given head distance.
+     *
+     * @return the index of the chunk or {@link #size()} if there is no such chunk
+     */
+    int findByHeadDistance(double headDistance) {
+        int low = 0;
+        int high = size;
+
+        while (low < high) {
+            final var mid = (low + high) >>> 1;
+            final var chunk = get(mid);
+
+            if (chunk.getHeadDistance() - chunk.getDataLength() <= headDistance) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return low;
+    }
+
+    private void grow() {
+        final var grown = new FinalSnakeChunk[2 * chunks.length];
+        for (int i = 0; i < size; i++) {
+            grown[i] = get(i);
+        }
+        chunks = grown;
+        mask = grown.length - 1;
+        first = 0;
+    }
+}
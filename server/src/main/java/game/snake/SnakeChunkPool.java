@@ -0,0 +1,83 @@
+package game.snake;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-world storage for the geometry of snake chunks. {@link PathSegments} live in fixed-size slots
+ * of large slabs instead of three arrays per chunk, and the {@link PathRing}s of removed snakes get
+ * reused by new snakes. Storage returns to the pool when a chunk gets removed from the tail of its
+ * snake and when a dead snake gets removed from the game, so constant chunk churn does not create
+ * garbage.
+ * <p>
+ * The encoded chunk buffers are not pooled: snapshots share the buffers of final chunks with
+ * client threads, which encode them at any later time.
+ * <p>
+ * Chunks are created and removed while snakes move in parallel, so all methods are synchronized.
+ * This happens once per chunk and not once per tick, so there is no noticeable contention.
+ */
+public final class SnakeChunkPool {
+    static final int SLOTS_PER_SLAB = 64;
+    /**
+     * Rings beyond this number are left to the garbage collector.
+     */
+    static final int MAX_POOLED_RINGS = 64;
+    private final List<double[]> slabs = new ArrayList<>();
+    private int[] freeSlots = new int[SLOTS_PER_SLAB];
+    private int numberOfFreeSlots = 0;
+    private final ArrayDeque<PathRing> rings = new ArrayDeque<>();
+
+    synchronized PathSegments allocateSegments(double startX, double startY) {
+        if (numberOfFreeSlots == 0) {
+            addSlab();
+        }
+
+        final var slot = freeSlots[--numberOfFreeSlots];
+        final var slab = slabs.get(slot / SLOTS_PER_SLAB);
+        final var base = (slot % SLOTS_PER_SLAB) * PathSegments.SLOT_SIZE;
+        return new PathSegments(slab, slot, base, startX, startY);
+    }
+
+    synchronized void free(PathSegments segments) {
+        segments.clear();
+        freeSlots[numberOfFreeSlots++] = segments.slot;
+    }
+
+    synchronized PathRing allocateRing() {
+        final var ring = rings.poll();
+        return ring == null ? new PathRing() : ring;
+    }
+
+    /**
+     * Return a ring whose points have all been released.
+     */
+    synchronized void free(PathRing ring) {
+        if (rings.size() < MAX_POOLED_RINGS) {
+            ring.reset();
+            rings.push(ring);
+        }
+    }
+
+    /**
+     * Get the number of segment slots that are in use.
+     */
+    public synchronized int getNumberOfUsedSlots() {
+        return slabs.size() * SLOTS_PER_SLAB - numberOfFreeSlots;
+    }
+
+    private void addSlab() {
+        final var firstSlot = slabs.size() * SLOTS_PER_SLAB;
+        slabs.add(new double[SLOTS_PER_SLAB * PathSegments.SLOT_SIZE]);
+
+        if (freeSlots.length < slabs.size() * SLOTS_PER_SLAB) {
+            freeSlots = Arrays.copyOf(freeSlots, slabs.size() * SLOTS_PER_SLAB);
+        }
+
+        // hand out lower slots first
+        for (int i = SLOTS_PER_SLAB - 1; i >= 0; i--) {
+            freeSlots[numberOfFreeSlots++] = firstSlot + i;
+        }
+    }
+}
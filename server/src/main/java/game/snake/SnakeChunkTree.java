@@ -0,0 +1,138 @@
+package game.snake;
+
+import math.BoundingBox;
+import math.Vector;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * A two-level bounding volume hierarchy over the {@link FinalSnakeChunk}s of a snake. Chunks are
+ * grouped into runs of {@link #GROUP_SIZE} consecutive chunks with a common bounding box, and the
+ * tree caches the box of all groups. As chunks are only added at the head and removed at the tail,
+ * updates are incremental: adding a chunk extends the head group and removing one only recomputes
+ * the box of the tail group.
+ * <p>
+ * Queries reject a whole snake with a single box test and only look at the chunks of groups
+ * that pass. The current {@link GrowingSnakeChunk} is not part of the tree as its box changes
+ * every tick, see {@link Snake#getBoundingBox()}.
+ */
+final class SnakeChunkTree {
+    static final int GROUP_SIZE = 8;
+    /**
+     * Groups ordered from head to tail.
+     */
+    private final ArrayDeque<Group> groups = new ArrayDeque<>();
+    @Nullable private BoundingBox box;
+
+    /**
+     * Add a new chunk at the head of the snake.
+     */
+    void addFirst(FinalSnakeChunk chunk) {
+        var group = groups.peekFirst();
+        if (group == null || group.isFull()) {
+            group = new Group();
+            groups.addFirst(group);
+        }
+        group.add(chunk);
+        box = box == null ? chunk.getBoundingBox() : BoundingBox.union(box, chunk.getBoundingBox());
+    }
+
+    /**
+     * Remove the chunk at the tail of the snake.
+     */
+    void removeLast(FinalSnakeChunk chunk) {
+        final var group = groups.getLast();
+        group.removeOldest(chunk);
+
+        if (group.isEmpty()) {
+            groups.removeLast();
+        }
+
+        box = groups.stream().map(g -> g.box).reduce(BoundingBox::union).orElse(null);
+    }
+
+    /**
+     * The bounding box of all chunks in the tree or {@code null} if the tree is empty.
+     */
+    @Nullable
+    BoundingBox getBoundingBox() {
+        return box;
+    }
+
+    boolean anyIntersects(BoundingBox area) {
+        if (box == null || !BoundingBox.intersect(box, area)) {
+            return false;
+        }
+
+        for (final var group : groups) {
+            if (!BoundingBox.intersect(group.box, area)) {
+                continue;
+            }
+
+            for (int i = group.oldest; i < group.size; i++) {
+                if (BoundingBox.intersect(group.chunks[i].getBoundingBox(), area)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    void forEachWithinRange(Vector position, double range, Consumer<? super FinalSnakeChunk> consumer) {
+        if (box == null || !box.isWithinRange(position, range)) {
+            return;
+        }
+
+        for (final var group : groups) {
+            if (!group.box.isWithinRange(position, range)) {
+                continue;
+            }
+
+            for (int i = group.size - 1; i >= group.oldest; i--) {
+                final var chunk = group.chunks[i];
+                if (chunk.getBoundingBox().isWithinRange(position, range)) {
+                    consumer.accept(chunk);
+                }
+            }
+        }
+    }
+
+    /**
+     * Consecutive chunks, the newest one is at the highest index.
+     */
+    private static final class Group {
+        private final FinalSnakeChunk[] chunks = new FinalSnakeChunk[GROUP_SIZE];
+        private int oldest = 0;
+        private int size = 0;
+        private BoundingBox box;
+
+        void add(FinalSnakeChunk chunk) {
+            assert !isFull();
+            chunks[size++] = chunk;
+            box = box == null ? chunk.getBoundingBox() : BoundingBox.union(box, chunk.getBoundingBox());
+        }
+
+        void removeOldest(FinalSnakeChunk chunk) {
+            assert chunks[oldest] == chunk : "Chunks must be removed at the tail";
+            chunks[oldest++] = null;
+
+            if (!isEmpty()) {
+                box = chunks[oldest].getBoundingBox();
+                for (int i = oldest + 1; i < size; i++) {
+                    box = BoundingBox.union(box, chunks[i].getBoundingBox());
+                }
+            }
+        }
+
+        boolean isFull() {
+            return size == GROUP_SIZE;
+        }
+
+        boolean isEmpty() {
+            return oldest == size;
+        }
+    }
+}
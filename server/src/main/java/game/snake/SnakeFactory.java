@@ -4,30 +4,23 @@ import game.world.World;
 import math.Direction;
 import math.Vector;
 
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
-import java.util.concurrent.ThreadLocalRandom;
-
 public class SnakeFactory {
-    private static final Map<World, Integer> nextSnakeIds = Collections.synchronizedMap(new WeakHashMap<>(1));
-
     private SnakeFactory() {
     }
 
     public static Snake createSnake(Vector position, World world, String name) {
-        final double direction = Direction.getRandom(ThreadLocalRandom.current());
+        final double direction = Direction.getRandom(world.getRandom());
         return createSnake(position, direction, world, name);
     }
 
     public static Snake createSnake(Vector position, double direction, World world, String name) {
-        final var id = generateSnakeId(world);
-        final var snake = new Snake(id, world, name, pickSnakeSkin());
+        final var id = world.getSnakeRegistry().allocateId();
+        final var snake = new Snake(id, world, name, pickSnakeSkin(world));
+        world.getSnakeRegistry().register(snake);
 
         // start position & rotation
-        snake.headPosition = position.clone();
-        snake.headDirection = direction;
-        snake.setTargetDirection(snake.headDirection);
+        snake.setHead(position, direction);
+        snake.setTargetDirection(direction);
         snake.beginChunk();
 
         world.addSnake(snake);
@@ -36,7 +29,8 @@ public class SnakeFactory {
     }
 
     public static BoundarySnake createBoundarySnake(World world) {
-        final var snake = new BoundarySnake(generateSnakeId(world), world);
+        final var snake = new BoundarySnake(world.getSnakeRegistry().allocateId(), world);
+        world.getSnakeRegistry().register(snake);
 
         snake.beginChunk();
         world.addSnake(snake);
@@ -49,25 +43,8 @@ public class SnakeFactory {
         return snake;
     }
 
-    private static char generateSnakeId(World world) {
-        final int intId = nextSnakeIds.compute(world, (w, oldId) -> {
-            if (oldId == null) {
-                return 42;
-            }
-
-            if (oldId == -1) {
-                // 0 is a special value reserved for later use as null
-                return 1;
-            }
-
-            return oldId + 1;
-        });
-
-        return (char) intId;
-    }
-
-    private static byte pickSnakeSkin() {
-        return (byte) ThreadLocalRandom.current().nextInt(Snake.NUMBER_OF_SKINS);
+    private static byte pickSnakeSkin(World world) {
+        return (byte) world.getRandom().nextInt(Snake.NUMBER_OF_SKINS);
     }
 
 }
@@ -2,12 +2,16 @@ package game.snake;
 
 import math.Vector;
 
+/**
+ * A path point of a {@link SnakeChunk}. Chunks store their points in {@link PathPoints},
+ * instances of this class are only created on demand, see {@link SnakeChunk#getPathData()}.
+ */
 public final class SnakePathPoint {
     public final Vector point;
     private final double localPathLength;
-    private SnakeChunk snakeChunk;
+    private final SnakeChunk snakeChunk;
 
-    public SnakePathPoint(GrowingSnakeChunk snakeChunk, Vector point, double localPathLength) {
+    public SnakePathPoint(SnakeChunk snakeChunk, Vector point, double localPathLength) {
         assert snakeChunk != null;
 
         this.snakeChunk = snakeChunk;
@@ -32,9 +36,4 @@ public final class SnakePathPoint {
         final var offset = getOffsetInSnake();
         return snakeChunk.getSnake().getWidthAt(offset);
     }
-
-    public void setFinalSnakeChunk(FinalSnakeChunk snakeChunk) {
-        assert this.snakeChunk instanceof GrowingSnakeChunk;
-        this.snakeChunk = snakeChunk;
-    }
 }
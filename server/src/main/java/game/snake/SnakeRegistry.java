@@ -0,0 +1,150 @@
+package game.snake;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * All snakes of a {@link game.world.World} by id. Ids are dense: the ids of removed snakes get reused,
+ * so tables keyed by id stay small and ids do not run out on long-running servers.
+ * <p>
+ * Freed ids are held back for a number of ticks before they get reused, oldest first. Clients learn
+ * about the death of a snake by a separate message and must have processed it before they receive a
+ * new snake with the same id, otherwise they would remove the new snake. Only if all other ids are
+ * in use, a freed id gets reused before its delay has passed.
+ * <p>
+ * Each id has a generation which is incremented whenever the id is freed, so an id together with
+ * a generation identifies a snake even after the id has been reused, see {@link #get(char, int)}.
+ * <p>
+ * Snakes are created and removed by the simulation lane only, but methods are synchronized,
+ * so other threads can look up snakes as well.
+ */
+public final class SnakeRegistry {
+    /**
+     * Ids are sent to clients as {@code char}s. 0 is reserved for later use as null.
+     */
+    public static final int MAX_ID = Character.MAX_VALUE;
+    private Snake[] snakes = new Snake[64];
+    private int[] generations = new int[64];
+    /**
+     * The number of ticks a freed id is held back.
+     */
+    private final int idReuseDelay;
+    /**
+     * Queue of freed ids, oldest first, and the ticks at which they have been freed.
+     */
+    private char[] freeIds = new char[64];
+    private long[] freedAt = new long[64];
+    private int firstFreeId = 0;
+    private int numberOfFreeIds = 0;
+    private int nextNewId = 1;
+    private int numberOfSnakes = 0;
+    private long currentTick = 0;
+
+    /**
+     * @param idReuseDelay the number of ticks a freed id is held back
+     */
+    public SnakeRegistry(int idReuseDelay) {
+        assert idReuseDelay >= 0;
+        this.idReuseDelay = idReuseDelay;
+    }
+
+    /**
+     * Set the current tick of the game, which decides when freed ids can be reused.
+     */
+    public synchronized void setCurrentTick(long tick) {
+        assert tick >= currentTick;
+        currentTick = tick;
+    }
+
+    /**
+     * Get an id for a new snake. The snake must be {@link #register(Snake) registered} afterwards.
+     *
+     * @throws IllegalStateException if all ids are in use
+     */
+    synchronized char allocateId() {
+        final var outOfNewIds = nextNewId > MAX_ID;
+        if (numberOfFreeIds > 0 && (outOfNewIds || currentTick - freedAt[firstFreeId] >= idReuseDelay)) {
+            final var id = freeIds[firstFreeId];
+            firstFreeId = (firstFreeId + 1) % freeIds.length;
+            numberOfFreeIds--;
+            return id;
+        }
+
+        if (outOfNewIds) {
+            throw new IllegalStateException("All snake ids are in use.");
+        }
+
+        if (nextNewId == snakes.length) {
+            final var capacity = Math.min(2 * snakes.length, MAX_ID + 1);
+            snakes = Arrays.copyOf(snakes, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+        }
+
+        return (char) nextNewId++;
+    }
+
+    synchronized void register(Snake snake) {
+        assert snake.id > 0 && snake.id < nextNewId;
+        assert snakes[snake.id] == null : "Snake id is in use";
+
+        snakes[snake.id] = snake;
+        snake.generation = generations[snake.id];
+        numberOfSnakes++;
+    }
+
+    /**
+     * Remove a snake and free its id. Must only be called once the snake has been removed from the game.
+     */
+    public synchronized void remove(Snake snake) {
+        if (snakes[snake.id] != snake) {
+            throw new IllegalArgumentException("Snake " + (int) snake.id + " is not registered.");
+        }
+
+        snakes[snake.id] = null;
+        generations[snake.id]++;
+        numberOfSnakes--;
+
+        if (numberOfFreeIds == freeIds.length) {
+            final var grownIds = new char[2 * freeIds.length];
+            final var grownTicks = new long[2 * freeIds.length];
+            for (int i = 0; i < numberOfFreeIds; i++) {
+                grownIds[i] = freeIds[(firstFreeId + i) % freeIds.length];
+                grownTicks[i] = freedAt[(firstFreeId + i) % freeIds.length];
+            }
+            freeIds = grownIds;
+            freedAt = grownTicks;
+            firstFreeId = 0;
+        }
+        final var last = (firstFreeId + numberOfFreeIds) % freeIds.length;
+        freeIds[last] = snake.id;
+        freedAt[last] = currentTick;
+        numberOfFreeIds++;
+    }
+
+    /**
+     * Get the snake with the given id or {@code null} if there is none.
+     */
+    @Nullable
+    public synchronized Snake get(char id) {
+        return id < nextNewId ? snakes[id] : null;
+    }
+
+    /**
+     * Get the snake with the given id and generation or {@code null} if the snake has been removed.
+     */
+    @Nullable
+    public synchronized Snake get(char id, int generation) {
+        return id < nextNewId && generations[id] == generation ? snakes[id] : null;
+    }
+
+    /**
+     * Get an upper bound of all ids handed out so far, which is the size a table needs to be indexed by id.
+     */
+    public synchronized int getIdLimit() {
+        return nextNewId;
+    }
+
+    public synchronized int size() {
+        return numberOfSnakes;
+    }
+}
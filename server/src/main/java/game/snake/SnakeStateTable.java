@@ -0,0 +1,152 @@
+package game.snake;
+
+import game.GameConfig;
+import math.Direction;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static math.MathFunctions.sigmoid;
+
+/**
+ * The kinematic state of all snakes of a {@link game.world.World} as a struct of arrays indexed by
+ * snake id, see {@link SnakeRegistry}. A {@link Snake} does not hold this state itself but reads
+ * and writes its entries of this table.
+ * <p>
+ * Each tick, {@link #steer(List)} samples the direction change and moves the head of all snakes
+ * in a single loop over the primitive arrays. Afterwards, each snake updates its length and its
+ * chunks, see {@link Snake#advance()}. Arrays only grow when snakes get created, which never
+ * happens while snakes move, so snakes can update their entries in parallel.
+ */
+public final class SnakeStateTable {
+    private final GameConfig config;
+    private final ChainCodeCoder coder;
+    double[] headX = new double[64];
+    double[] headY = new double[64];
+    double[] headDirection = new double[64];
+    /**
+     * The unit vector of the head direction (x, y interleaved) and the number of rotations since it has
+     * been computed from the head direction, see {@link ChainCodeCoder#rotate(double[], int, int, int)}.
+     * It gets recomputed whenever a snake begins a new chunk, so heads move exactly along the path of
+     * their current chunk.
+     */
+    double[] headDirectionVector = new double[128];
+    int[] rotations = new int[64];
+    double[] targetDirection = new double[64];
+    double[] length = new double[64];
+    /**
+     * Food that has been eaten but not yet been turned into length.
+     */
+    double[] lengthBuffer = new double[64];
+    double[] width = new double[64];
+    /**
+     * The width profile: the offset after which a snake starts getting thinner and the inverse of the
+     * length of the thinning part. Updated whenever the length changes, see {@link Snake#getWidthAt(double)}.
+     */
+    double[] thinningStart = new double[64];
+    double[] inverseThinningLength = new double[64];
+    boolean[] wantsFast = new boolean[64];
+    /**
+     * Results of the last {@link #steer(List)}: whether the snake moves fast and the encoded direction change.
+     */
+    boolean[] fast = new boolean[64];
+    int[] directionChange = new int[64];
+
+    public SnakeStateTable(GameConfig config) {
+        this.config = config;
+        this.coder = new ChainCodeCoder(config);
+    }
+
+    /**
+     * Reset the entry of a new snake.
+     */
+    void add(char id) {
+        if (id >= length.length) {
+            final var capacity = Math.max(2 * length.length, id + 1);
+            headX = Arrays.copyOf(headX, capacity);
+            headY = Arrays.copyOf(headY, capacity);
+            headDirection = Arrays.copyOf(headDirection, capacity);
+            headDirectionVector = Arrays.copyOf(headDirectionVector, 2 * capacity);
+            rotations = Arrays.copyOf(rotations, capacity);
+            targetDirection = Arrays.copyOf(targetDirection, capacity);
+            length = Arrays.copyOf(length, capacity);
+            lengthBuffer = Arrays.copyOf(lengthBuffer, capacity);
+            width = Arrays.copyOf(width, capacity);
+            thinningStart = Arrays.copyOf(thinningStart, capacity);
+            inverseThinningLength = Arrays.copyOf(inverseThinningLength, capacity);
+            wantsFast = Arrays.copyOf(wantsFast, capacity);
+            fast = Arrays.copyOf(fast, capacity);
+            directionChange = Arrays.copyOf(directionChange, capacity);
+        }
+
+        headX[id] = 0.0;
+        headY[id] = 0.0;
+        resetDirection(id, 0.0);
+        targetDirection[id] = 0.0;
+        setLength(id, config.snakes.startLength);
+        lengthBuffer[id] = 0.0;
+        wantsFast[id] = false;
+        fast[id] = false;
+        directionChange[id] = 0;
+        updateWidth(id);
+    }
+
+    /**
+     * Turn the given snakes towards their target direction and move their heads.
+     * Each snake has to {@link Snake#advance()} afterwards.
+     */
+    public void steer(List<Snake> snakes) {
+        for (final var snake : snakes) {
+            steer(snake.id);
+        }
+    }
+
+    void steer(int i) {
+        final var isFast = wantsFast[i] && length[i] > config.snakes.minLength;
+        final var change = coder.sampleDirectionChange(targetDirection[i], headDirection[i], width[i]);
+        final var speed = isFast ? config.snakes.fastSpeed : config.snakes.speed;
+
+        fast[i] = isFast;
+        directionChange[i] = change;
+        if (change != 0) {
+            headDirection[i] = Direction.normalize(headDirection[i] + coder.decodeDirectionChange(change));
+            coder.rotate(headDirectionVector, 2 * i, change, ++rotations[i]);
+        }
+        headX[i] += headDirectionVector[2 * i] * speed;
+        headY[i] += headDirectionVector[2 * i + 1] * speed;
+    }
+
+    /**
+     * Set the head direction and recompute its unit vector.
+     */
+    void resetDirection(int i, double direction) {
+        headDirection[i] = direction;
+        headDirectionVector[2 * i] = Math.cos(direction);
+        headDirectionVector[2 * i + 1] = Math.sin(direction);
+        rotations[i] = 0;
+    }
+
+    void setLength(int i, double value) {
+        length[i] = value;
+
+        // the offset after which the snake starts getting thinner
+        final var start = Math.min(0.75, value * 0.025) * value;
+        thinningStart[i] = start;
+        inverseThinningLength[i] = 1.0 / (value - start);
+    }
+
+    /**
+     * Update the width of a snake after its length has changed.
+     */
+    void updateWidth(int i) {
+        // x in [0,1]
+        final var x = (length[i] - config.snakes.minLength) / (Snake.LENGTH_FOR_95_PERCENT_OF_MAX_WIDTH - config.snakes.minLength);
+
+        final var maxWidthGain = config.snakes.maxWidth - config.snakes.minWidth;
+
+        // 2 * (sigmoid(3.66) - 0.5) is roughly  0.95
+        final var gain = 2.0 * (sigmoid(3.66 * x) - 0.5);
+
+        width[i] = config.snakes.minWidth + gain * maxWidthGain;
+    }
+}
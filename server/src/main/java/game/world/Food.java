@@ -4,28 +4,23 @@ import game.GameConfig;
 import math.Vector;
 import util.ByteUtilities;
 
-import java.nio.ByteBuffer;
 import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
-
-import static util.ByteUtilities.toNormalizedDouble;
 
+/**
+ * A food item. Food is stored in the {@link FoodTable} of its {@link WorldChunk}, instances of this
+ * class are only created as readonly views, see {@link WorldChunk#streamFood()}.
+ */
 public final class Food {
     public static final int BYTE_SIZE = 3;
 
     public final Vector position;
     public final Size size;
     public final byte color;
-    private final byte byteX, byteY;
 
-    private Food(WorldChunk chunk, byte bx, byte by, Size size, byte color) {
-        final var dx = chunk.box.minX + toNormalizedDouble(bx) * chunk.box.getWidth();
-        final var dy = chunk.box.minY + toNormalizedDouble(by) * chunk.box.getHeight();
-        this.position = new Vector(dx, dy);
-        this.byteX = bx;
-        this.byteY = by;
-        this.color = color;
+    Food(Vector position, Size size, byte color) {
+        this.position = position;
         this.size = size;
+        this.color = color;
     }
 
     /**
@@ -33,21 +28,19 @@ public final class Food {
      */
     public static void spawnAt(Vector position, World world, Size size, byte color) {
         final var chunk = world.chunks.findChunk(position);
-        final var food = new Food(
-                chunk,
+        chunk.addFood(
                 ByteUtilities.fromNormalizedDoubleToByte((position.x - chunk.box.minX) / chunk.box.getWidth()),
                 ByteUtilities.fromNormalizedDoubleToByte((position.y - chunk.box.minY) / chunk.box.getHeight()),
                 size,
                 color
         );
-        chunk.addFood(food);
     }
 
     /**
      * Spawn food at a random position within the given chunk.
      */
     public static void spawnAt(WorldChunk chunk) {
-        Random rand = ThreadLocalRandom.current();
+        Random rand = chunk.getWorld().getRandom();
 
         // Generate random position.
         final var bytePosition = new byte[2];
@@ -67,27 +60,8 @@ public final class Food {
             size = Size.SMALL;
         }
 
-        // Create food and add to world.
-        final var food = new Food(chunk, bytePosition[0], bytePosition[1], size, color);
-        chunk.addFood(food);
-    }
-
-    /**
-     * Return {@code true} if this food item has a distance less than or equal to
-     * {@code range} from the given point {@code p}.
-     */
-    public boolean isWithinRange(Vector p, double range) {
-        range += size.radius;
-        return Vector.distance2(position, p) <= range * range;
-    }
-
-    void addToByteBuffer(ByteBuffer buffer) {
-        buffer.put(byteX);
-        buffer.put(byteY);
-
-        int colorAndSizeData = (size.byteValue << 6) | color;
-        assert colorAndSizeData < 256;
-        buffer.put((byte) colorAndSizeData);
+        // Add food to world.
+        chunk.addFood(bytePosition[0], bytePosition[1], size, color);
     }
 
     public enum Size {
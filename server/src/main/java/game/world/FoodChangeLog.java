@@ -0,0 +1,74 @@
+package game.world;
+
+/**
+ * A ring of the most recent changes of the food of a {@link WorldChunk}. Each change is encoded
+ * in {@link Food#BYTE_SIZE} bytes: an added item is encoded as usual, the removal of the item with
+ * index i is encoded as i (16 bit) followed by {@link FoodChanges#REMOVAL}. Removals move the last
+ * item into the place of the removed one, see {@link FoodTable#remove(int)}.
+ * <p>
+ * Changes are recorded together with the food version they lead to. Once the ring is full,
+ * the oldest changes get overwritten and clients that know an older version need the whole food.
+ */
+final class FoodChangeLog {
+    static final int CAPACITY = 256;
+    private final byte[] changes = new byte[CAPACITY * Food.BYTE_SIZE];
+    private final int[] versions = new int[CAPACITY];
+    private int next = 0;
+    private int size = 0;
+    /**
+     * All changes that lead to versions after this version are retained.
+     */
+    private int baseVersion = 0;
+
+    void recordAddition(int version, byte bx, byte by, byte colorAndSize) {
+        record(version, bx, by, colorAndSize);
+    }
+
+    void recordRemoval(int version, int index) {
+        assert index <= WorldChunk.MAX_ENCODED_FOOD;
+        record(version, (byte) (index >> 8), (byte) index, FoodChanges.REMOVAL);
+    }
+
+    /**
+     * Forget all changes, e.g. for changes that cannot be expressed in this log.
+     *
+     * @param version the version after which changes are retained again
+     */
+    void reset(int version) {
+        size = 0;
+        baseVersion = version;
+    }
+
+    private void record(int version, byte b0, byte b1, byte b2) {
+        if (size == CAPACITY) {
+            // overwrite the oldest change
+            baseVersion = versions[next];
+        } else {
+            size++;
+        }
+
+        versions[next] = version;
+        final var i = next * Food.BYTE_SIZE;
+        changes[i] = b0;
+        changes[i + 1] = b1;
+        changes[i + 2] = b2;
+        next = (next + 1) % CAPACITY;
+    }
+
+    /**
+     * Copy the retained changes, ordered from the oldest to the most recent one.
+     */
+    FoodChanges capture(WorldChunk chunk) {
+        final var capturedVersions = new int[size];
+        final var capturedChanges = new byte[size * Food.BYTE_SIZE];
+        final var oldest = (next - size + CAPACITY) % CAPACITY;
+
+        for (int k = 0; k < size; k++) {
+            final var i = (oldest + k) % CAPACITY;
+            capturedVersions[k] = versions[i];
+            System.arraycopy(changes, i * Food.BYTE_SIZE, capturedChanges, k * Food.BYTE_SIZE, Food.BYTE_SIZE);
+        }
+
+        return new FoodChanges(chunk.getX(), chunk.getY(), baseVersion, capturedVersions, capturedChanges);
+    }
+}
@@ -0,0 +1,67 @@
+package game.world;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Captured recent changes of the food of a {@link WorldChunk}, see {@link FoodChangeLog}. Instances
+ * do not change anymore, so they can be used by any thread.
+ * <p>
+ * Changes get encoded like the whole food of a chunk, see {@link WorldChunk#getEncodedFoodData()},
+ * but with {@link #DELTA_FLAG} set in the item count and changes instead of food items.
+ * A client applies the changes in order to the food it knows.
+ */
+public final class FoodChanges {
+    public static final int DELTA_FLAG = 0x8000;
+    /**
+     * The third byte of a removal. Added items never have it, as there is no size with byte value 3.
+     */
+    static final byte REMOVAL = (byte) (3 << 6);
+    private final byte chunkX, chunkY;
+    private final int baseVersion;
+    private final int[] versions;
+    private final byte[] changes;
+
+    FoodChanges(byte chunkX, byte chunkY, int baseVersion, int[] versions, byte[] changes) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        this.baseVersion = baseVersion;
+        this.versions = versions;
+        this.changes = changes;
+    }
+
+    /**
+     * Get the number of changes from the given version to the most recent version.
+     *
+     * @return -1 if changes since the given version are no longer known
+     */
+    public int countSince(int knownVersion) {
+        if (knownVersion < baseVersion) {
+            return -1;
+        }
+
+        int n = 0;
+        while (n < versions.length && versions[versions.length - 1 - n] > knownVersion) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Encode the changes from the given version to the most recent version.
+     *
+     * @param n the number of changes, see {@link #countSince(int)}
+     */
+    public ByteBuffer encodeSince(int knownVersion, int n) {
+        assert n >= 0 && n == countSince(knownVersion);
+        assert n < DELTA_FLAG;
+
+        final var buffer = ByteBuffer.allocate(WorldChunk.FOOD_HEADER_SIZE + n * Food.BYTE_SIZE);
+        buffer.put(chunkX);
+        buffer.put(chunkY);
+        buffer.putChar((char) (DELTA_FLAG | n));
+        buffer.put(changes, changes.length - n * Food.BYTE_SIZE, n * Food.BYTE_SIZE);
+        assert !buffer.hasRemaining();
+
+        return buffer.asReadOnlyBuffer().flip();
+    }
+}
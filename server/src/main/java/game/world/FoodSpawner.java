@@ -0,0 +1,114 @@
+package game.world;
+
+import java.util.Arrays;
+
+/**
+ * Picks the {@link WorldChunk}s that food gets spawned in: the chunks with the least food, as long as
+ * they hold less than {@link #FOOD_THRESHOLD} food items.
+ * <p>
+ * Chunks below the threshold are kept in a bucket queue keyed by their food count. Each bucket is a
+ * doubly linked list of chunk slots in {@link #next} and {@link #previous}. A chunk moves between buckets
+ * whenever its food changes, so picking chunks does not have to look at all chunks of the world.
+ */
+final class FoodSpawner {
+    static final int FOOD_THRESHOLD = 16;
+    private static final int NONE = -1;
+    private final WorldChunk[] chunks;
+    private final int[] bucketHead = new int[FOOD_THRESHOLD];
+    private final int[] bucketTail = new int[FOOD_THRESHOLD];
+    private final int[] bucket;
+    private final int[] next;
+    private final int[] previous;
+    private WorldChunk[] targets = new WorldChunk[8];
+
+    FoodSpawner(WorldChunk[] chunks) {
+        this.chunks = chunks;
+        this.bucket = new int[chunks.length];
+        this.next = new int[chunks.length];
+        this.previous = new int[chunks.length];
+        Arrays.fill(bucketHead, NONE);
+        Arrays.fill(bucketTail, NONE);
+        Arrays.fill(bucket, NONE);
+
+        for (int slot = 0; slot < chunks.length; slot++) {
+            assert chunks[slot].foodSpawnerSlot == NONE;
+            chunks[slot].foodSpawnerSlot = slot;
+            update(chunks[slot]);
+        }
+    }
+
+    /**
+     * Move a chunk to the bucket of its current food count. Must be called whenever its food changes.
+     */
+    void update(WorldChunk chunk) {
+        final var slot = chunk.foodSpawnerSlot;
+        if (slot == NONE) {
+            // not a chunk of the world
+            return;
+        }
+        assert chunks[slot] == chunk;
+
+        final var foodCount = chunk.getFoodCount();
+        final var newBucket = foodCount < FOOD_THRESHOLD ? foodCount : NONE;
+        if (bucket[slot] == newBucket) {
+            return;
+        }
+
+        if (bucket[slot] != NONE) {
+            unlink(slot);
+        }
+        bucket[slot] = newBucket;
+        if (newBucket != NONE) {
+            append(slot);
+        }
+    }
+
+    private void unlink(int slot) {
+        final var b = bucket[slot];
+        if (previous[slot] != NONE) {
+            next[previous[slot]] = next[slot];
+        } else {
+            bucketHead[b] = next[slot];
+        }
+        if (next[slot] != NONE) {
+            previous[next[slot]] = previous[slot];
+        } else {
+            bucketTail[b] = previous[slot];
+        }
+    }
+
+    private void append(int slot) {
+        final var b = bucket[slot];
+        previous[slot] = bucketTail[b];
+        next[slot] = NONE;
+        if (bucketTail[b] != NONE) {
+            next[bucketTail[b]] = slot;
+        } else {
+            bucketHead[b] = slot;
+        }
+        bucketTail[b] = slot;
+    }
+
+    /**
+     * Spawn a food item in each of the n chunks with the least food. Chunks with equal food count
+     * are picked in the order in which they have reached that count.
+     */
+    void spawn(int n) {
+        if (targets.length < n) {
+            targets = new WorldChunk[n];
+        }
+
+        // pick all chunks first, as spawning food moves chunks to other buckets
+        int k = 0;
+        for (int b = 0; b < FOOD_THRESHOLD && k < n; b++) {
+            for (int slot = bucketHead[b]; slot != NONE && k < n; slot = next[slot]) {
+                targets[k++] = chunks[slot];
+            }
+        }
+
+        for (int i = 0; i < k; i++) {
+            targets[i].addFood();
+            targets[i] = null;
+        }
+    }
+}
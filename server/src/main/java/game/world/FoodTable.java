@@ -0,0 +1,222 @@
+package game.world;
+
+import math.BoundingBox;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static util.ByteUtilities.toNormalizedDouble;
+
+/**
+ * The food of a {@link WorldChunk} as a struct of arrays. Food items are indexed densely, so removing
+ * an item moves the last item into its place. This changes the index of the moved item.
+ * <p>
+ * Items are bucketed in a fine grid of {@link #CELLS} x {@link #CELLS} cells over the chunk. Each cell
+ * holds a doubly linked list of its items, which is stored in {@link #next} and {@link #previous}.
+ * A range query only has to look at the items of the few cells around the query point.
+ */
+final class FoodTable {
+    /**
+     * Number of cells per axis.
+     */
+    static final int CELLS = 8;
+    private static final double MAX_RADIUS = Arrays.stream(Food.Size.values())
+            .mapToDouble(size -> size.radius)
+            .max()
+            .orElseThrow();
+    private static final int NONE = -1;
+    private final BoundingBox box;
+    private final double inverseCellWidth, inverseCellHeight;
+    private final int[] cellHead = new int[CELLS * CELLS];
+    private byte[] byteX = new byte[16];
+    private byte[] byteY = new byte[16];
+    private byte[] colors = new byte[16];
+    private Food.Size[] sizes = new Food.Size[16];
+    private double[] x = new double[16];
+    private double[] y = new double[16];
+    private int[] cell = new int[16];
+    private int[] next = new int[16];
+    private int[] previous = new int[16];
+    private int size = 0;
+
+    FoodTable(BoundingBox box) {
+        this.box = box;
+        this.inverseCellWidth = CELLS / box.getWidth();
+        this.inverseCellHeight = CELLS / box.getHeight();
+        Arrays.fill(cellHead, NONE);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Add a food item at the given position relative to the chunk.
+     *
+     * @return the index of the new item
+     */
+    int add(byte bx, byte by, Food.Size foodSize, byte color) {
+        if (size == x.length) {
+            grow();
+        }
+
+        final var i = size++;
+        byteX[i] = bx;
+        byteY[i] = by;
+        colors[i] = color;
+        sizes[i] = foodSize;
+        x[i] = box.minX + toNormalizedDouble(bx) * box.getWidth();
+        y[i] = box.minY + toNormalizedDouble(by) * box.getHeight();
+
+        final var c = getRow(y[i]) * CELLS + getColumn(x[i]);
+        cell[i] = c;
+        previous[i] = NONE;
+        next[i] = cellHead[c];
+        if (next[i] != NONE) {
+            previous[next[i]] = i;
+        }
+        cellHead[c] = i;
+        return i;
+    }
+
+    /**
+     * Remove the item with the given index. The last item takes its index.
+     */
+    void remove(int i) {
+        assert 0 <= i && i < size;
+        unlink(i);
+
+        final var last = --size;
+        if (i != last) {
+            byteX[i] = byteX[last];
+            byteY[i] = byteY[last];
+            colors[i] = colors[last];
+            sizes[i] = sizes[last];
+            x[i] = x[last];
+            y[i] = y[last];
+            cell[i] = cell[last];
+            next[i] = next[last];
+            previous[i] = previous[last];
+
+            // relink the moved item
+            if (previous[i] != NONE) {
+                next[previous[i]] = i;
+            } else {
+                cellHead[cell[i]] = i;
+            }
+            if (next[i] != NONE) {
+                previous[next[i]] = i;
+            }
+        }
+        sizes[last] = null;
+    }
+
+    void clear() {
+        Arrays.fill(cellHead, NONE);
+        Arrays.fill(sizes, 0, size, null);
+        size = 0;
+    }
+
+    private void unlink(int i) {
+        if (previous[i] != NONE) {
+            next[previous[i]] = next[i];
+        } else {
+            cellHead[cell[i]] = next[i];
+        }
+        if (next[i] != NONE) {
+            previous[next[i]] = previous[i];
+        }
+    }
+
+    private void grow() {
+        final var capacity = 2 * x.length;
+        byteX = Arrays.copyOf(byteX, capacity);
+        byteY = Arrays.copyOf(byteY, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        cell = Arrays.copyOf(cell, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+    }
+
+    private int getColumn(double px) {
+        return Math.min(CELLS - 1, Math.max(0, (int) ((px - box.minX) * inverseCellWidth)));
+    }
+
+    private int getRow(double py) {
+        return Math.min(CELLS - 1, Math.max(0, (int) ((py - box.minY) * inverseCellHeight)));
+    }
+
+    /**
+     * Find the items within the given range of the point (px, py), i.e. items whose distance to the point
+     * is at most the range plus their radius. Items are visited cell by cell, so the order is deterministic.
+     *
+     * @param result indices of the found items get written to this array as long as it has room for them
+     * @return the number of found items, which can be larger than the length of the result array
+     */
+    int find(double px, double py, double range, int[] result) {
+        final var reach = range + MAX_RADIUS;
+        if (px + reach < box.minX || px - reach > box.maxX || py + reach < box.minY || py - reach > box.maxY) {
+            return 0;
+        }
+
+        final var minColumn = getColumn(px - reach);
+        final var maxColumn = getColumn(px + reach);
+        final var minRow = getRow(py - reach);
+        final var maxRow = getRow(py + reach);
+        int n = 0;
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                for (int i = cellHead[row * CELLS + column]; i != NONE; i = next[i]) {
+                    final var dx = x[i] - px;
+                    final var dy = y[i] - py;
+                    final var r = range + sizes[i].radius;
+                    if (dx * dx + dy * dy <= r * r) {
+                        if (n < result.length) {
+                            result[n] = i;
+                        }
+                        n++;
+                    }
+                }
+            }
+        }
+
+        return n;
+    }
+
+    double getX(int i) {
+        return x[i];
+    }
+
+    double getY(int i) {
+        return y[i];
+    }
+
+    Food.Size getSize(int i) {
+        return sizes[i];
+    }
+
+    byte getColor(int i) {
+        return colors[i];
+    }
+
+    /**
+     * Encode the first n items, 3 bytes each: x, y and (size << 6) | color.
+     */
+    void encode(ByteBuffer buffer, int n) {
+        for (int i = 0; i < n; i++) {
+            buffer.put(byteX[i]);
+            buffer.put(byteY[i]);
+            buffer.put(encodeColorAndSize(sizes[i], colors[i]));
+        }
+    }
+
+    static byte encodeColorAndSize(Food.Size foodSize, byte color) {
+        final int colorAndSizeData = (foodSize.byteValue << 6) | color;
+        assert colorAndSizeData < 256;
+        return (byte) colorAndSizeData;
+    }
+}
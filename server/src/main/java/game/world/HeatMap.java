@@ -1,25 +1,52 @@
 package game.world;
 
 import game.GameConfig;
+import game.snake.Snake;
 import game.snake.SnakeChunk;
+import math.BoundingBox;
 
 import java.nio.ByteBuffer;
-import java.util.function.Supplier;
-import java.util.stream.Stream;
+import java.util.Arrays;
+import java.util.BitSet;
 
+/**
+ * The heat of each {@link WorldChunk}, which tells clients where the snakes are.
+ * <p>
+ * The heat of a world chunk only changes when snake chunks enter or leave it or when the heat of
+ * a contained snake chunk changes, see {@link #snakeChunkHeat(SnakeChunk)}. Such world chunks are
+ * marked as dirty and only dirty world chunks get recomputed, once every
+ * {@link GameConfig#heatMapInterval} seconds as clients do not receive the heat map more often.
+ */
 public class HeatMap {
+    private static final int UNTRACKED = -1;
     private final ByteBuffer buffer;
     private final int columns;
     private final GameConfig config;
-    private final Supplier<Stream<WorldChunk>> chunkSupplier;
+    private final World world;
+    private final WorldChunk[] cells;
+    private final BitSet dirty = new BitSet();
     private final double maxSnakeChunkLength;
+    private final int updateInterval;
+    private int ticksUntilUpdate = 0;
+    /**
+     * The state of the snakes when the heat map has last been computed, by snake id. Snakes
+     * that have not been seen yet or whose id has been reused have another generation.
+     */
+    private int[] generations = new int[0];
+    private double[] lengths = new double[0];
+    private boolean[] fast = new boolean[0];
+    private boolean[] alive = new boolean[0];
 
-    HeatMap(GameConfig config, Supplier<Stream<WorldChunk>> chunkSupplier) {
+    HeatMap(World world) {
+        this.world = world;
+        config = world.getConfig();
         columns = config.chunks.columns;
         buffer = ByteBuffer.allocate(config.chunks.rows * columns);
-        this.config = config;
-        this.chunkSupplier = chunkSupplier;
+        cells = new WorldChunk[config.chunks.rows * columns];
+        world.chunks.forEach(chunk -> cells[indexOf(chunk)] = chunk);
+        dirty.set(0, cells.length);
         maxSnakeChunkLength = SnakeChunk.getMaximumLength(config);
+        updateInterval = Math.max(1, (int) Math.round(config.heatMapInterval / config.tickDuration));
     }
 
     /**
@@ -34,15 +61,102 @@ public class HeatMap {
         return x * (2.0 - x);
     }
 
+    private int indexOf(WorldChunk chunk) {
+        return chunk.getY() * columns + chunk.getX();
+    }
+
+    /**
+     * Mark a world chunk whose heat might have changed.
+     */
+    void markDirty(WorldChunk chunk) {
+        dirty.set(indexOf(chunk));
+    }
+
+    /**
+     * Mark the world chunks that a snake chunk with the given bounding box might have been added to,
+     * see {@link World#addSnakeChunk(SnakeChunk)}.
+     */
+    public void markDirty(BoundingBox snakeChunkBox) {
+        world.chunks.forEachNearbyChunk(snakeChunkBox, 0.5 * config.snakes.maxWidth, this::markDirty);
+    }
+
+    private void markDirty(SnakeChunk snakeChunk) {
+        if (!snakeChunk.isEmpty()) {
+            markDirty(snakeChunk.getBoundingBox());
+        }
+    }
+
+    /**
+     * Called once per tick. Recomputes the dirty world chunks if an update is due.
+     */
     public void update() {
-        chunkSupplier.get().forEach(chunk -> {
-            // compute buffer index
-            final int x = chunk.getX();
-            final int y = chunk.getY();
-            final int idx = y * columns + x;
-
-            buffer.put(idx, heat(chunk));
-        });
+        if (ticksUntilUpdate > 0) {
+            ticksUntilUpdate--;
+            return;
+        }
+        ticksUntilUpdate = updateInterval - 1;
+        recompute();
+    }
+
+    /**
+     * Recompute the heat of all dirty world chunks.
+     */
+    void recompute() {
+        markChangedSnakes();
+
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            buffer.put(i, heat(cells[i]));
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Mark the world chunks of all snake chunks whose heat might have changed since the last computation.
+     */
+    private void markChangedSnakes() {
+        final var registry = world.getSnakeRegistry();
+        final var idLimit = registry.getIdLimit();
+        if (generations.length < idLimit) {
+            final var oldLength = generations.length;
+            generations = Arrays.copyOf(generations, idLimit);
+            Arrays.fill(generations, oldLength, idLimit, UNTRACKED);
+            lengths = Arrays.copyOf(lengths, idLimit);
+            fast = Arrays.copyOf(fast, idLimit);
+            alive = Arrays.copyOf(alive, idLimit);
+        }
+
+        for (int id = 1; id < idLimit; id++) {
+            final var snake = registry.get((char) id);
+            if (snake == null) {
+                // the chunks of a removed snake have left the world chunks
+                generations[id] = UNTRACKED;
+                continue;
+            }
+
+            if (generations[id] != snake.getGeneration()) {
+                // the chunks of a new snake have just entered the world chunks
+                track(snake);
+                continue;
+            }
+
+            if (alive[id] != snake.isAlive() || fast[id] != snake.isFast() || lengths[id] != snake.getLength()) {
+                // the width depends on the length, the chunks of a dead snake are junk
+                snake.streamSnakeChunks().forEach(this::markDirty);
+            } else if (snake.isAlive()) {
+                // only the chunks at the head and the tail change their length while the snake moves
+                snake.streamSnakeChunks()
+                        .filter(chunk -> chunk == snake.currentChunk || chunk.getCurrentLength() < chunk.getDataLength())
+                        .forEach(this::markDirty);
+            }
+            track(snake);
+        }
+    }
+
+    private void track(Snake snake) {
+        generations[snake.id] = snake.getGeneration();
+        lengths[snake.id] = snake.getLength();
+        fast[snake.id] = snake.isFast();
+        alive[snake.id] = snake.isAlive();
     }
 
     private double snakeChunkHeat(SnakeChunk chunk) {
@@ -3,6 +3,9 @@ package game.world;
 import game.GameConfig;
 import game.snake.Snake;
 import game.snake.SnakeChunk;
+import game.snake.SnakeChunkPool;
+import game.snake.SnakeRegistry;
+import game.snake.SnakeStateTable;
 import lombok.Getter;
 import lombok.Setter;
 import math.BoundingBox;
@@ -13,13 +16,26 @@ import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 
 public class World {
-    private static final int FOOD_THRESHOLD = 16;
+    /**
+     * Number of food items that get spawned into the chunks with the least food per second.
+     */
+    public static final int FOOD_SPAWNS_PER_SECOND = 8;
     @Setter private static Random randomForTests;
     public final WorldChunkCollection chunks;
     public final Vector center = new Vector(0, 0);
     public final BoundingBox box;
     @Getter private final GameConfig config;
     @Getter private final HeatMap heatMap;
+    @Getter private final SnakeChunkPool snakeChunkPool = new SnakeChunkPool();
+    @Getter private final SnakeRegistry snakeRegistry;
+    @Getter private final SnakeStateTable snakeStates;
+    final FoodSpawner foodSpawner;
+    /**
+     * The seed of all randomness within this world. Two worlds with the same seed
+     * and config evolve identically given the same sequence of events.
+     */
+    @Getter private final long seed;
+    private final Random random;
 
     public World(double chunkSize, int repetitions) {
         this(new GameConfig(new GameConfig.ChunkInfo(chunkSize, repetitions)), false);
@@ -31,27 +47,50 @@ public class World {
     }
 
     public World(GameConfig config, boolean spawnFood) {
+        this(config, spawnFood, ThreadLocalRandom.current().nextLong());
+    }
+
+    public World(GameConfig config, boolean spawnFood, long seed) {
         this.config = config;
+        this.seed = seed;
+        this.random = new Random(seed);
+        snakeRegistry = new SnakeRegistry((int) Math.round(config.snakeIdReuseDelay / config.tickDuration));
         chunks = WorldChunkFactory.createChunks(this);
+        foodSpawner = new FoodSpawner(chunks.stream().toArray(WorldChunk[]::new));
         box = new BoundingBox(new Vector(0, 0), config.chunks.size * config.chunks.columns, config.chunks.size * config.chunks.rows);
-        heatMap = new HeatMap(config, chunks::stream);
+        heatMap = new HeatMap(this);
+        snakeStates = new SnakeStateTable(config);
         if (spawnFood) {
             spawnInitialFood();
         }
     }
 
+    /**
+     * Find a free position for a new snake. Chunks with the minimal number of snake chunks are tried
+     * first, starting at a random one. If none of them has room, the other chunks are tried in the
+     * order of their number of snake chunks.
+     */
     public Vector findSpawnPosition() {
-        var worldChunkToSpawnIn = findRandomWorldChunkWithMinSnakeChunkCount();
-        return worldChunkToSpawnIn.findSnakeSpawnPosition(getRandom());
-    }
-
-    private WorldChunk findRandomWorldChunkWithMinSnakeChunkCount() {
         assert (chunks.numberOfChunks() > 0);
-        var minimalSnakeChunkCount = chunks.stream().mapToInt(WorldChunk::getSnakeChunkCount).min().orElseThrow();
-        var worldChunksWithMinimalSnakeChunkCount = chunks.stream()
-                .filter(worldChunk -> worldChunk.getSnakeChunkCount() == minimalSnakeChunkCount).toList();
-        int randomIndex = getRandom().nextInt(worldChunksWithMinimalSnakeChunkCount.size());
-        return worldChunksWithMinimalSnakeChunkCount.get(randomIndex);
+        final var candidates = chunks.stream()
+                .sorted(Comparator.comparingInt(WorldChunk::getSnakeChunkCount))
+                .toList();
+        final var minimalSnakeChunkCount = candidates.get(0).getSnakeChunkCount();
+        final var numberOfMinimalChunks = (int) candidates.stream()
+                .takeWhile(worldChunk -> worldChunk.getSnakeChunkCount() == minimalSnakeChunkCount)
+                .count();
+        final var first = getRandom().nextInt(numberOfMinimalChunks);
+
+        for (int i = 0; i < candidates.size(); i++) {
+            final var worldChunk = i < numberOfMinimalChunks
+                    ? candidates.get((first + i) % numberOfMinimalChunks)
+                    : candidates.get(i);
+            final var position = worldChunk.findFreeSnakeSpawnPosition(getRandom());
+            if (position != null) {
+                return position;
+            }
+        }
+        throw new RuntimeException("No free spawn position found!");
     }
 
     public void addSnake(Snake snake) {
@@ -61,18 +100,22 @@ public class World {
     public void addSnakeChunk(SnakeChunk snakeChunk) {
         // Snake width can change throughout the lifetime of a snake chunk.
         // To avoid updating world chunks later we assume maximum width here.
-        chunks.findNearbyChunks(snakeChunk.getBoundingBox(), 0.5 * config.snakes.maxWidth)
-                .forEach(chunk -> chunk.addSnakeChunk(snakeChunk));
+        chunks.forEachNearbyChunk(snakeChunk.getBoundingBox(), 0.5 * config.snakes.maxWidth,
+                chunk -> chunk.addSnakeChunk(snakeChunk));
     }
 
+    /**
+     * Spawn the food of a second at once.
+     */
     public void spawnFood() {
-        int numberOfChunksToSpawnSimultaneously = 8;
+        spawnFood(FOOD_SPAWNS_PER_SECOND);
+    }
 
-        chunks.stream()
-                .filter(c -> c.getFoodCount() < FOOD_THRESHOLD)
-                .sorted(Comparator.comparingInt(WorldChunk::getFoodCount))
-                .limit(numberOfChunksToSpawnSimultaneously)
-                .forEach(WorldChunk::addFood);
+    /**
+     * Spawn a food item in each of the n chunks with the least food, see {@link FoodSpawner}.
+     */
+    public void spawnFood(int n) {
+        foodSpawner.spawn(n);
     }
 
     public void recycleDeadSnake(Snake snake) {
@@ -114,11 +157,16 @@ public class World {
         }
     }
 
-    private Random getRandom() {
+    /**
+     * Get the source of randomness for everything that affects the game state.
+     * Must only be used by the thread that owns the game state, so the sequence
+     * of random numbers is reproducible.
+     */
+    public Random getRandom() {
         if (randomForTests != null) {
             return randomForTests;
         }
 
-        return ThreadLocalRandom.current();
+        return random;
     }
 }
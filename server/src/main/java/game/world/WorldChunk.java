@@ -7,29 +7,61 @@ import lombok.Getter;
 import math.BoundingBox;
 import math.Vector;
 
+import javax.annotation.Nullable;
 import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.function.Predicate;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class WorldChunk {
     public static final int FOOD_HEADER_SIZE = 4;
+    /**
+     * Maximum number of food items that get encoded. The highest bit of the item count
+     * is reserved for {@link FoodChanges#DELTA_FLAG}.
+     */
+    static final int MAX_ENCODED_FOOD = FoodChanges.DELTA_FLAG - 1;
+    private static final int[] NO_FOOD = new int[0];
     public final BoundingBox box;
     public final List<WorldChunk> neighbors = new ArrayList<>(8);
     private final Set<SnakeChunk> snakeChunks = new HashSet<>();
     private @Getter final byte x, y;
-    private final World world;
-    private final List<Food> foodList = new LinkedList<>();
+    @Getter private final World world;
+    private final FoodTable food;
     /**
-     * A map that stores the number of {@link SnakeChunk}s for each {@link Snake} in this chunk.
+     * Indices of food that has been eaten but not yet been removed, see {@link #markFoodAsEaten(int)}.
      */
-    private final Map<Snake, Integer> snakes = new HashMap<>(6);
+    private final BitSet eatenFood = new BitSet();
+    private final FoodChangeLog foodChangeLog = new FoodChangeLog();
     /**
-     * A readonly set view of the {@link #snakes} map.
+     * The snakes that have {@link SnakeChunk}s in this chunk and the number of their chunks. A world chunk
+     * holds only a few snakes, so a linear search over these arrays is faster than a hash map.
      */
-    private final Set<Snake> snakesView = Collections.unmodifiableSet(snakes.keySet());
+    private Snake[] snakes = new Snake[6];
+    private int[] snakeChunkCounts = new int[6];
+    private int numberOfSnakes = 0;
+    /**
+     * A readonly list view of the {@link #snakes} array.
+     */
+    private final List<Snake> snakesView = new AbstractList<>() {
+        @Override
+        public Snake get(int index) {
+            Objects.checkIndex(index, numberOfSnakes);
+            return snakes[index];
+        }
+
+        @Override
+        public int size() {
+            return numberOfSnakes;
+        }
+    };
     private int foodVersion = 0;
     private ByteBuffer encodedFoodData;
+    private FoodChanges foodChanges;
+    /**
+     * The slot of this chunk in the {@link FoodSpawner} of the world or -1 if this chunk is not part of the world.
+     */
+    int foodSpawnerSlot = -1;
 
     public WorldChunk(World world, double left, double bottom, double width, double height, int x, int y) {
         assert (width > 0.0);
@@ -40,11 +72,26 @@ public class WorldChunk {
 
         box = new BoundingBox(left, left + width, bottom, bottom + height);
         this.world = world;
+        food = new FoodTable(box);
     }
 
     private void onFoodChange() {
         foodVersion++;
         encodedFoodData = null;
+        foodChanges = null;
+        world.foodSpawner.update(this);
+    }
+
+    /**
+     * Check that clients can follow a change of the food by index, i.e. all food gets encoded before
+     * and after the change. Otherwise, the change log gets reset and clients receive the whole food.
+     */
+    private boolean canRecordFoodChange(int sizeAfterChange) {
+        if (food.size() > MAX_ENCODED_FOOD || sizeAfterChange > MAX_ENCODED_FOOD) {
+            foodChangeLog.reset(foodVersion + 1);
+            return false;
+        }
+        return true;
     }
 
     public void addNeighbor(WorldChunk neighbor) {
@@ -57,19 +104,95 @@ public class WorldChunk {
         Food.spawnAt(this);
     }
 
-    public void addFood(Food food) {
-        foodList.add(food);
+    void addFood(byte bx, byte by, Food.Size size, byte color) {
+        if (canRecordFoodChange(food.size() + 1)) {
+            foodChangeLog.recordAddition(foodVersion + 1, bx, by, FoodTable.encodeColorAndSize(size, color));
+        }
+        food.add(bx, by, size, color);
         onFoodChange();
     }
 
-    public void removeFood(List<Food> foodToRemove) {
-        if (foodToRemove.isEmpty()) {
+    /**
+     * Find the food within the given range of p, i.e. food whose distance to p is at most the range plus
+     * its radius. This does not allocate and does not modify this chunk, so it can be called concurrently.
+     *
+     * @param result indices of the found food get written to this array as long as it has room for them
+     * @return the number of found food items, which can be larger than the length of the result array
+     */
+    public int findFood(Vector p, double range, int[] result) {
+        return food.find(p.x, p.y, range, result);
+    }
+
+    /**
+     * Find the food within the given range of p, see {@link #findFood(Vector, double, int[])}.
+     *
+     * @return the indices of the found food
+     */
+    public int[] findFood(Vector p, double range) {
+        final var n = food.find(p.x, p.y, range, NO_FOOD);
+        if (n == 0) {
+            return NO_FOOD;
+        }
+        final var result = new int[n];
+        food.find(p.x, p.y, range, result);
+        return result;
+    }
+
+    public double getFoodX(int index) {
+        return food.getX(index);
+    }
+
+    public double getFoodY(int index) {
+        return food.getY(index);
+    }
+
+    public Food.Size getFoodSize(int index) {
+        return food.getSize(index);
+    }
+
+    /**
+     * Mark a food item as eaten. It keeps its index until {@link #removeEatenFood()} gets called,
+     * so indices of a previous {@link #findFood} stay valid while food is being eaten.
+     *
+     * @return {@code false} if the food has already been eaten
+     */
+    public boolean markFoodAsEaten(int index) {
+        assert index < food.size();
+        if (eatenFood.get(index)) {
+            return false;
+        }
+        eatenFood.set(index);
+        return true;
+    }
+
+    /**
+     * Remove all food that has been marked as eaten.
+     */
+    public void removeEatenFood() {
+        if (eatenFood.isEmpty()) {
             return;
         }
 
-        if (foodList.removeAll(foodToRemove)) {
-            onFoodChange();
+        // Removing food moves the last item into its place, so remove from the back.
+        for (int i = eatenFood.length() - 1; i >= 0; i = eatenFood.previousSetBit(i - 1)) {
+            if (canRecordFoodChange(food.size() - 1)) {
+                foodChangeLog.recordRemoval(foodVersion + 1, i);
+            }
+            food.remove(i);
         }
+        eatenFood.clear();
+        onFoodChange();
+    }
+
+    public void removeAllFood() {
+        if (food.size() == 0) {
+            return;
+        }
+
+        food.clear();
+        eatenFood.clear();
+        foodChangeLog.reset(foodVersion + 1);
+        onFoodChange();
     }
 
     public void addSnakeChunk(SnakeChunk snakeChunk) {
@@ -79,10 +202,32 @@ public class WorldChunk {
             // SnakeChunk has already been added, no further actions required
             return;
         }
+        world.getHeatMap().markDirty(this);
 
         // initialize or increment SnakeChunk counter
-        snakes.merge(snakeChunk.getSnake(), 1, Integer::sum);
-        assert (snakes.get(snakeChunk.getSnake()) > 0);
+        final var snake = snakeChunk.getSnake();
+        final var index = indexOf(snake);
+        if (index >= 0) {
+            snakeChunkCounts[index]++;
+            return;
+        }
+
+        if (numberOfSnakes == snakes.length) {
+            snakes = Arrays.copyOf(snakes, 2 * numberOfSnakes);
+            snakeChunkCounts = Arrays.copyOf(snakeChunkCounts, 2 * numberOfSnakes);
+        }
+        snakes[numberOfSnakes] = snake;
+        snakeChunkCounts[numberOfSnakes] = 1;
+        numberOfSnakes++;
+    }
+
+    private int indexOf(Snake snake) {
+        for (int i = 0; i < numberOfSnakes; i++) {
+            if (snakes[i] == snake) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
@@ -97,17 +242,17 @@ public class WorldChunk {
         }
 
         // encode food data
-        final int numFood = Math.min(foodList.size(), Character.MAX_VALUE);
+        final int numFood = Math.min(food.size(), MAX_ENCODED_FOOD);
         ByteBuffer buffer = ByteBuffer.allocate(FOOD_HEADER_SIZE + numFood * Food.BYTE_SIZE);
 
         // header
         buffer.put(this.x);
         buffer.put(this.y);
-        buffer.putChar((char) foodList.size());
+        buffer.putChar((char) numFood);
 
         // body
-        assert (foodList.isEmpty() || buffer.hasRemaining());
-        foodList.stream().limit(Character.MAX_VALUE).forEach(food -> food.addToByteBuffer(buffer));
+        assert (numFood == 0 || buffer.hasRemaining());
+        food.encode(buffer, numFood);
         assert (!buffer.hasRemaining());
 
         // cache data for next call
@@ -116,16 +261,32 @@ public class WorldChunk {
         return encodedFoodData.asReadOnlyBuffer().flip();
     }
 
+    /**
+     * Return the recent changes of the food in this chunk, see {@link FoodChangeLog}.
+     * The changes will be captured only when necessary.
+     */
+    public FoodChanges getFoodChanges() {
+        if (foodChanges == null) {
+            foodChanges = foodChangeLog.capture(this);
+        }
+        return foodChanges;
+    }
+
     public int getFoodCount() {
-        return foodList.size();
+        return food.size();
     }
 
     public int getSnakeChunkCount() {
         return snakeChunks.size();
     }
 
+    /**
+     * Stream readonly views of the food in this chunk. This allocates a {@link Food} per item,
+     * use {@link #findFood(Vector, double, int[])} where it matters.
+     */
     public Stream<Food> streamFood() {
-        return foodList.stream();
+        return IntStream.range(0, food.size())
+                .mapToObj(i -> new Food(new Vector(food.getX(i), food.getY(i)), food.getSize(i), food.getColor(i)));
     }
 
     /**
@@ -140,17 +301,27 @@ public class WorldChunk {
             }
 
             // update SnakeChunk count
-            snakes.computeIfPresent(
-                    snakeChunk.getSnake(),
-                    (snake, chunks) -> chunks - 1
-            );
+            final var index = indexOf(snakeChunk.getSnake());
+            if (index >= 0) {
+                snakeChunkCounts[index]--;
+            }
 
             // remove this SnakeChunk
+            world.getHeatMap().markDirty(this);
             return true;
         });
 
-        // remove Snakes
-        snakes.entrySet().removeIf(entry -> entry.getValue() <= 0);
+        // remove Snakes (keeps the order of the remaining ones)
+        int n = 0;
+        for (int i = 0; i < numberOfSnakes; i++) {
+            if (snakeChunkCounts[i] > 0) {
+                snakes[n] = snakes[i];
+                snakeChunkCounts[n] = snakeChunkCounts[i];
+                n++;
+            }
+        }
+        Arrays.fill(snakes, n, numberOfSnakes, null);
+        numberOfSnakes = n;
     }
 
     public String toString() {
@@ -178,6 +349,18 @@ public class WorldChunk {
     }
 
     public Vector findSnakeSpawnPosition(Random rnd) {
+        final var position = findFreeSnakeSpawnPosition(rnd);
+        if (position == null) {
+            throw new RuntimeException("No free spawn position found!");
+        }
+        return position;
+    }
+
+    /**
+     * Like {@link #findSnakeSpawnPosition(Random)} but returns {@code null} if no free position has been found.
+     */
+    @Nullable
+    Vector findFreeSnakeSpawnPosition(Random rnd) {
         GameConfig config = world.getConfig();
         final int NUMBER_OF_ATTEMPTS = 42;
         Vector position = new Vector(rnd, box);
@@ -190,15 +373,14 @@ public class WorldChunk {
                     new BoundingBox(position, config.snakes.startLength + config.snakes.minWidth,
                             config.snakes.startLength + config.snakes.minWidth);
 
-            var areaClear = snakeChunks.stream().noneMatch(snakeChunk ->
-                    BoundingBox.intersect(potentialSpawnArea, snakeChunk.getBoundingBox()));
+            var areaClear = snakesView.stream().noneMatch(snake -> snake.intersects(potentialSpawnArea));
             if (areaClear) {
                 return position;
             } else {
                 position = new Vector(rnd, box);
             }
         }
-        throw new RuntimeException("No free spawn position found!");
+        return null;
     }
 
     @Override
@@ -5,52 +5,132 @@ import math.Vector;
 
 import java.util.*;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public abstract class WorldChunkCollection {
+/**
+ * The {@link WorldChunk}s of a world. Chunks form a regular grid, so the chunks within an area are
+ * found by computing the range of rows and columns that the area covers.
+ */
+public class WorldChunkCollection {
     private final WorldChunk[] chunks;
     private final List<WorldChunk> chunkList;
+    private final int rows;
+    private final int columns;
+    private final double originX;
+    private final double originY;
+    private final double chunkSize;
 
-    public WorldChunkCollection(WorldChunk[] chunks) {
+    /**
+     * @param chunks the chunks ordered by row, then by column
+     * @param originX the x coordinate of the left edge of the first column
+     * @param originY the y coordinate of the bottom edge of the first row
+     */
+    public WorldChunkCollection(WorldChunk[] chunks, int rows, int columns, double originX, double originY, double chunkSize) {
         assert chunks.length > 0;
+        assert chunks.length == rows * columns;
         this.chunks = chunks;
         this.chunkList = Arrays.asList(chunks);
+        this.rows = rows;
+        this.columns = columns;
+        this.originX = originX;
+        this.originY = originY;
+        this.chunkSize = chunkSize;
     }
 
-    protected abstract int findChunkIndex(Vector point);
+    protected int findChunkIndex(Vector point) {
+        int x = (int) ((point.x - originX) / chunkSize);
+        int y = (int) ((point.y - originY) / chunkSize);
+
+        if (x < 0 || y < 0 || x >= columns || y >= rows) {
+            throw new IllegalArgumentException("Point is out of bounds. " + point);
+        }
+
+        return y * columns + x;
+    }
+
+    int indexOf(WorldChunk chunk) {
+        return chunk.getY() * columns + chunk.getX();
+    }
 
     public WorldChunk findChunk(Vector point) {
         return chunks[findChunkIndex(point)];
     }
 
     /**
-     * Find the set of {@link WorldChunk} close to the given BoundingBox.
+     * Get the first column or row whose chunks reach the given coordinate, including chunks that end there.
+     */
+    private int firstIndexAt(double coordinate, double origin) {
+        return (int) Math.ceil((coordinate - origin) / chunkSize) - 1;
+    }
+
+    /**
+     * Get the last column or row whose chunks reach the given coordinate, including chunks that begin there.
+     */
+    private int lastIndexAt(double coordinate, double origin) {
+        return (int) Math.floor((coordinate - origin) / chunkSize);
+    }
+
+    /**
+     * Visit all {@link WorldChunk}s close to the given BoundingBox without allocating a collection.
      * Here close means they either intersect or the distance is below the given bound.
+     * Chunks are visited row by row.
      *
      * @param maxDistance maximum distance between WorldChunk and BoundingBox
      */
-    public Set<WorldChunk> findNearbyChunks(BoundingBox box, double maxDistance) {
-        final var center = box.getCenter();
+    public void forEachNearbyChunk(BoundingBox box, double maxDistance, Consumer<? super WorldChunk> consumer) {
         final var maxDist2 = maxDistance * maxDistance;
+        final var firstColumn = Math.max(0, firstIndexAt(box.minX - maxDistance, originX));
+        final var lastColumn = Math.min(columns - 1, lastIndexAt(box.maxX + maxDistance, originX));
+        final var firstRow = Math.max(0, firstIndexAt(box.minY - maxDistance, originY));
+        final var lastRow = Math.min(rows - 1, lastIndexAt(box.maxY + maxDistance, originY));
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                final var chunk = chunks[row * columns + column];
+                // chunks at the corners of the range can be too far away
+                if (BoundingBox.distance2(box, chunk.box) <= maxDist2) {
+                    consumer.accept(chunk);
+                }
+            }
+        }
+    }
 
-        // WorldChunks that are close and will be added to the set
-        final var queue = new LinkedList<WorldChunk>();
-        queue.add(findChunk(center));
-
-        final var nearbyChunks = new HashSet<WorldChunk>(8);
-
-        while (queue.size() > 0) {
-            final var chunk = queue.removeFirst();
-            nearbyChunks.add(chunk);
+    /**
+     * Visit all {@link WorldChunk}s that intersect the given BoundingBox.
+     */
+    public void forEachIntersectingChunk(BoundingBox box, Consumer<? super WorldChunk> consumer) {
+        forEachNearbyChunk(box, 0.0, consumer);
+    }
 
-            // neighboring WorldChunks are candidates
-            chunk.neighbors.stream()
-                    .filter(nc -> !nearbyChunks.contains(nc))
-                    .filter(nc -> BoundingBox.distance2(box, nc.box) <= maxDist2)
-                    .forEach(queue::add);
+    /**
+     * Visit all {@link WorldChunk}s which lie within a radius around a position.
+     */
+    public void forEachIntersectingChunk(Vector position, double radius, Consumer<? super WorldChunk> consumer) {
+        final var radius2 = radius * radius;
+        final var firstColumn = Math.max(0, firstIndexAt(position.x - radius, originX));
+        final var lastColumn = Math.min(columns - 1, lastIndexAt(position.x + radius, originX));
+        final var firstRow = Math.max(0, firstIndexAt(position.y - radius, originY));
+        final var lastRow = Math.min(rows - 1, lastIndexAt(position.y + radius, originY));
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                final var chunk = chunks[row * columns + column];
+                if (chunk.box.distance2(position) < radius2) {
+                    consumer.accept(chunk);
+                }
+            }
         }
+    }
 
+    /**
+     * Find the set of {@link WorldChunk} close to the given BoundingBox,
+     * see {@link #forEachNearbyChunk(BoundingBox, double, Consumer)}.
+     *
+     * @param maxDistance maximum distance between WorldChunk and BoundingBox
+     */
+    public Set<WorldChunk> findNearbyChunks(BoundingBox box, double maxDistance) {
+        final var nearbyChunks = new HashSet<WorldChunk>(8);
+        forEachNearbyChunk(box, maxDistance, nearbyChunks::add);
         return nearbyChunks;
     }
 
@@ -68,12 +148,9 @@ public abstract class WorldChunkCollection {
      * @return a set of {@link WorldChunk}
      */
     public Set<WorldChunk> findIntersectingChunks(Vector position, double radius) {
-        final var boundingBox = new BoundingBox(position, 2 * radius, 2 * radius);
-
-        return findIntersectingChunks(boundingBox)
-                .stream()
-                .filter(wc -> wc.box.distance2(position) < radius * radius)
-                .collect(Collectors.toSet());
+        final var chunksInRadius = new HashSet<WorldChunk>(8);
+        forEachIntersectingChunk(position, radius, chunksInRadius::add);
+        return chunksInRadius;
     }
 
     public Stream<WorldChunk> stream() {
@@ -1,7 +1,5 @@
 package game.world;
 
-import math.Vector;
-
 public class WorldChunkFactory {
     private WorldChunkFactory() {
     }
@@ -59,20 +57,7 @@ public class WorldChunkFactory {
             }
         }
 
-        return new WorldChunkCollection(chunks) {
-            @Override
-            protected int findChunkIndex(Vector point) {
-                int x = (int) ((point.x - offsetX) / chunkSize);
-                int y = (int) ((point.y - offsetY) / chunkSize);
-
-
-                if (x < 0 || y < 0 || x >= columns || y >= rows) {
-                    throw new IllegalArgumentException("Point is out of bounds. " + point);
-                }
-
-                return getIndex(y, x, columns);
-            }
-        };
+        return new WorldChunkCollection(chunks, rows, columns, offsetX, offsetY, chunkSize);
     }
 
     private static int getIndex(int row, int col, int columns) {
@@ -0,0 +1,301 @@
+package game.world;
+
+import game.snake.FinalSnakeChunk;
+import game.snake.Snake;
+import game.snake.SnakeChunk;
+import math.BoundingBox;
+import math.Vector;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * An immutable view of the game state at the end of a tick. Snapshots are created by the
+ * simulation and can be read by any thread without locking, e.g. to create client updates
+ * while the simulation already computes the next tick.
+ */
+public final class WorldSnapshot {
+    public final long tick;
+    private final World world;
+    private final List<SnakeInfo> snakes;
+    /**
+     * Captured snakes by id, see {@link game.snake.SnakeRegistry}.
+     */
+    private final SnakeInfo[] snakeInfos;
+    /**
+     * The encoded infos of all snakes in the order of {@link #snakes}, see {@link Snake#encodeInfo(ByteBuffer)}.
+     * Snakes are encoded once per tick and the infos of all clients are copied from here.
+     */
+    private final ByteBuffer snakeInfoTable;
+    /**
+     * The captured current chunks of all snakes and non-junk chunks within the world.
+     */
+    private final Map<SnakeChunk, SnakeChunkInfo> snakeChunks;
+    private final WorldChunkInfo[] chunks;
+    private final ByteBuffer heatMap;
+
+    private WorldSnapshot(World world, Collection<Snake> snakes, long tick) {
+        this.tick = tick;
+        this.world = world;
+
+        // SnakeChunks are usually part of multiple WorldChunks but should only be captured once.
+        final var capturedChunks = new IdentityHashMap<SnakeChunk, SnakeChunkInfo>(4 * snakes.size());
+
+        int idLimit = 0;
+        for (final var snake : snakes) {
+            idLimit = Math.max(idLimit, snake.id + 1);
+        }
+
+        snakeInfos = new SnakeInfo[idLimit];
+        final var table = ByteBuffer.allocate(snakes.size() * Snake.INFO_BYTE_SIZE);
+        this.snakes = snakes.stream()
+                .map(snake -> {
+                    final var currentChunk = capturedChunks.computeIfAbsent(snake.currentChunk, SnakeChunkInfo::capture);
+                    final var offset = table.position();
+                    snake.encodeInfo(table);
+                    final var encodedInfo = table.slice(offset, Snake.INFO_BYTE_SIZE).asReadOnlyBuffer();
+                    final var info = new SnakeInfo(snake, currentChunk, encodedInfo);
+                    snakeInfos[snake.id] = info;
+                    return info;
+                })
+                .toList();
+        snakeInfoTable = table.flip().asReadOnlyBuffer();
+
+        chunks = new WorldChunkInfo[world.chunks.numberOfChunks()];
+        world.chunks.forEach(chunk -> {
+            final var snakeChunks = chunk.streamSnakeChunks()
+                    .map(snakeChunk -> capturedChunks.computeIfAbsent(snakeChunk, SnakeChunkInfo::capture))
+                    .toList();
+            chunks[world.chunks.indexOf(chunk)] = new WorldChunkInfo(
+                    chunk,
+                    FoodInfo.capture(chunk),
+                    snakeChunks
+            );
+        });
+
+        this.snakeChunks = Collections.unmodifiableMap(capturedChunks);
+
+        final var heatMapSource = world.getHeatMap().getBuffer();
+        heatMap = ByteBuffer.allocate(heatMapSource.capacity()).put(heatMapSource).flip().asReadOnlyBuffer();
+    }
+
+    /**
+     * Capture the current state. Must be called from the thread that owns the game state.
+     *
+     * @param snakes all snakes of the game
+     * @param tick   the number of the tick that has just been computed
+     */
+    public static WorldSnapshot create(World world, Collection<Snake> snakes, long tick) {
+        return new WorldSnapshot(world, snakes, tick);
+    }
+
+    public List<SnakeInfo> getSnakes() {
+        return snakes;
+    }
+
+    /**
+     * Get the captured state of a snake or {@code null} if the snake
+     * was not part of the game at the time of this snapshot.
+     */
+    @Nullable
+    public SnakeInfo getSnakeInfo(Snake snake) {
+        final var info = snake.id < snakeInfos.length ? snakeInfos[snake.id] : null;
+        return info != null && info.snake() == snake ? info : null;
+    }
+
+    /**
+     * Copy the encoded info of a snake to the position of the given buffer without allocating.
+     *
+     * @return false if the snake was not part of the game at the time of this snapshot
+     */
+    public boolean writeSnakeInfo(Snake snake, ByteBuffer buffer) {
+        final var info = getSnakeInfo(snake);
+        if (info == null) {
+            return false;
+        }
+
+        buffer.put(buffer.position(), info.encodedInfo, 0, Snake.INFO_BYTE_SIZE);
+        buffer.position(buffer.position() + Snake.INFO_BYTE_SIZE);
+        return true;
+    }
+
+    /**
+     * Get the encoded infos of all snakes of this snapshot as one read-only buffer.
+     */
+    public ByteBuffer getSnakeInfoTable() {
+        return snakeInfoTable.duplicate();
+    }
+
+    public WorldChunkInfo getChunkInfo(WorldChunk chunk) {
+        return chunks[world.chunks.indexOf(chunk)];
+    }
+
+    /**
+     * Find the captured state of all {@link WorldChunk}s that intersect the given box.
+     */
+    public List<WorldChunkInfo> findIntersectingChunks(BoundingBox box) {
+        final var result = new ArrayList<WorldChunkInfo>();
+        forEachIntersectingChunk(box, result::add);
+        return result;
+    }
+
+    /**
+     * Visit the captured state of all {@link WorldChunk}s that intersect the given box.
+     */
+    public void forEachIntersectingChunk(BoundingBox box, Consumer<? super WorldChunkInfo> consumer) {
+        world.chunks.forEachIntersectingChunk(box, chunk -> consumer.accept(getChunkInfo(chunk)));
+    }
+
+    /**
+     * Check whether a captured {@link SnakeChunk} is still part of this snapshot,
+     * i.e. it is not junk or it is the current chunk of its snake.
+     */
+    public boolean isActive(SnakeChunkInfo chunk) {
+        return snakeChunks.containsKey(chunk.chunk());
+    }
+
+    /**
+     * A read-only copy of the heat map.
+     */
+    public ByteBuffer getHeatMap() {
+        return heatMap.duplicate();
+    }
+
+    public record SnakeInfo(
+            Snake snake,
+            boolean alive,
+            double length,
+            double width,
+            boolean fast,
+            Vector headPosition,
+            double headDirection,
+            double headDistance,
+            int kills,
+            SnakeChunkInfo currentChunk,
+            ByteBuffer encodedInfo
+    ) {
+        private SnakeInfo(Snake snake, SnakeChunkInfo currentChunk, ByteBuffer encodedInfo) {
+            this(
+                    snake,
+                    snake.isAlive(),
+                    snake.getLength(),
+                    snake.getWidth(),
+                    snake.isFast(),
+                    snake.getHeadPosition().clone(),
+                    snake.getHeadDirection(),
+                    snake.getHeadDistance(),
+                    snake.getKills(),
+                    currentChunk,
+                    encodedInfo
+            );
+        }
+
+        /**
+         * Get the head position. The returned vector must not be modified.
+         */
+        @Override
+        public Vector headPosition() {
+            return headPosition;
+        }
+
+        @Override
+        public ByteBuffer encodedInfo() {
+            return encodedInfo.duplicate();
+        }
+    }
+
+    /**
+     * The binary data of a {@link SnakeChunk}. {@link FinalSnakeChunk}s never change, so they are
+     * captured once and their data does not have to be copied, see {@link FinalSnakeChunk#getInfo()}.
+     * Instead of the offset, which changes every tick, the distance the head of the snake had travelled
+     * when the chunk ended at the head is captured. The offset within the data is replaced when encoding.
+     */
+    public record SnakeChunkInfo(SnakeChunk chunk, boolean empty, boolean full, BoundingBox box, ByteBuffer data,
+                                 double headDistance) {
+        /**
+         * Capture the current state of a {@link SnakeChunk}.
+         */
+        public static SnakeChunkInfo capture(SnakeChunk chunk) {
+            if (chunk instanceof final FinalSnakeChunk finalChunk) {
+                return finalChunk.getInfo();
+            }
+            final var headDistance = chunk.getSnake().getHeadDistance() - chunk.getOffset();
+            return new SnakeChunkInfo(chunk, chunk.isEmpty(), false, chunk.getBoundingBox(), copy(chunk.getBuffer()), headDistance);
+        }
+
+        /**
+         * Get the chunk data. Note that the offset within the data of a {@link FinalSnakeChunk}
+         * is not up to date.
+         */
+        @Override
+        public ByteBuffer data() {
+            return data.duplicate();
+        }
+
+        public Snake snake() {
+            return chunk.getSnake();
+        }
+
+        public int byteSize() {
+            return data.remaining();
+        }
+
+        /**
+         * Get the offset of the chunk within the given captured state of its snake.
+         */
+        public double offsetIn(SnakeInfo snake) {
+            return snake.headDistance() - headDistance;
+        }
+
+        /**
+         * Write the chunk data including its offset as of the given snapshot into the given buffer.
+         */
+        public void writeTo(ByteBuffer buffer, WorldSnapshot snapshot) {
+            final var snake = snapshot.getSnakeInfo(snake());
+            final var start = buffer.position();
+            buffer.put(data.duplicate());
+            if (snake != null) {
+                buffer.putFloat(start + SnakeChunk.BUFFER_OFFSET_POS, (float) offsetIn(snake));
+            }
+        }
+    }
+
+    /**
+     * The encoded food of a {@link WorldChunk} and its recent changes.
+     * The encoded data does not change for a given version.
+     */
+    public record FoodInfo(WorldChunk chunk, int version, ByteBuffer data, FoodChanges changes) {
+        public static FoodInfo capture(WorldChunk chunk) {
+            return new FoodInfo(chunk, chunk.getFoodVersion(), chunk.getEncodedFoodData(), chunk.getFoodChanges());
+        }
+
+        @Override
+        public ByteBuffer data() {
+            return data.duplicate();
+        }
+
+        /**
+         * Encode the food for a client that knows the given version: only the changes since
+         * that version if they are still known and smaller, otherwise the whole food.
+         */
+        public ByteBuffer data(int knownVersion) {
+            final var n = changes.countSince(knownVersion);
+            if (n >= 0 && WorldChunk.FOOD_HEADER_SIZE + n * Food.BYTE_SIZE < data.remaining()) {
+                return changes.encodeSince(knownVersion, n);
+            }
+            return data();
+        }
+    }
+
+    /**
+     * @param snakeChunks the non-junk {@link SnakeChunk}s within the chunk
+     */
+    public record WorldChunkInfo(WorldChunk chunk, FoodInfo food, List<SnakeChunkInfo> snakeChunks) {
+    }
+
+    private static ByteBuffer copy(ByteBuffer source) {
+        return ByteBuffer.allocate(source.remaining()).put(source).flip().asReadOnlyBuffer();
+    }
+}
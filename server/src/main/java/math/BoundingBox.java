@@ -51,6 +51,16 @@ public final class BoundingBox {
         return intersectX && intersectY;
     }
 
+    /**
+     * Get the smallest BoundingBox containing both given boxes.
+     */
+    public static BoundingBox union(BoundingBox a, BoundingBox b) {
+        return new BoundingBox(
+                Math.min(a.minX, b.minX), Math.max(a.maxX, b.maxX),
+                Math.min(a.minY, b.minY), Math.max(a.maxY, b.maxY)
+        );
+    }
+
     /**
      * @param lb1 Lower bound of interval 1
      * @param ub1 Upper bound of interval 1
@@ -1,17 +1,17 @@
 package server.clients;
 
 import game.snake.Snake;
-import game.snake.SnakeChunk;
-import game.world.HeatMap;
-import game.world.WorldChunk;
+import game.world.WorldSnapshot;
 import lombok.Getter;
 import math.BoundingBox;
+import math.Vector;
 import server.protocol.GameUpdate;
 import util.JSON;
 
 import javax.annotation.Nullable;
 import javax.websocket.Session;
 import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
 
 /**
  * Player/Spectator abstraction.
@@ -20,74 +20,119 @@ public abstract class Client {
     public final Session session;
     protected final ClientKnowledge knowledge;
     private final long creationTime = System.currentTimeMillis();
+    /**
+     * Encoding and sending of messages as well as updates based on {@link WorldSnapshot}s
+     * are done by this executor. By default, tasks run directly on the calling thread.
+     */
+    private Executor executor = Runnable::run;
     protected float viewBoxRatio = 1f;
     @Getter
     @Nullable
     protected Snake snake;
+    /**
+     * The snapshot of the most recent game update.
+     * Only accessed by the {@link #executor}.
+     */
+    @Nullable
+    private WorldSnapshot snapshot;
+    private long lastUpdateTick = -1;
+    /**
+     * The last captured head position returned by {@link #getHeadPosition(Snake)}.
+     * Only accessed by the {@link #executor}.
+     */
+    @Nullable
+    private Vector lastHeadPosition;
 
     protected Client(Session session, @Nullable Snake snake) {
         this.session = session;
         this.snake = snake;
-        this.knowledge = new ClientKnowledge(this::getKnowledgeBox);
+        this.knowledge = new ClientKnowledge();
     }
 
-    protected Client(Session session, ClientKnowledge knowledge, @Nullable Snake snake) {
-        this.session = session;
+    /**
+     * Create a client that takes over the session, knowledge and executor of another client.
+     * Must be called by the executor of the previous client.
+     */
+    protected Client(Client previous, @Nullable Snake snake) {
+        this.session = previous.session;
         this.snake = snake;
-        this.knowledge = knowledge;
-        knowledge.setBoxSupplier(this::getKnowledgeBox);
-    }
-
-    public void updateClientSnakeChunk(SnakeChunk chunk) {
-        knowledge.addSnakeChunk(chunk);
-    }
-
-
-    public void updateClientFoodChunk(WorldChunk chunk) {
-        knowledge.addFoodChunk(chunk);
+        this.knowledge = previous.knowledge;
+        this.executor = previous.executor;
+        this.viewBoxRatio = previous.viewBoxRatio;
+        this.snapshot = previous.snapshot;
+        this.lastUpdateTick = previous.lastUpdateTick;
+        this.lastHeadPosition = previous.lastHeadPosition;
     }
 
     /**
-     * Inform client about updated heat map. This will not always cause a heat map update
-     * to be sent to the client as this implementation performs throttling.
-     * Therefore, this method can be safely called once per tick.
+     * Set the executor on which messages to this client get encoded and sent.
+     * The executor must run tasks in submission order.
      */
-    public void updateHeatMap(HeatMap heatMap) {
-        knowledge.updateHeatMap(heatMap);
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
     }
 
     /**
-     * Send a binary update containing information added by previous calls to
-     * - {@link #updateClientSnakeChunk(SnakeChunk)}
-     * - {@link #updateClientFoodChunk(WorldChunk)}
-     * - {@link #updateHeatMap(HeatMap)}
-     * to the client via a websocket connection.
+     * Collect everything within the knowledge box from the given snapshot and send it
+     * to the client. All work is done by the executor of this client and does not
+     * access live game state, so this can be called while the next tick is computed.
      */
-    public final void sendGameUpdate(byte ticksSinceLastUpdate) {
-        final var update = knowledge.createNextGameUpdate(ticksSinceLastUpdate);
-        if (snake != null) {
-            update.addSnakeChunk(snake.currentChunk);
-        }
-        onBeforeUpdateBufferIsCreated(update);
-        send(update.createUpdateBuffer());
+    public final void sendGameUpdate(WorldSnapshot snapshot) {
+        executor.execute(() -> {
+            this.snapshot = snapshot;
+            final var knowledgeBox = getKnowledgeBox();
+            if (knowledgeBox == null) {
+                // wait for a snapshot that contains the snake
+                return;
+            }
+            final var ticksSinceLastUpdate = lastUpdateTick < 0 ? 1 : Math.min(snapshot.tick - lastUpdateTick, Byte.MAX_VALUE);
+            this.lastUpdateTick = snapshot.tick;
+
+            snapshot.forEachIntersectingChunk(knowledgeBox, chunk -> {
+                chunk.snakeChunks().forEach(knowledge::addSnakeChunk);
+                knowledge.addFoodChunk(chunk.food());
+            });
+            knowledge.updateHeatMap(snapshot.getHeatMap());
+
+            final var update = knowledge.createNextGameUpdate(snapshot, knowledgeBox, (byte) ticksSinceLastUpdate);
+            final var snakeInfo = snake == null ? null : snapshot.getSnakeInfo(snake);
+            if (snakeInfo != null) {
+                update.addSnakeChunk(snakeInfo.currentChunk());
+            }
+            update.freeze(snapshot);
+            onBeforeUpdateBufferIsCreated(update);
+            sendNow(update.createUpdateBuffer());
+        });
     }
 
     public void sendNameUpdate() {
-        final var update = knowledge.createNextNameUpdate();
-        if (update.isEmpty()) {
-            return;
-        }
-        final var encodedUpdate = JSON.stringify(update);
-        send(encodedUpdate);
+        executor.execute(() -> {
+            final var update = knowledge.createNextNameUpdate();
+            if (!update.isEmpty()) {
+                sendNow(JSON.stringify(update));
+            }
+        });
     }
 
     protected void send(ByteBuffer binaryData) {
+        executor.execute(() -> sendNow(binaryData));
+    }
+
+    public void send(String textData) {
+        executor.execute(() -> sendNow(textData));
+    }
+
+    private void sendNow(ByteBuffer binaryData) {
         if (session.isOpen()) {
             session.getAsyncRemote().sendBinary(binaryData);
         }
     }
 
-    public void send(String textData) {
+    private void sendNow(String textData) {
         if (session.isOpen()) {
             session.getAsyncRemote().sendText(textData);
         }
@@ -101,9 +146,29 @@ public abstract class Client {
      *     <li>food chunks</li>
      * </ul>
      * It should be slightly larger than what the client can see on their screen.
+     * Called by the executor of this client.
+     *
+     * @return {@code null} if the client does not know where to look yet
      */
+    @Nullable
     public abstract BoundingBox getKnowledgeBox();
 
+    /**
+     * Get the head position of a snake as of the most recent game update. If the snake is not part
+     * of that update, the last head position this client has seen is returned instead. The live
+     * snake is never read, as this is called by the executor of this client.
+     *
+     * @return {@code null} if this client has not seen any head position yet
+     */
+    @Nullable
+    protected Vector getHeadPosition(Snake snake) {
+        final var info = snapshot == null ? null : snapshot.getSnakeInfo(snake);
+        if (info != null) {
+            lastHeadPosition = info.headPosition();
+        }
+        return lastHeadPosition;
+    }
+
     public void setViewBoxRatio(float ratio) {
         if (ratio > 0f && ratio < 3f) {
             viewBoxRatio = ratio;
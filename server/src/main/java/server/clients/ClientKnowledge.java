@@ -2,89 +2,124 @@ package server.clients;
 
 import game.snake.Snake;
 import game.snake.SnakeChunk;
-import game.world.HeatMap;
 import game.world.WorldChunk;
-import lombok.Setter;
+import game.world.WorldSnapshot;
+import game.world.WorldSnapshot.FoodInfo;
+import game.world.WorldSnapshot.SnakeChunkInfo;
 import math.BoundingBox;
 import server.protocol.GameUpdate;
 import server.protocol.SnakeNameUpdate;
 
+import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.function.Supplier;
 
+/**
+ * Tracks what a client already knows about the game. A {@link ClientKnowledge} only works with
+ * captured data, so it can be used by the client's executor without accessing game state.
+ * Snakes and snake chunks are only used as keys, their state is never read.
+ */
 public final class ClientKnowledge {
-    private final Set<SnakeChunk> knownSnakeChunks = Collections.newSetFromMap(new WeakHashMap<>());
+    /**
+     * Final snake chunks known to the client. Their captured state tells when to forget them.
+     */
+    private final Map<SnakeChunk, SnakeChunkInfo> knownSnakeChunks = new HashMap<>();
     private final Map<WorldChunk, Integer> knownFoodChunks = new HashMap<>();
-    private final Map<Snake, Integer> knownSnakes = new HashMap<>();
-    @Setter private Supplier<BoundingBox> boxSupplier;
+    /**
+     * Snakes known to the client by id and the number of updates since the client has last received
+     * an update about them (knowledge decay). Ids are dense, see {@link game.snake.SnakeRegistry}.
+     */
+    private Snake[] knownSnakes = new Snake[64];
+    private byte[] knowledgeDecay = new byte[64];
+    private final BitSet knownSnakeIds = new BitSet();
     private long lastHeatMapUpdate = System.currentTimeMillis();
     private GameUpdate nextGameUpdate = new GameUpdate();
     private SnakeNameUpdate nextNameUpdate = new SnakeNameUpdate();
 
-    ClientKnowledge(Supplier<BoundingBox> knowledgeBoxSupplier) {
-        boxSupplier = knowledgeBoxSupplier;
-    }
-
     /**
-     * Include a {@link SnakeChunk} in the next update.
+     * Include a captured {@link SnakeChunk} in the next update.
      * This will also add the corresponding snake to that update.
-     * Junk chunks will be ignored.
      */
-    public void addSnakeChunk(SnakeChunk chunk) {
-        if (chunk.isJunk() || knownSnakeChunks.contains(chunk)) {
+    public void addSnakeChunk(SnakeChunkInfo chunk) {
+        if (knownSnakeChunks.containsKey(chunk.chunk())) {
             // Client knows this chunk already but should still receive updates
             // about the snake it would have gotten an update about if this chunk
             // was part of the update.
-            addSnake(chunk.getSnake());
+            addSnake(chunk.snake());
             return;
         }
 
         nextGameUpdate.addSnakeChunk(chunk);
 
-        if (chunk.isFull()) {
+        if (chunk.full()) {
             // Full/final chunks don't require updates anymore.
-            knownSnakeChunks.add(chunk);
+            knownSnakeChunks.put(chunk.chunk(), chunk);
         }
     }
 
     public void addSnake(Snake snake) {
+        final var id = snake.id;
+        if (id >= knownSnakes.length) {
+            final var capacity = Math.max(2 * knownSnakes.length, id + 1);
+            knownSnakes = Arrays.copyOf(knownSnakes, capacity);
+            knowledgeDecay = Arrays.copyOf(knowledgeDecay, capacity);
+        }
+
         // reset knowledge-decay
-        final var previousValue = knownSnakes.put(snake, 0);
+        final var previousSnake = knownSnakes[id];
+        knownSnakes[id] = snake;
+        knowledgeDecay[id] = 0;
+        knownSnakeIds.set(id);
         nextGameUpdate.addSnake(snake);
 
-        if (previousValue == null) {
+        // the id might have belonged to a removed snake before
+        if (previousSnake != snake) {
             this.nextNameUpdate.addNameOf(snake);
         }
     }
 
     /**
-     * Add this food chunk to the next update if
+     * Add captured food to the next update if
      * - the client does not know it already or
      * - the food chunk contains changes not yet known by the client
+     * A client that knows an older version of the food chunk only receives the changes if possible.
      */
-    public void addFoodChunk(WorldChunk chunk) {
-        final int knownVersion = knownFoodChunks.getOrDefault(chunk, -1);
-        if (knownVersion != chunk.getFoodVersion()) {
-            nextGameUpdate.addFoodChunk(chunk);
+    public void addFoodChunk(FoodInfo food) {
+        final int knownVersion = knownFoodChunks.getOrDefault(food.chunk(), -1);
+        if (knownVersion != food.version()) {
+            if (!nextGameUpdate.addFoodChunk(food, knownVersion)) {
+                // the client keeps the version it knows
+                return;
+            }
         }
-        knownFoodChunks.put(chunk, chunk.getFoodVersion());
+        knownFoodChunks.put(food.chunk(), food.version());
     }
 
     /**
-     * Inform client about updated heat map. Will be included in the next {@code GameUpdate}
-     * if at least a second has passed since the last {@code GameUpdate}.
+     * Inform client about an updated heat map that does not change anymore. Will be included in the
+     * next {@code GameUpdate} if at least a second has passed since the last {@code GameUpdate}.
      */
-    public void updateHeatMap(HeatMap heatMap) {
+    public void updateHeatMap(ByteBuffer heatMap) {
+        if (isHeatMapUpdateDue()) {
+            nextGameUpdate.addHeatMap(heatMap);
+        }
+    }
+
+    private boolean isHeatMapUpdateDue() {
         final long now = System.currentTimeMillis();
         final long elapsed = now - lastHeatMapUpdate;
         if (elapsed >= 1000) {
-            nextGameUpdate.addHeatMap(heatMap);
             lastHeatMapUpdate = now;
+            return true;
         }
+        return false;
     }
 
-    public GameUpdate createNextGameUpdate(byte ticksSinceLastUpdate) {
-        cleanup();
+    /**
+     * @param snapshot     the snapshot the update is created from
+     * @param knowledgeBox the area the client should know about, knowledge outside of it is forgotten
+     */
+    public GameUpdate createNextGameUpdate(WorldSnapshot snapshot, BoundingBox knowledgeBox, byte ticksSinceLastUpdate) {
+        cleanup(snapshot, knowledgeBox);
 
         // Swap nextGameUpdate.
         final var update = this.nextGameUpdate;
@@ -106,31 +141,32 @@ public final class ClientKnowledge {
     private void augmentGameUpdate(GameUpdate update) {
         // The client should continue to receive updates about a known snake
         // for a short time (until knowledge decays) to improve client experience.
-        knownSnakes.keySet().forEach(update::addSnake);
+        for (int id = knownSnakeIds.nextSetBit(0); id >= 0; id = knownSnakeIds.nextSetBit(id + 1)) {
+            update.addSnake(knownSnakes[id]);
+        }
     }
 
-    private void cleanup() {
+    private void cleanup(WorldSnapshot snapshot, BoundingBox knowledgeBox) {
         // Update snake knowledge decay and remove snakes that are no longer
-        // relevant to the client. removeIf is used to efficiently iterate over,
-        // modify and remove entries from knownSnakes.
-        knownSnakes.entrySet().removeIf(entry -> {
-            final var updateContainsSnake = nextGameUpdate.hasSnake(entry.getKey());
-            final int newDecay = updateContainsSnake ? 0 : entry.getValue() + 1;
+        // relevant to the client.
+        for (int id = knownSnakeIds.nextSetBit(0); id >= 0; id = knownSnakeIds.nextSetBit(id + 1)) {
+            final var updateContainsSnake = nextGameUpdate.hasSnake(knownSnakes[id]);
+            final int newDecay = updateContainsSnake ? 0 : knowledgeDecay[id] + 1;
 
             if (newDecay > 5) {
                 // The client would not have received any updates about this snake within the last 5 updates.
                 // Thus, we can "safely" exclude it from further updates.
-                return true;
+                knownSnakeIds.clear(id);
+                knownSnakes[id] = null;
+                continue;
             }
 
             // Keep snake with updated knowledge-decay value.
-            entry.setValue(newDecay);
-            return false;
-        });
+            knowledgeDecay[id] = (byte) newDecay;
+        }
 
         // Remove old or invisible chunks.
-        final var knowledgeBox = boxSupplier.get();
         knownFoodChunks.keySet().removeIf(chunk -> !BoundingBox.intersect(knowledgeBox, chunk.box));
-        knownSnakeChunks.removeIf(chunk -> chunk.isJunk() || !BoundingBox.intersect(knowledgeBox, chunk.getBoundingBox()));
+        knownSnakeChunks.values().removeIf(chunk -> !snapshot.isActive(chunk) || !BoundingBox.intersect(knowledgeBox, chunk.box()));
     }
 }
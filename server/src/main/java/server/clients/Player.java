@@ -1,14 +1,21 @@
 package server.clients;
 
+import game.UserInput;
 import game.snake.Snake;
 import math.BoundingBox;
 import server.protocol.GameInfo;
 import util.JSON;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.websocket.Session;
+import java.util.function.Consumer;
 
 public class Player extends Client {
+    /**
+     * Receives the input of this player. By default, input is applied to the snake immediately.
+     */
+    private Consumer<UserInput> inputHandler = UserInput::apply;
 
     public Player(Snake snake, Session session) {
         super(session, snake);
@@ -16,17 +23,22 @@ public class Player extends Client {
     }
 
     @Override
+    @Nullable
     public BoundingBox getKnowledgeBox() {
         assert snake != null;
+        final var headPosition = getHeadPosition(snake);
         // TODO
-        return new BoundingBox(snake.getHeadPosition(), viewBoxRatio * 48f, 48f);
+        return headPosition == null ? null : new BoundingBox(headPosition, viewBoxRatio * 48f, 48f);
+    }
+
+    public void setInputHandler(Consumer<UserInput> inputHandler) {
+        this.inputHandler = inputHandler;
     }
 
     @Override
     public void handleUserInput(float alpha, boolean fast) {
         assert snake != null;
-        snake.setTargetDirection(alpha);
-        snake.setUserFast(fast);
+        inputHandler.accept(new UserInput(snake, alpha, fast));
     }
 
     public String getName() {
@@ -11,6 +11,7 @@ import util.JSON;
 import javax.annotation.Nullable;
 import javax.websocket.CloseReason;
 import java.io.IOException;
+import java.util.Objects;
 
 public class Spectator extends Client {
     private static final Logger LOGGER = LoggerFactory.getLogger(Spectator.class);
@@ -18,14 +19,18 @@ public class Spectator extends Client {
     private Vector position;
 
     private Spectator(Player player, Vector position, @Nullable Snake snake) {
-        super(player.session, player.knowledge, snake);
+        super(player, snake);
         this.position = position;
-        this.viewBoxRatio = player.viewBoxRatio;
         sendInitialMessage();
     }
 
-    public static Spectator createFor(Snake snake, Player player) {
-        return new Spectator(player, snake.getHeadPosition(), snake);
+    /**
+     * Must be called by the executor of the player.
+     */
+    public static Spectator createFor(@Nullable Snake snake, Player player) {
+        final var position = player.getHeadPosition(snake == null ? player.getSnake() : snake);
+        // a player that has never received an update looks at the center of the world
+        return new Spectator(player, position == null ? Vector.ORIGIN : position, snake);
     }
 
     private void sendInitialMessage() {
@@ -39,14 +44,14 @@ public class Spectator extends Client {
             return;
         }
 
-        if (snake == null) {
-            position = this.snake.getHeadPosition();
+        if (snake == null && this.snake != null) {
+            position = Objects.requireNonNullElse(getHeadPosition(this.snake), position);
         }
 
         this.snake = snake;
 
         if (this.snake != null) {
-            position = this.snake.getHeadPosition();
+            position = Objects.requireNonNullElse(getHeadPosition(this.snake), position);
             send(JSON.stringify(new SpectatorChange(this.snake)));
         } else {
             send(JSON.stringify(new SpectatorChange(position)));
@@ -55,7 +60,7 @@ public class Spectator extends Client {
 
     @Override
     public BoundingBox getKnowledgeBox() {
-        final var center = (snake == null) ? position : snake.getHeadPosition();
+        final var center = (snake == null) ? position : Objects.requireNonNullElse(getHeadPosition(snake), position);
         return new BoundingBox(center, viewBoxRatio * 48f, 48f);
     }
 
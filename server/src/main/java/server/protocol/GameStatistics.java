@@ -1,31 +1,38 @@
 package server.protocol;
 
 import game.Game;
-import game.snake.Snake;
+import game.world.WorldSnapshot.SnakeInfo;
 import server.clients.Player;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
 public class GameStatistics extends ServerToClientJSONMessage {
     final List<LeaderboardEntry> leaderboard;
     final int numPlayers;
     final int numBots;
 
+    /**
+     * Gather statistics from the latest snapshot of the game. Can be called from any thread.
+     */
     public GameStatistics(Game game) {
+        final var snapshot = game.getSnapshot();
+
         leaderboard = game.streamClients()
                 .filter(Player.class::isInstance)
                 .map(Player.class::cast)
-                .map(Player::getSnake)
-                .filter(Snake::isAlive)
-                .sorted(Comparator.comparing(Snake::getLength).reversed())
+                .map(player -> snapshot.getSnakeInfo(player.getSnake()))
+                .filter(Objects::nonNull)
+                .filter(SnakeInfo::alive)
+                .sorted(Comparator.comparing(SnakeInfo::length).reversed())
                 .limit(10)
                 .map(LeaderboardEntry::new)
                 .toList();
 
         numBots = game.getNumberOfBots();
         final int numNPCs = numBots + 1; // NPCs: bots and boundary snake
-        numPlayers = game.getSnakes().size() - numNPCs;
+        numPlayers = snapshot.getSnakes().size() - numNPCs;
     }
 
     private static class LeaderboardEntry {
@@ -34,11 +41,11 @@ public class GameStatistics extends ServerToClientJSONMessage {
         final int length;
         final int kills;
 
-        private LeaderboardEntry(Snake snake) {
-            name = snake.name;
-            length = (int) snake.getLength();
-            id = snake.id;
-            kills = snake.getKills();
+        private LeaderboardEntry(SnakeInfo info) {
+            name = info.snake().name;
+            length = (int) info.length();
+            id = info.snake().id;
+            kills = info.kills();
         }
     }
 }
@@ -1,88 +1,152 @@
 package server.protocol;
 
 import game.snake.Snake;
-import game.snake.SnakeChunk;
-import game.world.HeatMap;
-import game.world.WorldChunk;
+import game.world.WorldSnapshot;
+import game.world.WorldSnapshot.FoodInfo;
+import game.world.WorldSnapshot.SnakeChunkInfo;
 
 import java.nio.ByteBuffer;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
 
 public class GameUpdate {
     public static final int HEADER_SIZE = 5;
     private static final int ITEM_LIMIT = 255;
-    private final List<ByteBuffer> snakeChunkBuffers = new LinkedList<>();
+    private final List<SnakeChunkInfo> snakeChunks = new LinkedList<>();
     private final List<ByteBuffer> foodChunkBuffers = new LinkedList<>();
-    private final Set<Snake> snakes = new HashSet<>();
+    /**
+     * Snakes of this update in the order they have been added. Ids are only reused after a snake
+     * has been removed from the game, so the ids of the snakes of an update are distinct.
+     */
+    private Snake[] snakes = new Snake[16];
+    private int numberOfSnakes = 0;
+    private final BitSet snakeIds = new BitSet();
     private ByteBuffer heatMap = null;
     private int snakeChunkBufferSize = 0;
     private int foodChunkBufferSize = 0;
     private byte ticksSinceLastUpdate = 0;
+    private ByteBuffer frozenSnakeData = null;
+    private int numberOfSnakeInfos = 0;
 
-    public void addSnakeChunk(SnakeChunk chunk) {
-        if (!chunk.isEmpty()) {
-            if (snakeChunkBuffers.size() < ITEM_LIMIT) {
-                snakeChunkBuffers.add(chunk.getBuffer());
-                snakeChunkBufferSize += chunk.getByteSize();
+    public void addSnakeChunk(SnakeChunkInfo chunk) {
+        assert !isFrozen();
+
+        if (!chunk.empty()) {
+            if (snakeChunks.size() < ITEM_LIMIT) {
+                snakeChunks.add(chunk);
+                snakeChunkBufferSize += chunk.byteSize();
             }
         }
-        addSnake(chunk.getSnake());
+        addSnake(chunk.snake());
+    }
+
+    public void addFoodChunk(FoodInfo food) {
+        addFoodChunk(food, -1);
     }
 
-    public void addFoodChunk(WorldChunk chunk) {
+    /**
+     * Add the food of a chunk for a client that knows the given version of it,
+     * see {@link FoodInfo#data(int)}.
+     *
+     * @return {@code false} if the food has been left out because the update is full
+     */
+    public boolean addFoodChunk(FoodInfo food, int knownVersion) {
+        assert !isFrozen();
+
         if (foodChunkBuffers.size() >= ITEM_LIMIT) {
-            return;
+            return false;
         }
-        final var encodedFoodChunk = chunk.getEncodedFoodData();
+        final var encodedFoodChunk = food.data(knownVersion);
         foodChunkBuffers.add(encodedFoodChunk);
-        foodChunkBufferSize += encodedFoodChunk.capacity();
+        foodChunkBufferSize += encodedFoodChunk.remaining();
+        return true;
     }
 
     public void addSnake(Snake snake) {
-        if (snakes.size() >= ITEM_LIMIT) {
+        assert !isFrozen();
+
+        if (numberOfSnakes >= ITEM_LIMIT || snakeIds.get(snake.id)) {
             return;
         }
-        snakes.add(snake);
+
+        if (numberOfSnakes == snakes.length) {
+            snakes = Arrays.copyOf(snakes, Math.min(2 * numberOfSnakes, ITEM_LIMIT));
+        }
+        snakes[numberOfSnakes++] = snake;
+        snakeIds.set(snake.id);
     }
 
     public boolean hasSnake(Snake snake) {
-        return snakes.contains(snake);
+        return snakeIds.get(snake.id);
     }
 
-    public void addHeatMap(HeatMap heatMap) {
+    /**
+     * Add an encoded heat map, e.g. from a {@link WorldSnapshot}. The data must not change afterwards.
+     */
+    public void addHeatMap(ByteBuffer heatMap) {
         assert this.heatMap == null;
-        this.heatMap = heatMap.getBuffer();
+        assert !isFrozen();
+
+        this.heatMap = heatMap;
+    }
+
+    /**
+     * Capture the data of this update that can still change afterwards, i.e. snake infos
+     * and snake chunk offsets, from the given snapshot. Snakes that are not part of the
+     * snapshot anymore will be left out. No data can be added to a frozen update.
+     */
+    public void freeze(WorldSnapshot snapshot) {
+        if (isFrozen()) {
+            return;
+        }
+
+        final var buffer = ByteBuffer.allocate(numberOfSnakes * Snake.INFO_BYTE_SIZE + snakeChunkBufferSize);
+        for (int i = 0; i < numberOfSnakes; i++) {
+            if (snapshot.writeSnakeInfo(snakes[i], buffer)) {
+                numberOfSnakeInfos++;
+            }
+        }
+        snakeChunks.forEach(chunk -> chunk.writeTo(buffer, snapshot));
+        frozenSnakeData = buffer.flip();
+    }
+
+    public boolean isFrozen() {
+        return frozenSnakeData != null;
     }
 
+    /**
+     * Encode a frozen update, see {@link #freeze(WorldSnapshot)}.
+     */
     public ByteBuffer createUpdateBuffer() {
-        final int snakeInfoSize = snakes.size() * Snake.INFO_BYTE_SIZE;
-        int bufferSize = HEADER_SIZE + snakeInfoSize + snakeChunkBufferSize + foodChunkBufferSize;
+        if (!isFrozen()) {
+            throw new IllegalStateException("The update has not been frozen.");
+        }
+
+        int bufferSize = HEADER_SIZE + frozenSnakeData.remaining() + foodChunkBufferSize;
         if (heatMap != null) {
-            bufferSize += heatMap.capacity();
+            bufferSize += heatMap.remaining();
         }
         ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
 
         assert ticksSinceLastUpdate >= 0; // TODO: should be > 0
-        assert snakes.size() < 256;
-        assert snakeChunkBuffers.size() < 256;
+        assert numberOfSnakeInfos < 256;
+        assert snakeChunks.size() < 256;
         assert foodChunkBuffers.size() < 256;
 
         // update header
         buffer.put(ticksSinceLastUpdate);
-        buffer.put((byte) snakes.size());
-        buffer.put((byte) snakeChunkBuffers.size());
+        buffer.put((byte) numberOfSnakeInfos);
+        buffer.put((byte) snakeChunks.size());
         buffer.put((byte) foodChunkBuffers.size());
         buffer.put((byte) (heatMap == null ? 0 : 1));
 
         // add data
-        snakes.forEach(snake -> buffer.put(snake.encodeInfo()));
-        snakeChunkBuffers.forEach(buffer::put);
+        buffer.put(frozenSnakeData.duplicate());
         foodChunkBuffers.forEach(buffer::put);
         if (heatMap != null) {
-            buffer.put(heatMap);
+            buffer.put(heatMap.duplicate());
         }
 
         assert buffer.position() == bufferSize;
@@ -90,7 +154,7 @@ public class GameUpdate {
     }
 
     public boolean isEmpty() {
-        return snakes.isEmpty() && foodChunkBuffers.isEmpty();
+        return numberOfSnakes == 0 && foodChunkBuffers.isEmpty();
     }
 
     public void setTicksSinceLastUpdate(byte ticks) {
@@ -100,6 +164,6 @@ public class GameUpdate {
 
     @Override
     public String toString() {
-        return "GameUpdate { snakes: " + snakes.size() + ", foodChunks: " + foodChunkBuffers.size() + " }";
+        return "GameUpdate { snakes: " + numberOfSnakes + ", foodChunks: " + foodChunkBuffers.size() + " }";
     }
 }
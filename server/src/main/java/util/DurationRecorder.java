@@ -0,0 +1,66 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Records durations in nanoseconds and computes percentiles over all recorded samples.
+ */
+public final class DurationRecorder {
+    private long[] samples = new long[1024];
+    private int count = 0;
+
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, 2 * count);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Measure the execution time of the given action.
+     */
+    public void measure(Runnable action) {
+        final long start = System.nanoTime();
+        action.run();
+        record(System.nanoTime() - start);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Get the smallest sample that is greater than or equal to {@code p} percent of all samples.
+     *
+     * @param p percentile in [0, 100]
+     */
+    public long percentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        final var sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        final int rank = (int) Math.ceil(p / 100.0 * count);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    public long max() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    public long total() {
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return total;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+}
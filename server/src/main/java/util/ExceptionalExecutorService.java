@@ -6,9 +6,21 @@ import java.util.concurrent.*;
 import java.util.function.Consumer;
 
 public class ExceptionalExecutorService implements ScheduledExecutorService {
-    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    private final ScheduledExecutorService executor;
     private Consumer<Throwable> exceptionOrErrorHandler;
 
+    public ExceptionalExecutorService() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    /**
+     * Create an executor service that runs all tasks on a single, named thread
+     * with the given priority.
+     */
+    public ExceptionalExecutorService(String threadName, int priority) {
+        executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(threadName, priority, false));
+    }
+
     public void onExceptionOrErrorDo(Consumer<Throwable> exceptionHandler) {
         this.exceptionOrErrorHandler = exceptionHandler;
     }
@@ -0,0 +1,29 @@
+package util;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates threads with a common name prefix and a fixed priority.
+ */
+public class NamedThreadFactory implements ThreadFactory {
+    private final String name;
+    private final int priority;
+    private final boolean daemon;
+    private final AtomicInteger counter = new AtomicInteger(0);
+
+    public NamedThreadFactory(String name, int priority, boolean daemon) {
+        assert Thread.MIN_PRIORITY <= priority && priority <= Thread.MAX_PRIORITY;
+        this.name = name;
+        this.priority = priority;
+        this.daemon = daemon;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        final var thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+        thread.setPriority(priority);
+        thread.setDaemon(daemon);
+        return thread;
+    }
+}
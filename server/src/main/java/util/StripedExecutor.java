@@ -0,0 +1,72 @@
+package util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on a fixed number of single-threaded lanes. All tasks submitted with the same
+ * key run on the same lane and thus in submission order, while tasks with different keys
+ * can run in parallel.
+ */
+public class StripedExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StripedExecutor.class);
+    private final ExecutorService[] lanes;
+
+    public StripedExecutor(String name, int numberOfLanes, int priority) {
+        if (numberOfLanes <= 0) {
+            throw new IllegalArgumentException();
+        }
+
+        lanes = new ExecutorService[numberOfLanes];
+
+        for (int i = 0; i < numberOfLanes; i++) {
+            final var threadFactory = new NamedThreadFactory(name + "-" + i, priority, true);
+            lanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    /**
+     * Run the task on the lane of the given key. Exceptions thrown by the task are logged
+     * and do not affect other tasks.
+     */
+    public void execute(Object key, Runnable task) {
+        final var lane = lanes[Math.floorMod(key.hashCode(), lanes.length)];
+
+        try {
+            lane.execute(() -> {
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    LOGGER.error("Task failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The executor has been shut down, tasks are no longer relevant.
+            LOGGER.debug("Task rejected", e);
+        }
+    }
+
+    public void shutdown() {
+        for (final var lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+
+        for (final var lane : lanes) {
+            final long remaining = deadline - System.nanoTime();
+            if (!lane.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
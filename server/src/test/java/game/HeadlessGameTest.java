@@ -0,0 +1,31 @@
+package game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeadlessGameTest {
+    @Test
+    void testRunReportsAllPhases() {
+        final var config = new GameConfig(new GameConfig.ChunkInfo(32.0, 8));
+        final var game = new HeadlessGame(config, TickExecutor.sequential(), 5, 2, new Random(1));
+
+        final var report = game.run(60);
+        game.stop();
+
+        assertEquals(60, report.ticks());
+        assertEquals(60, report.tickDurations().count());
+        assertTrue(report.ticksPerSecond() > 0.0);
+        assertTrue(report.peakSnakeChunks() >= report.aliveSnakes());
+
+        for (final var phase : TickPhase.values()) {
+            assertEquals(60, report.phases().get(phase.name()).count());
+        }
+        assertEquals(60, report.phases().get("CLIENT_UPDATES").count());
+        assertEquals(2, report.phases().get(PeriodicTask.REMOVE_DEAD_SNAKES.name()).count());
+        assertEquals(1, report.phases().get(PeriodicTask.SPAWN_BOTS.name()).count());
+        assertEquals(2, report.phases().get(PeriodicTask.CHECKSUM.name()).count());
+    }
+}
@@ -0,0 +1,95 @@
+package game;
+
+import game.snake.Snake;
+import game.snake.TestSnakeFactory;
+import game.world.Food;
+import game.world.TestGame;
+import game.world.World;
+import math.Direction;
+import math.Vector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelTickTest {
+    private static final int NUMBER_OF_SNAKES = 64;
+    private static final int NUMBER_OF_TICKS = 400;
+
+    @AfterAll
+    static void cleanup() {
+        World.setRandomForTests(null);
+    }
+
+    @Test
+    void testParallelTickEqualsSequentialTick() {
+        final var sequential = simulate(TickExecutor.sequential(), 1234);
+        final var parallel = simulate(TickExecutor.create(4), 1234);
+
+        assertFalse(sequential.game.collisions.isEmpty(), "Test setup should cause collisions.");
+        assertEquals(sequential.game.collisions.size(), parallel.game.collisions.size());
+
+        for (int i = 0; i < sequential.game.collisions.size(); i++) {
+            final var expected = sequential.game.collisions.get(i);
+            final var actual = parallel.game.collisions.get(i);
+            assertEquals(expected.snake().id, actual.snake().id);
+        }
+
+        for (int i = 0; i < NUMBER_OF_SNAKES; i++) {
+            final var expected = sequential.snakes.get(i);
+            final var actual = parallel.snakes.get(i);
+            assertEquals(expected.isAlive(), actual.isAlive());
+            assertEquals(expected.getLength(), actual.getLength());
+            assertEquals(expected.getWidth(), actual.getWidth());
+            assertEquals(expected.getKills(), actual.getKills());
+            assertEquals(expected.getHeadPosition().x, actual.getHeadPosition().x);
+            assertEquals(expected.getHeadPosition().y, actual.getHeadPosition().y);
+        }
+
+        final var expectedChunks = sequential.game.world.chunks.stream().toList();
+        final var actualChunks = parallel.game.world.chunks.stream().toList();
+
+        for (int i = 0; i < expectedChunks.size(); i++) {
+            assertEquals(expectedChunks.get(i).getFoodCount(), actualChunks.get(i).getFoodCount());
+            assertEquals(expectedChunks.get(i).getSnakeChunkCount(), actualChunks.get(i).getSnakeChunkCount());
+        }
+    }
+
+    private static Simulation simulate(TickExecutor tickExecutor, long seed) {
+        final var random = new Random(seed);
+        World.setRandomForTests(new Random(seed));
+        final var world = new World(new GameConfig(), false);
+        final var game = new TestGame(world, tickExecutor);
+        final var snakes = new ArrayList<Snake>(NUMBER_OF_SNAKES);
+
+        // a crowded center with plenty of food
+        for (int i = 0; i < NUMBER_OF_SNAKES; i++) {
+            final var position = new Vector(random, 40.0);
+            final var snake = TestSnakeFactory.createSnake(position, Direction.getRandom(random), world);
+            snake.grow(random.nextDouble() * 64.0);
+            snakes.add(snake);
+            game.addSnake(snake);
+        }
+
+        for (int i = 0; i < 1024; i++) {
+            Food.spawnAt(new Vector(random, 60.0), world, Food.Size.MEDIUM, (byte) 0);
+        }
+
+        for (int t = 0; t < NUMBER_OF_TICKS; t++) {
+            for (final var snake : snakes) {
+                snake.setTargetDirection(Direction.getRandom(random));
+                snake.setUserFast(random.nextDouble() < 0.3);
+            }
+            game.tickN(1, false);
+        }
+
+        return new Simulation(game, snakes);
+    }
+
+    private record Simulation(TestGame game, List<Snake> snakes) {
+    }
+}
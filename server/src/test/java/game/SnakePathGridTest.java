@@ -0,0 +1,115 @@
+package game;
+
+import game.snake.Snake;
+import game.snake.SnakeChunk;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnakePathGridTest {
+    @Test
+    void testGridFindsSameCollisionsAsBruteForce() {
+        final var config = new GameConfig(new GameConfig.ChunkInfo(32.0, 8));
+        final var game = new ComparingGame(config);
+        game.run(150);
+        game.stop();
+
+        assertTrue(game.comparisons > 1000);
+        assertTrue(game.collisions > 0, "The test should cover some collisions.");
+    }
+
+    /**
+     * Compares the results of the grid with a brute-force search right before collisions get handled.
+     */
+    private static class ComparingGame extends HeadlessGame {
+        private final SnakePathGrid grid;
+        private int comparisons = 0;
+        private int collisions = 0;
+
+        ComparingGame(GameConfig config) {
+            super(config, TickExecutor.sequential(), 40, 0, new Random(7));
+            grid = new SnakePathGrid(config, world.box);
+        }
+
+        @Override
+        protected void runPhase(TickPhase phase, Runnable action) {
+            if (phase == TickPhase.COLLISIONS) {
+                final var aliveSnakes = snakes.stream().filter(Snake::isAlive).toList();
+                grid.rebuild(aliveSnakes);
+
+                for (final var snake : aliveSnakes) {
+                    final var expected = findCollidingChunks(snake);
+                    final var actual = new HashSet<>(grid.findCollidingChunks(snake));
+                    assertEquals(expected, actual);
+                    comparisons++;
+                    collisions += expected.isEmpty() ? 0 : 1;
+                }
+            }
+
+            super.runPhase(phase, action);
+        }
+
+        /**
+         * Test the capsules of all active snake chunks.
+         */
+        private Set<SnakeChunk> findCollidingChunks(Snake snake) {
+            return snakes.stream()
+                    .filter(other -> other != snake && other.isAlive())
+                    .flatMap(Snake::streamSnakeChunks)
+                    .filter(chunk -> !chunk.isJunk())
+                    .filter(chunk -> collides(snake, chunk))
+                    .collect(Collectors.toSet());
+        }
+
+        private static boolean collides(Snake snake, SnakeChunk chunk) {
+            final var radius1 = 0.5 * snake.getWidth();
+            final var head = snake.getHeadPosition();
+            final var other = chunk.getSnake();
+            final var segments = chunk.getPathSegments();
+            final var chunkEndOffset = chunk.getOffset() + chunk.getDataLength();
+
+            for (int i = 0; i < segments.size(); i++) {
+                var ax = segments.getX(i);
+                var ay = segments.getY(i);
+                final var bx = segments.getX(i + 1);
+                final var by = segments.getY(i + 1);
+                var offsetA = chunkEndOffset - segments.getPathLength(i);
+                final var offsetB = chunkEndOffset - segments.getPathLength(i + 1);
+
+                if (offsetB >= other.getLength()) {
+                    continue;
+                }
+                if (offsetA > other.getLength()) {
+                    // only the part up to the tail is active
+                    final var s = (offsetA - other.getLength()) / (offsetA - offsetB);
+                    ax += s * (bx - ax);
+                    ay += s * (by - ay);
+                    offsetA = other.getLength();
+                }
+
+                // closest point on the segment
+                final var abX = bx - ax;
+                final var abY = by - ay;
+                final var length2 = abX * abX + abY * abY;
+                final var t = length2 == 0.0 ? 0.0 :
+                        Math.max(0.0, Math.min(1.0, ((head.x - ax) * abX + (head.y - ay) * abY) / length2));
+                final var offset = offsetA + t * (offsetB - offsetA);
+                final var dx = head.x - (ax + t * abX);
+                final var dy = head.y - (ay + t * abY);
+
+                final var r2 = 0.5 * other.getWidthAt(offset);
+                if (2 * r2 >= 1e-2 && dx * dx + dy * dy < (radius1 + r2) * (radius1 + r2)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
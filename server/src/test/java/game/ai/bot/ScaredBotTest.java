@@ -6,6 +6,9 @@ import game.world.World;
 import math.Vector;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ScaredBotTest {
@@ -39,4 +42,29 @@ public class ScaredBotTest {
             assertTrue(botSnake.getHeadPosition().y < frozenSnake.getHeadPosition().y);
         }
     }
+
+    @Test
+    void testOnlySnakesWithinTheRadiusAreInTheVicinity() {
+        final var world = new World(new GameConfig(), false);
+
+        final var botSnake = TestSnakeFactory.createSnakeFromTo(
+                new Vector(4.0, 16.0),
+                new Vector(16.0, 16.0),
+                world
+        );
+        final var nearSnake = TestSnakeFactory.createSnakeFromTo(
+                new Vector(16.0, 40.0),
+                new Vector(16.0, 28.0),
+                world
+        );
+        // head in a neighboring chunk but further away than the radius
+        TestSnakeFactory.createSnakeFromTo(
+                new Vector(60.0, 16.0),
+                new Vector(48.0, 16.0),
+                world
+        );
+        final var bot = new ScaredBot(botSnake, world);
+
+        assertEquals(Set.of(nearSnake), bot.getSnakesInVicinity(20.0));
+    }
 }
@@ -0,0 +1,105 @@
+package game.replay;
+
+import game.Game;
+import game.GameConfig;
+import game.TickExecutor;
+import game.UserInput;
+import game.snake.Snake;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplayGameTest {
+    private static final int TICKS = 400;
+
+    @Test
+    void testReplayMatchesRecording() throws IOException {
+        final var out = new ByteArrayOutputStream();
+        final var game = new RecordedGame(out);
+        final var expectedChecksum = game.play();
+
+        // replay with a different tick parallelism
+        final var replay = new ReplayGame(read(out.toByteArray()), TickExecutor.create(2));
+        final var result = replay.run();
+        replay.stop();
+
+        assertEquals(TICKS, result.ticks());
+        assertEquals(TICKS / 25, result.verifiedChecksums());
+        assertEquals(expectedChecksum, result.finalChecksum());
+    }
+
+    @Test
+    void testDivergingReplayFails() throws IOException {
+        final var out = new ByteArrayOutputStream();
+        new RecordedGame(out).play();
+
+        // change the seed
+        final var data = out.toByteArray();
+        data[12] ^= 1;
+
+        final var replay = new ReplayGame(read(data), TickExecutor.sequential());
+        final var exception = assertThrows(IllegalStateException.class, replay::run);
+        replay.stop();
+        assertTrue(exception.getMessage().startsWith("Replay diverged"));
+    }
+
+    @Test
+    void testTruncatedLogEndsWithLastCompleteEvent() throws IOException {
+        final var out = new ByteArrayOutputStream();
+        new RecordedGame(out).play();
+
+        final var data = out.toByteArray();
+        final var log = read(java.util.Arrays.copyOf(data, data.length - 3));
+        GameLog.Event event;
+        GameLog.Event last = null;
+        while ((event = log.next()) != null) {
+            last = event;
+        }
+
+        assertNotNull(last);
+        assertFalse(last instanceof GameLog.End);
+    }
+
+    private static GameLog.Reader read(byte[] data) throws IOException {
+        return new GameLog.Reader(new ByteArrayInputStream(data));
+    }
+
+    private static class RecordedGame extends Game {
+        RecordedGame(ByteArrayOutputStream out) {
+            super(new GameConfig(new GameConfig.ChunkInfo(32.0, 12)), 1234L, TickExecutor.sequential());
+            startRecording(out);
+        }
+
+        /**
+         * Let players join, steer and leave, then return the final checksum.
+         */
+        long play() {
+            final var random = new Random(5);
+            final var players = new ArrayList<Snake>();
+
+            for (int tick = 0; tick < TICKS; tick++) {
+                if (tick % 80 == 10) {
+                    players.add(addPlayerSnake("Player"));
+                }
+                if (tick % 120 == 100) {
+                    removePlayerSnake(players.remove(0));
+                }
+                for (final var snake : players) {
+                    final var alpha = (float) (random.nextDouble() * 2.0 * Math.PI - Math.PI);
+                    queueUserInput(new UserInput(snake, alpha, random.nextDouble() < 0.2));
+                }
+                update();
+            }
+
+            final var checksum = computeChecksum();
+            stop();
+            return checksum;
+        }
+    }
+}
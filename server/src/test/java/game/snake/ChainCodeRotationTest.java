@@ -0,0 +1,63 @@
+package game.snake;
+
+import game.GameConfig;
+import game.world.World;
+import math.Direction;
+import math.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChainCodeRotationTest {
+    private final ChainCodeCoder coder = new ChainCodeCoder(new GameConfig());
+
+    /**
+     * A chunk has at most one rotation per chain code. Rotating incrementally must stay close to
+     * computing cosine and sine of the accumulated direction for far more rotations than that.
+     */
+    @Test
+    void testDriftIsBounded() {
+        final var random = new Random(11);
+        final var vector = new double[]{Math.cos(1.0), Math.sin(1.0)};
+        var direction = 1.0;
+
+        for (int rotations = 1; rotations <= 100_000; rotations++) {
+            final var code = 1 + random.nextInt(ChainCodeCoder.DIRECTION_MASK);
+            direction += coder.decodeDirectionChange(code);
+            coder.rotate(vector, 0, code, rotations);
+
+            assertEquals(Math.cos(direction), vector[0], 1e-10);
+            assertEquals(Math.sin(direction), vector[1], 1e-10);
+        }
+
+        final var length = Math.hypot(vector[0], vector[1]);
+        assertEquals(1.0, length, 1e-14);
+    }
+
+    @Test
+    void testHeadMovesAlongChunkPath() {
+        final var world = new World(new GameConfig(), false, 3L);
+        final var snake = TestSnakeFactory.createSnake(world);
+        final var random = new Random(7);
+
+        for (int tick = 0; tick < 5000; tick++) {
+            final var head = snake.getHeadPosition();
+            snake.setTargetDirection(Vector.distance(head, Vector.ORIGIN) > 100.0
+                    ? Direction.getFromTo(head, Vector.ORIGIN) : Direction.getRandom(random));
+            snake.setUserFast(random.nextDouble() < 0.3);
+            snake.tick();
+
+            final var points = snake.currentChunk.getPathPoints();
+            if (points.size() > 1) {
+                final var last = points.size() - 1;
+                assertEquals(snake.getHeadPosition().x, points.getX(last));
+                assertEquals(snake.getHeadPosition().y, points.getY(last));
+            } else {
+                assertTrue(snake.currentChunk.isEmpty());
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package game.snake;
+
+import game.GameConfig;
+import game.world.World;
+import math.Direction;
+import math.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompactSnakeChunkTest {
+    @Test
+    void testDecodedPathMatchesRecordedPath() {
+        final var decoded = createSnake(new GameConfig());
+        final var compact = createSnake(new GameConfig(new GameConfig.ChunkInfo(32.0, 16), new GameConfig.SnakeInfo(0.3, 2)));
+        final var random = new Random(99);
+
+        for (int tick = 0; tick < 4000; tick++) {
+            final var direction = Direction.getRandom(random);
+            final var fast = tick > 2000 && random.nextDouble() < 0.5;
+            for (final var snake : List.of(decoded, compact)) {
+                final var head = snake.getHeadPosition();
+                if (Vector.distance(head, Vector.ORIGIN) > 100.0) {
+                    // stay within the world
+                    snake.setTargetDirection(Direction.getFromTo(head, Vector.ORIGIN));
+                } else if (tick % 10 == 0) {
+                    snake.setTargetDirection(direction);
+                }
+                snake.setUserFast(fast);
+                snake.tick();
+            }
+
+            assertEquals(0.0, Vector.distance(decoded.getTailPosition(), compact.getTailPosition()));
+
+            if (tick % 100 == 0) {
+                assertSamePath(decoded, compact);
+            }
+        }
+
+        assertTrue(compact.getNumberOfChunks() > 4);
+    }
+
+    private static Snake createSnake(GameConfig config) {
+        final var snake = SnakeFactory.createSnake(new Vector(0, 0), 0.0, new World(config, false, 1L), "TestSnake");
+        snake.grow(300.0);
+        return snake;
+    }
+
+    private static void assertSamePath(Snake expected, Snake actual) {
+        final var expectedChunks = expected.getSnakeChunks();
+        final var actualChunks = actual.getSnakeChunks();
+        assertEquals(expectedChunks.size(), actualChunks.size());
+
+        for (int i = 0; i < expectedChunks.size(); i++) {
+            final var e = expectedChunks.get(i).getPathPoints();
+            final var a = actualChunks.get(i).getPathPoints();
+            assertEquals(e.size(), a.size());
+            for (int j = 0; j < e.size(); j++) {
+                assertEquals(e.getX(j), a.getX(j));
+                assertEquals(e.getY(j), a.getY(j));
+                assertEquals(e.getPathLength(j), a.getPathLength(j));
+            }
+        }
+
+        for (var offset = 0.0; offset < expected.getLength(); offset += 1.3) {
+            final var e = expected.getPositionAt(offset);
+            final var a = actual.getPositionAt(offset);
+            assertEquals(e == null, a == null);
+            if (e != null) {
+                assertEquals(0.0, Vector.distance(e, a));
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package game.snake;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PathRingTest {
+    @Test
+    void testIndicesStayValidWhileGrowing() {
+        final var ring = new PathRing();
+        long released = 0;
+
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i, ring.add(i, -i, 0.5 * i));
+
+            if (i % 7 == 0) {
+                // keep a growing window of points
+                released = Math.min(released + 3, i + 1);
+                ring.release(released);
+            }
+
+            for (long j = released; j <= i; j += 97) {
+                assertEquals(j, ring.getX(j));
+                assertEquals(-j, ring.getY(j));
+                assertEquals(0.5 * j, ring.getPathLength(j));
+            }
+        }
+
+        assertFalse(ring.isRetained(released - 1));
+        assertTrue(ring.isRetained(released));
+    }
+
+    @Test
+    void testReleasedChunkHasNoPoints() {
+        final var ring = new PathRing();
+        final var points = new PathPoints(ring, 1.0, 2.0);
+        points.add(2.0, 2.0, 1.0);
+        final var next = new PathPoints(ring, 2.0, 2.0);
+
+        assertEquals(2, points.size());
+        points.release();
+        assertEquals(0, points.size());
+        assertEquals(1, next.size());
+        assertEquals(2.0, next.getX(0));
+    }
+}
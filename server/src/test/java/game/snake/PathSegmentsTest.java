@@ -0,0 +1,62 @@
+package game.snake;
+
+import game.world.TestGame;
+import math.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PathSegmentsTest {
+    @Test
+    void testSegmentsContainAllPathPoints() {
+        final var game = new TestGame();
+        final var snake = TestSnakeFactory.createSnake(Vector.ORIGIN, 0.0, game.world);
+        game.addSnake(snake);
+        snake.grow(200.0);
+
+        final var random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            if (i % 20 == 0) {
+                snake.setTargetDirection(Math.PI * (2.0 * random.nextDouble() - 1.0));
+                snake.setUserFast(random.nextBoolean());
+            }
+            game.tickN(1, false);
+        }
+
+        assertTrue(snake.getNumberOfChunks() > 2);
+        snake.streamSnakeChunks().filter(chunk -> !chunk.isEmpty()).forEach(chunk -> {
+            final var segments = chunk.getPathSegments();
+            assertTrue(segments.size() > 0);
+            assertEquals(chunk.getDataLength(), segments.getPathLength(segments.size()), 1e-9);
+
+            chunk.getPathData().forEach(pd -> {
+                final var offsetInChunk = pd.getOffsetInChunk();
+                assertTrue(distanceToSegments(segments, chunk.getDataLength(), pd.point, offsetInChunk) < 1e-6);
+            });
+        });
+    }
+
+    /**
+     * Distance between the given point and the position of the segments at the given offset.
+     */
+    private static double distanceToSegments(PathSegments segments, double dataLength, Vector point, double offset) {
+        final var pathLength = dataLength - offset;
+
+        for (int i = 0; i < segments.size(); i++) {
+            final var l0 = segments.getPathLength(i);
+            final var l1 = segments.getPathLength(i + 1);
+
+            if (l0 - 1e-9 <= pathLength && pathLength <= l1 + 1e-9) {
+                final var t = l1 > l0 ? (pathLength - l0) / (l1 - l0) : 0.0;
+                final var x = segments.getX(i) + t * (segments.getX(i + 1) - segments.getX(i));
+                final var y = segments.getY(i) + t * (segments.getY(i + 1) - segments.getY(i));
+                return Vector.distance(point, new Vector(x, y));
+            }
+        }
+
+        return Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,81 @@
+package game.snake;
+
+import game.GameConfig;
+import game.world.World;
+import math.Direction;
+import math.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnakeChunkPoolTest {
+    @Test
+    void testFreedSlotIsReusedEmpty() {
+        final var pool = new SnakeChunkPool();
+        final var first = pool.allocateSegments(1.0, 2.0);
+        first.addVertex(3.0, 4.0, 2.0);
+        pool.free(first);
+
+        assertEquals(0, first.size());
+        assertEquals(0, pool.getNumberOfUsedSlots());
+
+        final var second = pool.allocateSegments(5.0, 6.0);
+        assertEquals(first.slot, second.slot);
+        assertEquals(0, second.size());
+        assertEquals(5.0, second.getX(0));
+        assertEquals(6.0, second.getY(0));
+    }
+
+    @Test
+    void testSlotsOfManySlabs() {
+        final var pool = new SnakeChunkPool();
+        final var numberOfSegments = 3 * SnakeChunkPool.SLOTS_PER_SLAB + 1;
+        final var segments = new PathSegments[numberOfSegments];
+
+        for (int i = 0; i < numberOfSegments; i++) {
+            segments[i] = pool.allocateSegments(i, -i);
+            segments[i].addVertex(i, i, 1.0);
+        }
+        assertEquals(numberOfSegments, pool.getNumberOfUsedSlots());
+
+        for (int i = 0; i < numberOfSegments; i++) {
+            assertEquals(i, segments[i].getX(0));
+            assertEquals(-i, segments[i].getY(0));
+            assertEquals(i, segments[i].getY(1));
+        }
+    }
+
+    @Test
+    void testStorageIsRecycled() {
+        final var world = new World(new GameConfig(), false, 1L);
+        final var pool = world.getSnakeChunkPool();
+        final var snake = SnakeFactory.createSnake(new Vector(0, 0), 0.0, world, "TestSnake");
+        snake.grow(100.0);
+
+        int maxUsedSlots = 0;
+        int maxChunks = 0;
+        for (int tick = 0; tick < 5000; tick++) {
+            final var head = snake.getHeadPosition();
+            snake.setTargetDirection(Direction.getFromTo(head, new Vector(50.0 * Math.cos(tick * 0.01), 50.0)));
+            snake.tick();
+            maxUsedSlots = Math.max(maxUsedSlots, pool.getNumberOfUsedSlots());
+            maxChunks = Math.max(maxChunks, snake.getNumberOfChunks());
+        }
+
+        // only chunks of the snake hold slots
+        assertEquals(snake.getNumberOfChunks(), pool.getNumberOfUsedSlots());
+        assertEquals(maxChunks, maxUsedSlots);
+        assertTrue(maxUsedSlots < SnakeChunkPool.SLOTS_PER_SLAB);
+
+        final var ring = snake.pathRing;
+        snake.kill();
+        snake.releaseChunks();
+        assertEquals(0, pool.getNumberOfUsedSlots());
+
+        final var nextSnake = SnakeFactory.createSnake(new Vector(0, 0), 0.0, world, "TestSnake");
+        assertSame(ring, nextSnake.pathRing);
+        assertEquals(1, pool.getNumberOfUsedSlots());
+    }
+}
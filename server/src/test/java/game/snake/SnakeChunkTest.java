@@ -8,6 +8,8 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -212,4 +214,70 @@ public class SnakeChunkTest {
             assertEquals(0.0, snakeChunk.getBoundingBox().distance(point), 1e-4);
         }
     }
+
+    @Test
+    void testActivePathPointsMatchPathData() {
+        final var random = new Random(2718);
+        final var snake = TestSnakeFactory.createSnake();
+        snake.grow(64.0);
+        tickUntilFullLength(snake);
+        tickUntilNewSnakeChunk(snake, random);
+
+        snake.streamSnakeChunks().forEach(chunk -> {
+            final var expected = chunk.getActivePathData().toList();
+            final var points = new ArrayList<SnakePathPoint>();
+            chunk.forEachActivePathPoint((x, y, offset) -> {
+                final var pd = expected.get(points.size());
+                assertEquals(pd.point.x, x);
+                assertEquals(pd.point.y, y);
+                assertEquals(pd.getOffsetInSnake(), offset, 1e-9);
+                points.add(pd);
+            });
+            assertEquals(expected.size(), points.size());
+        });
+    }
+
+    @Test
+    void testIndexedQueriesMatchLinearSearch() {
+        final var random = new Random(4242);
+        final var snake = TestSnakeFactory.createSnake();
+        snake.grow(256.0);
+
+        for (int tick = 0; tick < 1500; tick++) {
+            if (random.nextDouble() < 0.1) {
+                snake.setTargetDirection(Direction.getRandom(random));
+            }
+            // boosting shrinks the snake, so the tail moves in both directions
+            snake.setUserFast(tick > 750 && tick % 100 < 50);
+            snake.tick();
+
+            final var expectedTail = snake.streamSnakeChunks()
+                    .flatMap(SnakeChunk::getActivePathData)
+                    .max(Comparator.comparing(SnakePathPoint::getOffsetInSnake))
+                    .orElseThrow();
+            assertEquals(0.0, Vector.distance(expectedTail.point, snake.getTailPosition()));
+
+            if (tick % 50 == 0) {
+                for (var offset = 0.0; offset <= snake.getLength(); offset += 0.37) {
+                    final var point = snake.getPositionAt(offset);
+                    if (point == null) {
+                        continue;
+                    }
+                    final var queryOffset = offset;
+                    final var expected = snake.streamSnakeChunks()
+                            .flatMap(chunk -> chunk.getPathData().stream())
+                            .mapToDouble(pd -> Math.abs(pd.getOffsetInSnake() - queryOffset))
+                            .min()
+                            .orElseThrow();
+                    final var actual = snake.streamSnakeChunks()
+                            .flatMap(chunk -> chunk.getPathData().stream())
+                            .filter(pd -> Vector.distance(pd.point, point) == 0.0)
+                            .mapToDouble(pd -> Math.abs(pd.getOffsetInSnake() - queryOffset))
+                            .min()
+                            .orElseThrow();
+                    assertEquals(expected, actual, 1e-6);
+                }
+            }
+        }
+    }
 }
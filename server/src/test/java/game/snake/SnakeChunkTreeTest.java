@@ -0,0 +1,65 @@
+package game.snake;
+
+import game.world.TestGame;
+import math.BoundingBox;
+import math.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnakeChunkTreeTest {
+    @Test
+    void testQueriesMatchBruteForce() {
+        final var game = new TestGame();
+        final var snake = TestSnakeFactory.createSnake(Vector.ORIGIN, 0.0, game.world);
+        game.addSnake(snake);
+        snake.grow(400.0);
+
+        final var random = new Random(5);
+        for (int i = 0; i < 3000; i++) {
+            if (i % 20 == 0) {
+                snake.setTargetDirection(Math.PI * (2.0 * random.nextDouble() - 1.0));
+                // boosting shrinks the snake, so chunks get removed at the tail
+                snake.setUserFast(i > 1000 && random.nextBoolean());
+            }
+            game.tickN(1, false);
+
+            if (i % 50 == 0) {
+                assertQueriesMatchBruteForce(snake, random);
+            }
+        }
+
+        assertTrue(snake.getNumberOfChunks() > SnakeChunkTree.GROUP_SIZE);
+    }
+
+    private static void assertQueriesMatchBruteForce(Snake snake, Random random) {
+        final var chunks = snake.getSnakeChunks();
+        final var box = snake.getBoundingBox();
+        chunks.forEach(chunk -> {
+            final var chunkBox = chunk.getBoundingBox();
+            assertTrue(box.minX <= chunkBox.minX && chunkBox.maxX <= box.maxX);
+            assertTrue(box.minY <= chunkBox.minY && chunkBox.maxY <= box.maxY);
+        });
+
+        final var head = snake.getHeadPosition();
+        for (int i = 0; i < 20; i++) {
+            final var center = new Vector(head.x + 100.0 * random.nextGaussian(), head.y + 100.0 * random.nextGaussian());
+            final var size = 30.0 * random.nextDouble();
+            final var area = new BoundingBox(center, size, size);
+            final var intersects = chunks.stream().anyMatch(c -> BoundingBox.intersect(c.getBoundingBox(), area));
+            assertEquals(intersects, snake.intersects(area));
+
+            final var expected = chunks.stream()
+                    .filter(c -> !c.isJunk())
+                    .filter(c -> c.getBoundingBox().isWithinRange(center, size))
+                    .toList();
+            final var actual = new ArrayList<SnakeChunk>();
+            snake.forEachChunkWithinRange(center, size, actual::add);
+            assertEquals(expected, actual);
+        }
+    }
+}
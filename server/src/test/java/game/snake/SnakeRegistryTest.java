@@ -0,0 +1,90 @@
+package game.snake;
+
+import game.world.World;
+import math.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SnakeRegistryTest {
+    private static final long REUSE_DELAY = 250; // 10 seconds at 25 ticks per second
+
+    @Test
+    void testFreedIdsAreHeldBack() {
+        final var world = new World();
+        final var registry = world.getSnakeRegistry();
+        final var a = SnakeFactory.createSnake(new Vector(0, 0), world, "A");
+        registry.setCurrentTick(10);
+        registry.remove(a);
+
+        registry.setCurrentTick(10 + REUSE_DELAY - 1);
+        final var b = SnakeFactory.createSnake(new Vector(0, 0), world, "B");
+        assertNotEquals(a.id, b.id);
+
+        registry.setCurrentTick(10 + REUSE_DELAY);
+        final var c = SnakeFactory.createSnake(new Vector(0, 0), world, "C");
+        assertEquals(a.id, c.id);
+    }
+
+    @Test
+    void testIdsAreReusedInOrder() {
+        final var world = new World();
+        final var registry = world.getSnakeRegistry();
+        final var a = SnakeFactory.createSnake(new Vector(0, 0), world, "A");
+        final var b = SnakeFactory.createSnake(new Vector(0, 0), world, "B");
+        final var c = SnakeFactory.createSnake(new Vector(0, 0), world, "C");
+        assertEquals(1, a.id);
+        assertEquals(2, b.id);
+        assertEquals(3, c.id);
+
+        registry.remove(c);
+        registry.remove(a);
+        assertNull(registry.get(a.id));
+        assertSame(b, registry.get(b.id));
+        registry.setCurrentTick(REUSE_DELAY);
+
+        final var d = SnakeFactory.createSnake(new Vector(0, 0), world, "D");
+        final var e = SnakeFactory.createSnake(new Vector(0, 0), world, "E");
+        final var f = SnakeFactory.createSnake(new Vector(0, 0), world, "F");
+        assertEquals(c.id, d.id);
+        assertEquals(a.id, e.id);
+        assertEquals(4, f.id);
+        assertEquals(4, registry.size());
+        assertEquals(5, registry.getIdLimit());
+    }
+
+    @Test
+    void testGenerationIdentifiesSnake() {
+        final var world = new World();
+        final var registry = world.getSnakeRegistry();
+        final var a = SnakeFactory.createSnake(new Vector(0, 0), world, "A");
+        registry.remove(a);
+        registry.setCurrentTick(REUSE_DELAY);
+        final var b = SnakeFactory.createSnake(new Vector(0, 0), world, "B");
+
+        assertEquals(a.id, b.id);
+        assertNotEquals(a.getGeneration(), b.getGeneration());
+        assertNull(registry.get(a.id, a.getGeneration()));
+        assertSame(b, registry.get(b.id, b.getGeneration()));
+        assertThrows(IllegalArgumentException.class, () -> registry.remove(a));
+    }
+
+    @Test
+    void testFreeIdQueueGrows() {
+        final var world = new World();
+        final var registry = world.getSnakeRegistry();
+        final var snakes = new Snake[200];
+        for (int i = 0; i < snakes.length; i++) {
+            snakes[i] = SnakeFactory.createSnake(new Vector(0, 0), world, "S");
+        }
+        for (final var snake : snakes) {
+            registry.remove(snake);
+        }
+        registry.setCurrentTick(REUSE_DELAY);
+
+        for (final var snake : snakes) {
+            assertEquals(snake.id, SnakeFactory.createSnake(new Vector(0, 0), world, "S").id);
+        }
+        assertEquals(snakes.length + 1, registry.getIdLimit());
+    }
+}
@@ -0,0 +1,62 @@
+package game.snake;
+
+import game.GameConfig;
+import game.world.World;
+import math.Direction;
+import math.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SnakeStateTableTest {
+    @Test
+    void testBatchSteeringEqualsSingleMoves() {
+        final var single = createSnakes();
+        final var batch = createSnakes();
+        final var states = batch.get(0).world.getSnakeStates();
+        final var random = new Random(5);
+
+        for (int tick = 0; tick < 2000; tick++) {
+            for (int i = 0; i < single.size(); i++) {
+                final var direction = Direction.getRandom(random);
+                final var fast = random.nextDouble() < 0.3;
+                for (final var snake : List.of(single.get(i), batch.get(i))) {
+                    final var head = snake.getHeadPosition();
+                    snake.setTargetDirection(Vector.distance(head, Vector.ORIGIN) > 100.0
+                            ? Direction.getFromTo(head, Vector.ORIGIN) : direction);
+                    snake.setUserFast(fast);
+                }
+            }
+
+            single.forEach(Snake::tick);
+            states.steer(batch);
+            batch.forEach(Snake::advance);
+            batch.forEach(Snake::applyWorldUpdates);
+
+            for (int i = 0; i < single.size(); i++) {
+                final var expected = single.get(i);
+                final var actual = batch.get(i);
+                assertEquals(expected.getHeadPosition().x, actual.getHeadPosition().x);
+                assertEquals(expected.getHeadPosition().y, actual.getHeadPosition().y);
+                assertEquals(expected.getHeadDirection(), actual.getHeadDirection());
+                assertEquals(expected.getLength(), actual.getLength());
+                assertEquals(expected.getWidth(), actual.getWidth());
+            }
+        }
+    }
+
+    private static List<Snake> createSnakes() {
+        final var world = new World(new GameConfig(), false, 3L);
+        final var snakes = new ArrayList<Snake>();
+        for (int i = 0; i < 5; i++) {
+            final var snake = SnakeFactory.createSnake(new Vector(10.0 * i, 0), 0.0, world, "TestSnake");
+            snake.grow(50.0 * i + 1.0);
+            snakes.add(snake);
+        }
+        return snakes;
+    }
+}
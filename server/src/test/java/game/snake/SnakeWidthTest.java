@@ -102,4 +102,35 @@ public class SnakeWidthTest {
 
         assertEquals(config.snakes.minWidth, snake.getWidth(), 1e-8);
     }
+
+    @Test
+    void testWidthProfileFollowsLength() {
+        final var snake = TestSnakeFactory.createSnake();
+        snake.grow(200.0);
+
+        for (int i = 0; i < 256; i++) {
+            snake.tick();
+
+            final var length = snake.getLength();
+            final var thinningStart = Math.min(0.75, length * 0.025) * length;
+            for (double t = 0.0; t <= 1.0; t += 0.05) {
+                final var offset = t * length;
+                final var s = Math.max(0.0, (offset - thinningStart) / (length - thinningStart));
+                assertEquals((1.0 - s * s * s) * snake.getWidth(), snake.getWidthAt(offset), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void testChunkMaxWidthIsUpperBound() {
+        final var snake = TestSnakeFactory.createSnake();
+        snake.grow(300.0);
+
+        for (int i = 0; i < 512; i++) {
+            snake.tick();
+        }
+
+        snake.streamSnakeChunks().forEach(chunk -> chunk.forEachActivePathPoint((x, y, offset) ->
+                assertTrue(snake.getWidthAt(offset) <= chunk.getMaxWidth())));
+    }
 }
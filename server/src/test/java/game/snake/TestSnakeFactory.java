@@ -9,7 +9,6 @@ import org.mockito.Mockito;
 import java.util.Random;
 
 public class TestSnakeFactory {
-    private static char nextSnakeId = (char) 1;
     @Setter private static Random random;
 
     public static Snake createSnake() {
@@ -35,16 +34,16 @@ public class TestSnakeFactory {
     }
 
     public static Snake createMockedSnake(Vector position, World world) {
-        var id = nextSnakeId++;
+        var id = world.getSnakeRegistry().allocateId();
         var snake = new Snake(id, world, "TestSnake", (byte) 0);
 
-        snake.headPosition = position.clone();
-        snake.headDirection = Direction.RIGHT;
+        snake.setHead(position, Direction.RIGHT);
         snake.setTargetDirection(snake.getHeadDirection());
         snake.beginChunk();
 
         var mock = Mockito.spy(snake);
 
+        world.getSnakeRegistry().register(mock);
         world.addSnake(mock);
 
         return mock;
@@ -0,0 +1,132 @@
+package game.world;
+
+import org.junit.jupiter.api.Test;
+import server.protocol.GameUpdate;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FoodChangesTest {
+    private final World world = new World();
+
+    /**
+     * Apply encoded food to the items a client knows, like the client does.
+     */
+    private static byte[] apply(byte[] knownItems, ByteBuffer data) {
+        data.position(2);
+        final int count = data.getChar();
+
+        if ((count & FoodChanges.DELTA_FLAG) == 0) {
+            final var items = new byte[count * Food.BYTE_SIZE];
+            data.get(items);
+            return items;
+        }
+
+        final var items = new ArrayList<byte[]>();
+        for (int i = 0; i < knownItems.length; i += Food.BYTE_SIZE) {
+            items.add(Arrays.copyOfRange(knownItems, i, i + Food.BYTE_SIZE));
+        }
+
+        for (int k = 0; k < (count & ~FoodChanges.DELTA_FLAG); k++) {
+            final var change = new byte[Food.BYTE_SIZE];
+            data.get(change);
+            if (change[2] == FoodChanges.REMOVAL) {
+                final var index = ((change[0] & 0xff) << 8) | (change[1] & 0xff);
+                final var last = items.remove(items.size() - 1);
+                if (index < items.size()) {
+                    items.set(index, last);
+                }
+            } else {
+                items.add(change);
+            }
+        }
+
+        final var result = new byte[items.size() * Food.BYTE_SIZE];
+        for (int i = 0; i < items.size(); i++) {
+            System.arraycopy(items.get(i), 0, result, i * Food.BYTE_SIZE, Food.BYTE_SIZE);
+        }
+        return result;
+    }
+
+    private static byte[] getItems(WorldChunk chunk) {
+        return apply(new byte[0], chunk.getEncodedFoodData());
+    }
+
+    @Test
+    void testDeltasReproduceFood() {
+        final var random = new Random(21);
+        final var chunk = new WorldChunk(world, 0, 0, 32, 32, 0, 0);
+        final var history = new HashMap<Integer, byte[]>();
+        final var versions = new ArrayList<Integer>();
+        history.put(chunk.getFoodVersion(), getItems(chunk));
+        versions.add(chunk.getFoodVersion());
+        int deltas = 0;
+
+        for (int round = 0; round < 500; round++) {
+            final var additions = random.nextInt(round % 50 == 0 ? 200 : 4);
+            for (int i = 0; i < additions; i++) {
+                chunk.addFood();
+            }
+            for (int i = 0; i < 3 && chunk.getFoodCount() > 0; i++) {
+                chunk.markFoodAsEaten(random.nextInt(chunk.getFoodCount()));
+            }
+            chunk.removeEatenFood();
+            final var food = WorldSnapshot.FoodInfo.capture(chunk);
+            if (food.version() == versions.get(versions.size() - 1)) {
+                continue;
+            }
+
+            // a client that knows some previous version or nothing
+            final var k = versions.size() - 1 - random.nextInt(Math.min(10, versions.size()) + 1);
+            final var knownVersion = k < 0 ? -1 : versions.get(k);
+            final var knownItems = k < 0 ? new byte[0] : history.get(knownVersion);
+            history.put(food.version(), getItems(chunk));
+            versions.add(food.version());
+            final var data = food.data(knownVersion);
+
+            assertTrue(data.remaining() <= food.data().remaining());
+            if ((data.getChar(2) & FoodChanges.DELTA_FLAG) != 0) {
+                deltas++;
+            }
+            assertArrayEquals(history.get(food.version()), apply(knownItems, data));
+        }
+
+        assertTrue(deltas > 0);
+    }
+
+    @Test
+    void testOldVersionsNeedWholeFood() {
+        final var chunk = new WorldChunk(world, 0, 0, 32, 32, 0, 0);
+        final var knownVersion = chunk.getFoodVersion();
+
+        for (int i = 0; i < FoodChangeLog.CAPACITY + 1; i++) {
+            chunk.addFood();
+        }
+        assertEquals(-1, chunk.getFoodChanges().countSince(knownVersion));
+        assertEquals(FoodChangeLog.CAPACITY - 1, chunk.getFoodChanges().countSince(knownVersion + 2));
+
+        chunk.removeAllFood();
+        assertEquals(-1, chunk.getFoodChanges().countSince(chunk.getFoodVersion() - 1));
+        assertEquals(0, chunk.getFoodChanges().countSince(chunk.getFoodVersion()));
+    }
+
+    @Test
+    void testFoodIsLeftOutOfFullUpdates() {
+        final var update = new GameUpdate();
+        final var chunk = new WorldChunk(world, 0, 0, 32, 32, 0, 0);
+        final var food = WorldSnapshot.FoodInfo.capture(chunk);
+        final List<Boolean> added = new ArrayList<>();
+
+        for (int i = 0; i < 256; i++) {
+            added.add(update.addFoodChunk(food, -1));
+        }
+        assertFalse(added.get(255));
+        assertTrue(added.get(254));
+    }
+}
@@ -0,0 +1,55 @@
+package game.world;
+
+import game.GameConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FoodSpawnerTest {
+    @Test
+    void testFoodSpawnsInChunksWithLeastFood() {
+        final var world = new World(new GameConfig(new GameConfig.ChunkInfo(32.0, 8)), false, 5L);
+        final var random = new Random(5);
+
+        for (int round = 0; round < 300; round++) {
+            // eat some food
+            world.chunks.forEach(chunk -> {
+                for (int i = 0; i < chunk.getFoodCount(); i++) {
+                    if (random.nextDouble() < 0.05) {
+                        chunk.markFoodAsEaten(i);
+                    }
+                }
+                chunk.removeEatenFood();
+            });
+
+            final var counts = world.chunks.stream().mapToInt(WorldChunk::getFoodCount).toArray();
+            final var n = 1 + random.nextInt(8);
+            // chunks with equal food count can be picked in any order, so only compare the counts
+            final var expected = Arrays.stream(counts)
+                    .filter(count -> count < FoodSpawner.FOOD_THRESHOLD)
+                    .sorted()
+                    .limit(n)
+                    .boxed()
+                    .toList();
+
+            world.spawnFood(n);
+
+            final var chunks = world.chunks.stream().toList();
+            final var actual = new ArrayList<Integer>();
+            for (int i = 0; i < chunks.size(); i++) {
+                final var added = chunks.get(i).getFoodCount() - counts[i];
+                assertTrue(added == 0 || added == 1);
+                if (added == 1) {
+                    actual.add(counts[i]);
+                }
+            }
+            actual.sort(null);
+            assertEquals(expected, actual);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package game.world;
 
+import game.snake.Snake;
 import game.snake.TestSnakeFactory;
 import math.Direction;
+import math.Vector;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -46,4 +52,60 @@ class HeatMapTest {
 
         assertTrue(n > 0);
     }
+
+    @Test
+    void testIncrementalUpdatesMatchFullRecomputation() {
+        final var world = new World();
+        final var heatMap = world.getHeatMap();
+        final var random = new Random(24);
+        final var snakes = new ArrayList<Snake>();
+        for (int i = 0; i < 8; i++) {
+            final var position = new Vector(random.nextDouble(-100, 100), random.nextDouble(-100, 100));
+            snakes.add(TestSnakeFactory.createSnake(position, world));
+        }
+        final var config = world.getConfig();
+        final var interval = (int) Math.round(config.heatMapInterval / config.tickDuration);
+
+        for (int tick = 0; tick < 300; tick++) {
+            for (final var snake : snakes) {
+                if (!snake.isAlive()) {
+                    continue;
+                }
+                if (random.nextDouble() < 0.05) {
+                    snake.setUserFast(random.nextBoolean());
+                }
+                if (random.nextDouble() < 0.05) {
+                    snake.grow(random.nextDouble(2.0));
+                }
+                snake.setTargetDirection(Direction.normalize(snake.getHeadDirection() + random.nextDouble(-0.2, 0.2)));
+                snake.tick();
+            }
+            if (tick == 150) {
+                snakes.get(0).kill();
+            }
+            if (tick % 12 == 0) {
+                world.chunks.forEach(WorldChunk::removeOldSnakeChunks);
+            }
+
+            heatMap.update();
+            if (tick % interval != 0) {
+                continue;
+            }
+
+            // the heat map has just been updated
+            final var updated = copy(heatMap);
+            world.chunks.forEach(heatMap::markDirty);
+            heatMap.recompute();
+            assertArrayEquals(copy(heatMap), updated);
+        }
+
+        assertTrue(snakes.stream().filter(Snake::isAlive).count() > 1);
+    }
+
+    private static byte[] copy(HeatMap heatMap) {
+        final var buffer = heatMap.getBuffer();
+        final var bytes = new byte[buffer.capacity()];
+        buffer.get(bytes);
+        return bytes;
+    }
 }
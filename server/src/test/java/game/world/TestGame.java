@@ -2,6 +2,7 @@ package game.world;
 
 import game.Game;
 import game.GameConfig;
+import game.TickExecutor;
 import game.snake.Snake;
 
 import java.util.LinkedList;
@@ -19,6 +20,11 @@ public class TestGame extends Game {
         this.collisionManager.onCollisionDo((s, sc) -> collisions.add(new CollisionInfo(s, sc)));
     }
 
+    public TestGame(World world, TickExecutor tickExecutor) {
+        super(world, tickExecutor);
+        this.collisionManager.onCollisionDo((s, sc) -> collisions.add(new CollisionInfo(s, sc)));
+    }
+
     public static TestGame createWithSmallWorld() {
         return new TestGame(new World(24.0, 3));
     }
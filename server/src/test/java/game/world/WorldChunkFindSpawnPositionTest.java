@@ -3,6 +3,7 @@ package game.world;
 import game.Game;
 import game.GameConfig;
 import game.snake.FinalSnakeChunk;
+import game.snake.Snake;
 import math.BoundingBox;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +14,9 @@ import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,10 +46,10 @@ public class WorldChunkFindSpawnPositionTest {
         BoundingBox b3 = new BoundingBox(-space, 0, 0, space);
         BoundingBox b4 = new BoundingBox(0, space, 0, space);
 
-        when(sc1.getBoundingBox()).thenReturn(b1);
-        when(sc2.getBoundingBox()).thenReturn(b2);
-        when(sc3.getBoundingBox()).thenReturn(b3);
-        when(sc4.getBoundingBox()).thenReturn(b4);
+        stubSnakeChunk(sc1, b1);
+        stubSnakeChunk(sc2, b2);
+        stubSnakeChunk(sc3, b3);
+        stubSnakeChunk(sc4, b4);
 
         //Test for empty chunk
         var p1 = chunk.findSnakeSpawnPosition(rnd);
@@ -65,4 +69,14 @@ public class WorldChunkFindSpawnPositionTest {
         assertThrows(RuntimeException.class, () ->
                 chunk.findSnakeSpawnPosition(rnd));
     }
-}
\ No newline at end of file
+
+    /**
+     * Let the chunk belong to a snake that consists of this chunk only.
+     */
+    private static void stubSnakeChunk(FinalSnakeChunk snakeChunk, BoundingBox box) {
+        final var snake = mock(Snake.class);
+        when(snake.intersects(any())).thenAnswer(invocation -> BoundingBox.intersect(box, invocation.getArgument(0)));
+        lenient().when(snakeChunk.getBoundingBox()).thenReturn(box);
+        when(snakeChunk.getSnake()).thenReturn(snake);
+    }
+}
@@ -1,12 +1,14 @@
 package game.world;
 
 import game.snake.TestSnakeFactory;
+import math.BoundingBox;
 import math.Vector;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Random;
 
@@ -90,6 +92,44 @@ public class WorldChunkTest {
         assertEquals(5, worldChunksInRadius.size());
     }
 
+    @Test
+    void testIndexRangeLookupMatchesAllChunksWithinDistance() {
+        final var random = new Random(25);
+
+        for (int i = 0; i < 1000; i++) {
+            final var center = new Vector(random.nextDouble(-300, 300), random.nextDouble(-300, 300));
+            final var box = new BoundingBox(center, random.nextDouble(0, 80), random.nextDouble(0, 80));
+            final var maxDistance = random.nextInt(4) == 0 ? 0.0 : random.nextDouble(0, 40);
+
+            final var expected = new HashSet<WorldChunk>();
+            world.chunks.forEach(chunk -> {
+                if (BoundingBox.distance2(box, chunk.box) <= maxDistance * maxDistance) {
+                    expected.add(chunk);
+                }
+            });
+            assertEquals(expected, world.chunks.findNearbyChunks(box, maxDistance));
+
+            final var radius = random.nextDouble(0, 40);
+            final var expectedInRadius = new HashSet<WorldChunk>();
+            world.chunks.forEach(chunk -> {
+                if (chunk.box.distance2(center) < radius * radius) {
+                    expectedInRadius.add(chunk);
+                }
+            });
+            assertEquals(expectedInRadius, world.chunks.findIntersectingChunks(center, radius));
+        }
+    }
+
+    @Test
+    void testTouchingChunksAreNearby() {
+        final var chunkSize = world.getConfig().chunks.size;
+        final var origin = world.chunks.findChunk(Vector.ORIGIN);
+        // a box that exactly covers the chunk touches its 8 neighbors
+        final var box = new BoundingBox(origin.box.getCenter(), chunkSize, chunkSize);
+
+        assertEquals(9, world.chunks.findIntersectingChunks(box).size());
+    }
+
     @Test
     void testSnakeHeadChunkIsAlwaysInAChunk() {
         final var snake = TestSnakeFactory.createSnake(world);
@@ -157,4 +197,48 @@ public class WorldChunkTest {
             data.position(2);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindFood() {
+        final var random = new Random(7);
+        final var chunk = new WorldChunk(world, 32, 64, 32, 32, 1, 2);
+        final var result = new int[256];
+
+        for (int round = 0; round < 200; round++) {
+            // spawn some food and eat some
+            for (int i = 0; i < 5; i++) {
+                chunk.addFood();
+            }
+            final var eaten = new HashSet<Integer>();
+            for (int i = 0; i < 3 && chunk.getFoodCount() > 0; i++) {
+                final var index = random.nextInt(chunk.getFoodCount());
+                assertEquals(!eaten.contains(index), chunk.markFoodAsEaten(index));
+                eaten.add(index);
+            }
+            final var foodCount = chunk.getFoodCount();
+            chunk.removeEatenFood();
+            assertEquals(foodCount - eaten.size(), chunk.getFoodCount());
+
+            // compare a query with all food
+            final var p = new Vector(random, new BoundingBox(chunk.box.getCenter(), 40.0, 40.0));
+            final var range = 8.0 * random.nextDouble();
+            final var expected = chunk.streamFood().filter(food -> {
+                final var r = range + food.size.radius;
+                return Vector.distance2(food.position, p) <= r * r;
+            }).count();
+            final var n = chunk.findFood(p, range, result);
+            assertEquals(expected, n);
+
+            final var found = new HashSet<Integer>();
+            for (int i = 0; i < n; i++) {
+                found.add(result[i]);
+                final var dx = chunk.getFoodX(result[i]) - p.x;
+                final var dy = chunk.getFoodY(result[i]) - p.y;
+                final var r = range + chunk.getFoodSize(result[i]).radius;
+                assertTrue(dx * dx + dy * dy <= r * r);
+            }
+            assertEquals(n, found.size());
+            assertArrayEquals(Arrays.copyOf(result, n), chunk.findFood(p, range));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package game.world;
+
+import game.snake.FinalSnakeChunk;
+import game.snake.Snake;
+import game.snake.SnakeChunk;
+import game.snake.TestSnakeFactory;
+import math.Vector;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorldSnapshotTest {
+    @Test
+    void testSnapshotDoesNotChange() {
+        var game = new TestGame();
+        var snake = TestSnakeFactory.createSnake(Vector.ORIGIN, 0.0, game.world);
+        game.addSnake(snake);
+        game.tickN(10, false);
+
+        var snapshot = game.getSnapshot();
+        var info = snapshot.getSnakeInfo(snake);
+        assertNotNull(info);
+        var headPosition = info.headPosition().clone();
+        var currentChunkData = copy(info.currentChunk().data());
+        var heatMap = copy(snapshot.getHeatMap());
+
+        game.tickN(10, false);
+
+        assertTrue(game.getSnapshot().tick > snapshot.tick);
+        assertNotEquals(headPosition.x, snake.getHeadPosition().x);
+        assertEquals(headPosition.x, info.headPosition().x);
+        assertEquals(headPosition.y, info.headPosition().y);
+        assertEquals(currentChunkData, info.currentChunk().data());
+        assertEquals(heatMap, snapshot.getHeatMap());
+    }
+
+    @Test
+    void testSnapshotContainsActiveSnakeChunks() {
+        var game = new TestGame();
+        var snake = TestSnakeFactory.createSnake(Vector.ORIGIN, 0.0, game.world);
+        game.addSnake(snake);
+
+        for (int i = 0; i < 200; i++) {
+            snake.setTargetDirection(0.05 * i);
+            game.tickN(1, false);
+        }
+
+        var snapshot = game.getSnapshot();
+        game.world.chunks.forEach(chunk -> {
+            var expected = chunk.streamSnakeChunks().collect(Collectors.toSet());
+            var actual = new HashSet<SnakeChunk>();
+            snapshot.getChunkInfo(chunk).snakeChunks().forEach(info -> actual.add(info.chunk()));
+            assertEquals(expected, actual);
+        });
+    }
+
+    @Test
+    void testFinalSnakeChunkOffsetIsCaptured() {
+        var game = new TestGame();
+        var snake = TestSnakeFactory.createSnake(Vector.ORIGIN, 0.0, game.world);
+        game.addSnake(snake);
+        snake.grow(100.0);
+
+        while (snake.streamSnakeChunks().noneMatch(FinalSnakeChunk.class::isInstance)) {
+            game.tickN(1, false);
+        }
+
+        var finalChunk = snake.streamSnakeChunks().filter(FinalSnakeChunk.class::isInstance).findFirst().orElseThrow();
+        var snapshot = game.getSnapshot();
+        var chunkInfo = snapshot.getChunkInfo(game.world.chunks.findChunk(finalChunk.getBoundingBox().getCenter()))
+                .snakeChunks().stream()
+                .filter(info -> info.chunk() == finalChunk)
+                .findFirst()
+                .orElseThrow();
+        var capturedOffset = finalChunk.getOffset();
+
+        // moving on changes the offset of the chunk
+        game.tickN(5, false);
+        assertNotEquals(capturedOffset, finalChunk.getOffset());
+
+        var buffer = ByteBuffer.allocate(chunkInfo.byteSize());
+        chunkInfo.writeTo(buffer, snapshot);
+        assertEquals((float) capturedOffset, buffer.getFloat(SnakeChunk.BUFFER_OFFSET_POS));
+    }
+
+    @Test
+    void testSnakeInfosAreEncodedOnce() {
+        var game = new TestGame();
+        var first = TestSnakeFactory.createSnake(Vector.ORIGIN, 0.0, game.world);
+        var second = TestSnakeFactory.createSnake(new Vector(10, 10), 1.0, game.world);
+        game.addSnake(first);
+        game.addSnake(second);
+        game.tickN(3, false);
+
+        var snapshot = game.getSnapshot();
+        var table = snapshot.getSnakeInfoTable();
+        assertEquals(snapshot.getSnakes().size() * Snake.INFO_BYTE_SIZE, table.remaining());
+
+        for (var snake : new Snake[]{first, second}) {
+            var expected = snake.encodeInfo();
+            assertEquals(expected, snapshot.getSnakeInfo(snake).encodedInfo());
+
+            var buffer = ByteBuffer.allocate(1 + Snake.INFO_BYTE_SIZE).put((byte) 42);
+            assertTrue(snapshot.writeSnakeInfo(snake, buffer));
+            assertEquals(buffer.capacity(), buffer.position());
+            assertEquals(expected, buffer.position(1));
+        }
+
+        // the snake infos are slices of the table
+        var index = snapshot.getSnakes().indexOf(snapshot.getSnakeInfo(second));
+        assertEquals(second.encodeInfo(), table.slice(index * Snake.INFO_BYTE_SIZE, Snake.INFO_BYTE_SIZE));
+    }
+
+    private static ByteBuffer copy(ByteBuffer source) {
+        return ByteBuffer.allocate(source.remaining()).put(source).flip();
+    }
+}
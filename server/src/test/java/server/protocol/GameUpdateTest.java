@@ -3,10 +3,13 @@ package server.protocol;
 import game.snake.Snake;
 import game.snake.SnakeChunk;
 import game.snake.TestSnakeFactory;
+import game.world.TestGame;
 import game.world.World;
 import game.world.WorldChunk;
+import game.world.WorldSnapshot.FoodInfo;
 import math.BoundingBox;
 import math.Direction;
+import math.Vector;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -25,7 +28,8 @@ import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class GameUpdateTest {
-    final World world = new World();
+    final TestGame game = new TestGame();
+    final World world = game.world;
     @Mock
     Session session;
 
@@ -39,13 +43,17 @@ public class GameUpdateTest {
     void testUpdateNotEmpty() {
         var chunk = new WorldChunk(world, 0, 0, 42, 42, 0, 0);
         var update = new GameUpdate();
-        update.addFoodChunk(chunk);
+        update.addFoodChunk(FoodInfo.capture(chunk));
         assertFalse(update.isEmpty());
     }
 
     @Test
     void testBinaryEmptyUpdate() {
         var client = new TestClient(session);
+        client.knowledgeBox = new BoundingBox(world.chunks.findChunk(Vector.ORIGIN).box.getCenter(), 1.0, 1.0);
+        captureUpdateData(client);
+
+        // nothing changed since the client received the chunk
         var updateData = captureUpdateData(client);
         assertEquals(GameUpdate.HEADER_SIZE, updateData.capacity());
         assertEquals(0, updateData.get(1));
@@ -56,14 +64,13 @@ public class GameUpdateTest {
     @Test
     void testBinarySameChunkOnce() {
         var client = new TestClient(session);
-        client.knowledgeBox = world.box;
-        var chunk = new WorldChunk(world, 0, 0, 42, 42, 0, 0);
+        var chunk = world.chunks.findChunk(Vector.ORIGIN);
+        client.knowledgeBox = new BoundingBox(chunk.box.getCenter(), 1.0, 1.0);
+        chunk.addFood();
 
-        client.updateClientFoodChunk(chunk);
         var update1 = captureUpdateData(client);
         verifyUpdateIsNotEmpty(update1);
 
-        client.updateClientFoodChunk(chunk);
         var update2 = captureUpdateData(client);
 
         assertNotEquals(update1, update2);
@@ -73,15 +80,14 @@ public class GameUpdateTest {
     @Test
     void testBinarySameChunkUpdated() {
         var client = new TestClient(session);
-        var chunk = new WorldChunk(world, 0, 0, 42, 42, 0, 0);
+        var chunk = world.chunks.findChunk(Vector.ORIGIN);
+        client.knowledgeBox = new BoundingBox(chunk.box.getCenter(), 1.0, 1.0);
         chunk.addFood();
 
-        client.updateClientFoodChunk(chunk);
         var update1 = captureUpdateData(client);
         assertEquals(1, update1.get(3));
 
         chunk.addFood();
-        client.updateClientFoodChunk(chunk);
         var update2 = captureUpdateData(client);
         assertEquals(1, update2.get(3));
     }
@@ -90,18 +96,17 @@ public class GameUpdateTest {
     void testKnowledgeDecay() {
         var client = new TestClient(session);
         var snake = TestSnakeFactory.createSnake(world, Direction.LEFT);
+        game.addSnake(snake);
+        client.knowledgeBox = new BoundingBox(Vector.ORIGIN, 16.0, 16.0);
 
-        for (int i = 0; i < 10; i++) {
-            snake.tick();
-        }
-
-        client.updateClientSnakeChunk(snake.streamSnakeChunks().findFirst().orElseThrow());
-        sendUpdate(client);
+        captureUpdateData(client);
         var update1 = client.lastSentUpdate;
         assertTrue(update1.hasSnake(snake));
 
+        // look somewhere else
+        client.knowledgeBox = new BoundingBox(new Vector(200.0, 200.0), 16.0, 16.0);
         for (int i = 0; i < 42; i++) {
-            sendUpdate(client);
+            captureUpdateData(client);
             if (!client.lastSentUpdate.hasSnake(snake)) {
                 break;
             }
@@ -110,6 +115,22 @@ public class GameUpdateTest {
         assertFalse(client.lastSentUpdate.hasSnake(snake), "Knowledge about that snake should have decayed.");
     }
 
+    @Test
+    void testUpdateWaitsForSnapshotWithTheSnake() {
+        var snake = TestSnakeFactory.createSnake(world, Direction.LEFT);
+        var client = new TestClient(session, snake);
+        game.tickN(1, false);
+        client.sendGameUpdate(game.getSnapshot());
+        assertNull(client.lastSentUpdate);
+
+        game.addSnake(snake);
+        captureUpdateData(client);
+        assertTrue(client.lastSentUpdate.hasSnake(snake));
+    }
+
+    /**
+     * Compute a tick and send the update of its snapshot to the client.
+     */
     private ByteBuffer captureUpdateData(Client client) {
         var remoteEndpoint = Mockito.mock(RemoteEndpoint.Async.class);
 
@@ -119,7 +140,8 @@ public class GameUpdateTest {
         when(session.isOpen()).thenReturn(true);
         when(session.getAsyncRemote()).thenReturn(remoteEndpoint);
 
-        client.sendGameUpdate((byte) 0);
+        game.tickN(1, false);
+        client.sendGameUpdate(game.getSnapshot());
 
         var captor = ArgumentCaptor.forClass(ByteBuffer.class);
         verify(remoteEndpoint).sendBinary(captor.capture());
@@ -163,20 +185,25 @@ public class GameUpdateTest {
         assertTrue(numSnakeInfos > 0 || numSnakeChunks > 0 || numFoodChunks > 0 || hasHeatMap);
     }
 
-    private void sendUpdate(Client client) {
-        captureUpdateData(client);
-    }
-
     private static class TestClient extends Client {
         public BoundingBox knowledgeBox = new BoundingBox(0, 0, 100, 100);
         public GameUpdate lastSentUpdate;
 
         TestClient(Session session) {
-            super(session, null);
+            this(session, null);
+        }
+
+        TestClient(Session session, Snake snake) {
+            super(session, snake);
         }
 
         @Override
         public BoundingBox getKnowledgeBox() {
+            // a client with a snake looks at its head once it has seen it
+            if (snake != null) {
+                final var headPosition = getHeadPosition(snake);
+                return headPosition == null ? null : new BoundingBox(headPosition, 16.0, 16.0);
+            }
             return knowledgeBox;
         }
 
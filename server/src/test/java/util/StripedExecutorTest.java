@@ -0,0 +1,57 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StripedExecutorTest {
+    @Test
+    void testTasksWithSameKeyRunInOrder() throws InterruptedException {
+        final var executor = new StripedExecutor("test", 4, Thread.NORM_PRIORITY);
+        final var keys = List.of("a", "b", "c", "d", "e");
+        final var results = new ArrayList<List<Integer>>();
+
+        for (int k = 0; k < keys.size(); k++) {
+            results.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            for (int k = 0; k < keys.size(); k++) {
+                final var result = results.get(k);
+                final var value = i;
+                executor.execute(keys.get(k), () -> result.add(value));
+            }
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+
+        for (final var result : results) {
+            assertEquals(1000, result.size());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(i, result.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testExceptionDoesNotStopLane() throws InterruptedException {
+        final var executor = new StripedExecutor("test", 1, Thread.NORM_PRIORITY);
+        final var result = Collections.synchronizedList(new ArrayList<Integer>());
+
+        executor.execute("key", () -> {
+            throw new IllegalStateException("test error");
+        });
+        executor.execute("key", () -> result.add(42));
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(List.of(42), result);
+    }
+}